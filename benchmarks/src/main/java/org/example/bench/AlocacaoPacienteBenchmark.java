@@ -0,0 +1,43 @@
+package org.example.bench;
+
+import desmoj.core.simulator.Experiment;
+import org.example.model.ClinicaModel;
+import org.example.model.Paciente;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de obter um Paciente para uma nova chegada, sem e com reciclagem. Rodar com o profiler de GC
+ * (padrão no ExecutaBenchmarks) para ver os bytes alocados por operação (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AlocacaoPacienteBenchmark {
+
+    @Param({"false", "true"})
+    public boolean reciclaPacientes;
+
+    private ClinicaModel model;
+    private boolean urgente;
+
+    @Setup(Level.Trial)
+    public void prepara() {
+        Experiment exp = new Experiment("Bench_Alocacao", false);
+        model = new ClinicaModel(null, "Modelo Clinica", false, false, 4, true, false, null, null);
+        model.setReciclaPacientes(reciclaPacientes);
+        model.connectToExperiment(exp);
+    }
+
+    @Benchmark
+    public Paciente novoPaciente() {
+        urgente = !urgente;
+        Paciente p = model.novoPaciente(urgente);
+        model.devolvePaciente(p); // com reciclagem volta ao pool; sem ela não faz nada
+        return p;
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.bench;
+
+import desmoj.core.simulator.Experiment;
+import org.example.model.ClinicaModel;
+import org.example.model.Paciente;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decisões do despacho com o modelo montado (connectToExperiment roda o init) mas sem simular:
+ * escolha do consultório por ETA (heap × varredura linear), escolha do próximo do pool e a varredura
+ * de tentarDespacho com todos os consultórios ocupados (caso comum no pico: nada a despachar).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecisaoBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int numConsultorios;
+
+    // Filas separadas, ocupação e filas aleatórias
+    @State(Scope.Thread)
+    public static class FilasSeparadas {
+        ClinicaModel model;
+
+        @Setup(Level.Trial)
+        public void prepara(DecisaoBenchmark b) {
+            model = montaModelo(b.numConsultorios, false);
+            SplittableRandom rnd = new SplittableRandom(42);
+            for (int i = 0; i < b.numConsultorios; i++) {
+                model.setOcupado(i, rnd.nextInt(4) != 0);
+                int fila = rnd.nextInt(4);
+                for (int k = 0; k < fila; k++) {
+                    model.entraFila(i, new Paciente(model, "Paciente", false, rnd.nextInt(10) < 3));
+                }
+            }
+        }
+    }
+
+    // Pool com pacientes aguardando e todos os consultórios ocupados
+    @State(Scope.Thread)
+    public static class Pool {
+        ClinicaModel model;
+
+        @Setup(Level.Trial)
+        public void prepara(DecisaoBenchmark b) {
+            model = montaModelo(b.numConsultorios, true);
+            for (int i = 0; i < b.numConsultorios; i++) model.setOcupado(i, true);
+            for (int k = 0; k < 10; k++) {
+                Paciente p = new Paciente(model, "Paciente", false, k % 3 == 0);
+                if (p.isUrgente()) model.filaUrgGlobal.insert(p);
+                else model.filaNaoGlobal.insert(p);
+            }
+        }
+    }
+
+    static ClinicaModel montaModelo(int numConsultorios, boolean modoFilaUnica) {
+        Experiment exp = new Experiment("Bench_Decisao_" + numConsultorios, false);
+        ClinicaModel model = new ClinicaModel(null, "Modelo Clinica", false, false, numConsultorios,
+                true, modoFilaUnica, null, null);
+        model.connectToExperiment(exp);
+        return model;
+    }
+
+    @Benchmark
+    public int escolherConsultorioETA(FilasSeparadas s) {
+        return s.model.consultorioMenorETA();
+    }
+
+    @Benchmark
+    public int escolherConsultorioETALinear(FilasSeparadas s) {
+        return s.model.escolherConsultorioETALinear();
+    }
+
+    @Benchmark
+    public Paciente pickGlobal(Pool s) {
+        return s.model.pickGlobal();
+    }
+
+    @Benchmark
+    public void tentarDespachoOcupados(Pool s) {
+        s.model.tentarDespacho();
+    }
+
+    @Benchmark
+    public void tentarDespachoLinearOcupados(Pool s) {
+        s.model.tentarDespachoLinear();
+    }
+}
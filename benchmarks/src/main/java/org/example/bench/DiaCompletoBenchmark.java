@@ -0,0 +1,85 @@
+package org.example.bench;
+
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.TimeInstant;
+import org.example.Cenario;
+import org.example.model.ClinicaModelBase;
+import org.example.model.MotorSimulacao;
+import org.example.model.SondaModelo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do modelo completo: um dia simulado (600 min) por operação, para vários nºs de consultórios,
+ * fatores de carga e os dois motores. Além de dias/s, os contadores auxiliares dão pacientes/s e
+ * eventos de paciente/s, contados pela {@link SondaModelo} (chegadas, inícios, fins e descartes de fato
+ * ocorridos, inclusive quem ainda estava na fila ao fim do dia).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DiaCompletoBenchmark {
+
+    // Perfil horário do ClinicaExperimentosMain
+    private static final double[] PERFIL_BASE = {
+            0.8, 1.0, 1.2, 1.3, 1.4,
+            1.2, 1.0, 0.9, 0.8, 0.7
+    };
+
+    @Param({"3", "4", "6"})
+    public int numConsultorios;
+
+    @Param({"1.0", "1.5"})
+    public double fatorCarga; // multiplica o perfil horário inteiro
+
+    @Param({"PROCESSOS", "EVENTOS"})
+    public MotorSimulacao motor;
+
+    @Param({"false", "true"})
+    public boolean modoFilaUnica;
+
+    private Cenario cenario;
+    private int rep = 0;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Contadores {
+        public long pacientes;
+        public long eventos;
+
+        @Setup(Level.Iteration)
+        public void zera() {
+            pacientes = 0;
+            eventos = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepara() {
+        double[] fator = new double[PERFIL_BASE.length];
+        for (int h = 0; h < fator.length; h++) fator[h] = PERFIL_BASE[h] * fatorCarga;
+        cenario = new Cenario(numConsultorios, true, modoFilaUnica, fator, null, motor);
+    }
+
+    @Benchmark
+    public double dia(Contadores contadores) {
+        rep++;
+        Experiment exp = new Experiment(cenario.nomeExperimento(rep), false); // sem arquivos de saída
+        ClinicaModelBase model = cenario.criaModelo(false, false);
+        SondaModelo sonda = new SondaModelo(cenario.nomeExperimento(rep), modoFilaUnica ? 1 : numConsultorios);
+        model.setSonda(sonda);
+        exp.setSeedGenerator(rep);
+        model.connectToExperiment(exp);
+        exp.stop(new TimeInstant(cenario.horizonte.getHorizonte()));
+        exp.start();
+        exp.finish();
+
+        contadores.pacientes += model.getTotalChegadas();
+        contadores.eventos += sonda.getEventos();
+        return model.getTempoMedioEsperaUrgente();
+    }
+}
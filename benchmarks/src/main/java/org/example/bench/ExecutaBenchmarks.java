@@ -0,0 +1,32 @@
+package org.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Roda os benchmarks e grava o resultado em JSON (formato do JMH), para comparar versões.
+ * <p>
+ * Aceita os argumentos normais do JMH (filtro por regex, -wi, -i, -f, -rf/-rff...).
+ * Propriedades: -Dresultado=arquivo.json (padrão target/jmh-resultados.json), -Dgc=false desliga o profiler de GC.
+ */
+public class ExecutaBenchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResult().hasValue() && !cli.getResultFormat().hasValue()) {
+            opcoes.resultFormat(ResultFormatType.JSON)
+                  .result(System.getProperty("resultado", "target/jmh-resultados.json"));
+        }
+        if (Boolean.parseBoolean(System.getProperty("gc", "true"))) opcoes.addProfiler(GCProfiler.class);
+
+        new Runner(opcoes.build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Agrega os picos por bucket de muitas replicações sem boxing: uma coluna int[] por bucket
+ * (colunas[b][rep]). Média e intervalo de confiança saem numa passada; o percentil usa seleção parcial
+ * (quickselect) numa cópia da coluna, então resumir R replicações × B buckets custa O(R·B).
+ */
+public class AgregadorPicos {
+
+    private final int[][] colunas; // [bucket][replicação]
+    private int n = 0;
+
+    public AgregadorPicos(int numBuckets) {
+        this.colunas = new int[numBuckets][16];
+    }
+
+    public int getNumBuckets() { return colunas.length; }
+    public int getReplicacoes() { return n; }
+
+    // Picos por bucket de uma replicação (buckets além do vetor contam como 0)
+    public void adiciona(int[] picoBucket) {
+        if (n == colunas[0].length) {
+            for (int b = 0; b < colunas.length; b++) colunas[b] = Arrays.copyOf(colunas[b], n * 2);
+        }
+        for (int b = 0; b < colunas.length; b++) {
+            colunas[b][n] = b < picoBucket.length ? picoBucket[b] : 0;
+        }
+        n++;
+    }
+
+    public double media(int bucket) {
+        if (n == 0) return Double.NaN;
+        int[] col = colunas[bucket];
+        long s = 0;
+        for (int k = 0; k < n; k++) s += col[k];
+        return s / (double) n;
+    }
+
+    // Meia largura do IC da média (normal): z · s / √n
+    public double meiaLarguraIC(int bucket, double z) {
+        if (n < 2) return Double.NaN;
+        int[] col = colunas[bucket];
+        double m = media(bucket);
+        double ss = 0;
+        for (int k = 0; k < n; k++) ss += (col[k] - m) * (col[k] - m);
+        return z * Math.sqrt(ss / (n - 1) / n);
+    }
+
+    // Percentil pelo posto mais próximo: o ceil(p·n)-ésimo menor valor
+    public double percentil(int bucket, double p) {
+        if (n == 0) return Double.NaN;
+        int k = (int) Math.ceil(p * n) - 1;
+        k = Math.max(0, Math.min(k, n - 1));
+        return seleciona(Arrays.copyOf(colunas[bucket], n), k);
+    }
+
+    public double[] medias() {
+        double[] out = new double[colunas.length];
+        for (int b = 0; b < out.length; b++) out[b] = media(b);
+        return out;
+    }
+
+    public double[] percentis(double p) {
+        double[] out = new double[colunas.length];
+        for (int b = 0; b < out.length; b++) out[b] = percentil(b, p);
+        return out;
+    }
+
+    public double[] meiasLargurasIC(double z) {
+        double[] out = new double[colunas.length];
+        for (int b = 0; b < out.length; b++) out[b] = meiaLarguraIC(b, z);
+        return out;
+    }
+
+    // k-ésimo menor de xs (reordena xs); partição de Hoare com pivô do meio
+    static int seleciona(int[] xs, int k) {
+        int lo = 0, hi = xs.length - 1;
+        while (lo < hi) {
+            int pivo = xs[(lo + hi) >>> 1];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (xs[i] < pivo) i++;
+                while (xs[j] > pivo) j--;
+                if (i <= j) {
+                    int t = xs[i]; xs[i] = xs[j]; xs[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return xs[k];
+        }
+        return xs[k];
+    }
+}
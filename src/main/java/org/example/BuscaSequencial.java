@@ -0,0 +1,136 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Busca adaptativa do menor nº de consultórios que cumpre a meta de fila ≤ 5.
+ * <p>
+ * Em vez de varrer os candidatos em ordem com um nº fixo de replicações, faz bisseção sobre os candidatos
+ * (supondo que mais consultórios nunca pioram a fila) e, em cada candidato, replica em lotes até a decisão
+ * ficar estatisticamente definida: a proporção de replicações que cumprem a meta é comparada com
+ * {@code probabilidadeAlvo} pelo intervalo de Wilson. Se o limite inferior passa do alvo o candidato cumpre;
+ * se o superior fica abaixo, não cumpre. Com {@code maxReps} replicações sem decisão vale a estimativa pontual.
+ */
+public class BuscaSequencial {
+
+    private final ExecutorReplicacoes executor;
+    private final long sementeBase;
+    private final double probabilidadeAlvo; // fração mínima de dias que cumprem a meta
+    private final double z;                 // quantil normal da confiança (1.96 = 95%)
+    private final int minReps;
+    private final int maxReps;
+
+    public BuscaSequencial(ExecutorReplicacoes executor, long sementeBase, double probabilidadeAlvo,
+                           double z, int minReps, int maxReps) {
+        this.executor = executor;
+        this.sementeBase = sementeBase;
+        this.probabilidadeAlvo = probabilidadeAlvo;
+        this.z = z;
+        this.minReps = Math.max(1, minReps);
+        this.maxReps = Math.max(this.minReps, maxReps);
+    }
+
+    // Decisão sobre um nº de consultórios
+    public static class Celula {
+        public final int numConsultorios;
+        public final List<ResultadoReplicacao> reps = new ArrayList<>();
+        public boolean cumpre;
+
+        Celula(int numConsultorios) { this.numConsultorios = numConsultorios; }
+
+        public int cumpriram() {
+            int n = 0;
+            for (ResultadoReplicacao r : reps) if (r.cumpriu) n++;
+            return n;
+        }
+    }
+
+    public static class Resultado {
+        public Integer menorConsultorios;                               // null se nenhum candidato cumpre
+        public final Map<Integer, Celula> celulas = new LinkedHashMap<>(); // candidatos avaliados, na ordem da busca
+        public int execucoes;                                           // replicações rodadas
+        public int execucoesExaustivas; // varredura substituída: minReps por candidato, em ordem, até o escolhido
+
+        public Celula celulaEscolhida() {
+            return menorConsultorios == null ? null : celulas.get(menorConsultorios);
+        }
+    }
+
+    /**
+     * @param modelo       cenário com os demais parâmetros (o nº de consultórios é trocado pelos candidatos)
+     * @param candidatos   nº de consultórios em ordem crescente
+     */
+    public Resultado busca(Cenario modelo, int[] candidatos) {
+        Resultado res = new Resultado();
+
+        int lo = 0, hi = candidatos.length - 1;
+        while (lo <= hi) {
+            int meio = (lo + hi) >>> 1;
+            Celula c = avalia(modelo.comConsultorios(candidatos[meio]));
+            res.celulas.put(c.numConsultorios, c);
+            res.execucoes += c.reps.size();
+            if (c.cumpre) {
+                res.menorConsultorios = c.numConsultorios;
+                hi = meio - 1;
+            } else {
+                lo = meio + 1;
+            }
+        }
+
+        // a varredura em ordem para no primeiro c que cumpre (suposto o mesmo da busca) ou roda todos
+        int visitados = candidatos.length;
+        for (int k = 0; k < candidatos.length; k++) {
+            if (res.menorConsultorios != null && candidatos[k] == res.menorConsultorios) { visitados = k + 1; break; }
+        }
+        res.execucoesExaustivas = visitados * minReps;
+        return res;
+    }
+
+    // Replica em lotes do tamanho do pool até a decisão ficar definida (ou chegar a maxReps)
+    private Celula avalia(Cenario cenario) {
+        Celula c = new Celula(cenario.numConsultorios);
+        int lote = executor.getThreads();
+        int rep = 0;
+
+        while (rep < maxReps) {
+            int ate = Math.min(maxReps, Math.max(rep + lote, minReps));
+            List<Future<ResultadoReplicacao>> futuros = new ArrayList<>();
+            for (int r = rep + 1; r <= ate; r++) {
+                futuros.add(executor.submete(cenario, r, ExecutorReplicacoes.semente(sementeBase, cenario, r)));
+            }
+            for (Future<ResultadoReplicacao> f : futuros) c.reps.add(ExecutorReplicacoes.aguarda(f));
+            rep = ate;
+
+            if (rep < minReps) continue;
+            int n = c.reps.size();
+            int k = c.cumpriram();
+            if (limiteInferiorWilson(k, n, z) >= probabilidadeAlvo) { c.cumpre = true; return c; }
+            if (limiteSuperiorWilson(k, n, z) < probabilidadeAlvo) { c.cumpre = false; return c; }
+        }
+
+        c.cumpre = c.cumpriram() >= probabilidadeAlvo * c.reps.size();
+        return c;
+    }
+
+    static double limiteInferiorWilson(int k, int n, double z) {
+        return centroWilson(k, n, z) - meiaLarguraWilson(k, n, z);
+    }
+
+    static double limiteSuperiorWilson(int k, int n, double z) {
+        return centroWilson(k, n, z) + meiaLarguraWilson(k, n, z);
+    }
+
+    private static double centroWilson(int k, int n, double z) {
+        double p = k / (double) n;
+        return (p + z * z / (2.0 * n)) / (1.0 + z * z / n);
+    }
+
+    private static double meiaLarguraWilson(int k, int n, double z) {
+        double p = k / (double) n;
+        return z * Math.sqrt(p * (1 - p) / n + z * z / (4.0 * n * n)) / (1.0 + z * z / n);
+    }
+}
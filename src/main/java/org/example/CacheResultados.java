@@ -0,0 +1,300 @@
+package org.example;
+
+import org.example.model.ClinicaModelBase;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Cache em disco de replicações já simuladas, endereçado pelo conteúdo: a chave é o SHA-256 dos parâmetros
+ * do cenário, da semente da replicação e da versão do modelo. Um cenário repetido (na mesma execução ou em
+ * outra) é servido sem simular de novo.
+ * <p>
+ * A versão do modelo é o hash do bytecode de todas as classes do pacote {@code org.example.model}, inclusive
+ * aninhadas e anônimas, e das classes de fora dele que definem o resultado (mais {@link #VERSAO_MODELO},
+ * para mudanças que o bytecode não mostra), então qualquer alteração no modelo recompilada invalida o cache
+ * sozinha. O diretório é limitado a {@code maxBytes}: passando disso, os arquivos usados há mais tempo
+ * saem primeiro (LRU pela data de modificação, renovada a cada acerto).
+ */
+public class CacheResultados {
+
+    // Aumente ao mudar algo que afeta os resultados fora das classes abaixo (ex.: versão do DESMO-J)
+    public static final int VERSAO_MODELO = 1;
+
+    // Além do pacote do modelo inteiro, estas (com as aninhadas)
+    private static final Class<?>[] CLASSES_FORA_DO_MODELO = {
+            GeradorPacientes.class, Cenario.class, ResultadoReplicacao.class, ExecutorReplicacoes.class
+    };
+
+    private static final int MAGICO = 0x434C5243; // "CLRC"
+    private static final String EXTENSAO = ".res";
+
+    private final Path diretorio;
+    private final long maxBytes;
+    private final byte[] versao;
+    private final LinkedHashMap<String, Long> tamanhos = new LinkedHashMap<>(16, 0.75f, true); // ordem de acesso
+    private long bytesTotais = 0;
+    private long acertos = 0, faltas = 0;
+
+    public CacheResultados(Path diretorio, long maxBytes) {
+        this(diretorio, maxBytes, versaoModelo());
+    }
+
+    // Com outra versão do modelo (testes)
+    CacheResultados(Path diretorio, long maxBytes, byte[] versao) {
+        this.diretorio = diretorio;
+        this.maxBytes = maxBytes;
+        this.versao = versao;
+        try {
+            Files.createDirectories(diretorio);
+            // índice inicial do mais antigo para o mais recente
+            List<Path> arquivos = new ArrayList<>();
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(diretorio, "*" + EXTENSAO)) {
+                for (Path p : ds) arquivos.add(p);
+            }
+            List<Map.Entry<Path, FileTime>> porData = new ArrayList<>();
+            for (Path p : arquivos) porData.add(Map.entry(p, Files.getLastModifiedTime(p)));
+            porData.sort(Map.Entry.comparingByValue(Comparator.naturalOrder()));
+            for (Map.Entry<Path, FileTime> e : porData) {
+                long tamanho = Files.size(e.getKey());
+                tamanhos.put(nomeSemExtensao(e.getKey()), tamanho);
+                bytesTotais += tamanho;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        despeja();
+    }
+
+    public synchronized long getAcertos() { return acertos; }
+    public synchronized long getFaltas()  { return faltas; }
+    synchronized long getBytes()          { return bytesTotais; }
+    synchronized int getEntradas()        { return tamanhos.size(); }
+
+    // null se não estiver no cache (ou se o arquivo estiver corrompido)
+    public ResultadoReplicacao busca(Cenario cenario, int rep, long semente) {
+        String chave = chave(cenario, semente);
+        Path arquivo = diretorio.resolve(chave + EXTENSAO);
+        synchronized (this) {
+            if (tamanhos.get(chave) == null) { faltas++; return null; }
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            if (in.readInt() != MAGICO) throw new IOException("arquivo de cache inválido: " + arquivo);
+            ResultadoReplicacao r = ResultadoReplicacao.le(in, rep, semente);
+            Files.setLastModifiedTime(arquivo, FileTime.fromMillis(System.currentTimeMillis()));
+            synchronized (this) { acertos++; }
+            return r;
+        } catch (IOException | RuntimeException e) {
+            // apagado por outro processo, truncado ou corrompido: trata como falta, esquece e apaga
+            synchronized (this) {
+                Long tamanho = tamanhos.remove(chave);
+                if (tamanho != null) bytesTotais -= tamanho;
+                faltas++;
+            }
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException ignorada) {
+                // outro processo mexendo no mesmo arquivo; a próxima abertura do cache o reindexa
+            }
+            return null;
+        }
+    }
+
+    public void guarda(Cenario cenario, ResultadoReplicacao r) {
+        String chave = chave(cenario, r.semente);
+        Path arquivo = diretorio.resolve(chave + EXTENSAO);
+        try {
+            // escreve num temporário e renomeia: um leitor nunca vê arquivo pela metade
+            Path tmp = Files.createTempFile(diretorio, chave, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGICO);
+                r.escreve(out);
+            }
+            Files.move(tmp, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long tamanho = Files.size(arquivo);
+            synchronized (this) {
+                Long anterior = tamanhos.put(chave, tamanho);
+                bytesTotais += tamanho - (anterior != null ? anterior : 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        despeja();
+    }
+
+    private synchronized void despeja() {
+        Iterator<Map.Entry<String, Long>> it = tamanhos.entrySet().iterator();
+        while (bytesTotais > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> e = it.next();
+            try {
+                Files.deleteIfExists(diretorio.resolve(e.getKey() + EXTENSAO));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            bytesTotais -= e.getValue();
+            it.remove();
+        }
+    }
+
+    // SHA-256 de (versão do modelo, parâmetros do cenário, semente) em hexadecimal
+    String chave(Cenario c, long semente) {
+        MessageDigest md = sha256();
+        md.update(versao);
+        parametros(md, c);
+        md.update(ByteBuffer.allocate(8).putLong(semente).array());
+        return hex(md.digest());
+    }
+
+    // Parâmetros de uma célula da saída em lote (a chave sem a versão do modelo, com replicações e semente
+    // base no lugar da semente da replicação), abreviados a 16 dígitos hexadecimais
+    static String hashParametros(Cenario c, int replicacoes, long sementeBase) {
+        MessageDigest md = sha256();
+        parametros(md, c);
+        md.update(ByteBuffer.allocate(12).putInt(replicacoes).putLong(sementeBase).array());
+        return hex(md.digest()).substring(0, 16);
+    }
+
+    private static void parametros(MessageDigest md, Cenario c) {
+        ByteBuffer b = ByteBuffer.allocate(128);
+        b.putInt(c.numConsultorios);
+        b.put((byte) (c.prioridadeAtiva ? 1 : 0));
+        b.put((byte) (c.modoFilaUnica ? 1 : 0));
+        b.putDouble(c.meanNaoUrgenteOverride != null ? c.meanNaoUrgenteOverride : Double.NaN);
+        b.putInt(c.motor.ordinal());
+        b.putDouble(c.horizonte.getHorizonte());
+        b.putDouble(c.horizonte.getDuracaoBucket());
+        b.putDouble(c.horizonte.getDuracaoDia());
+        b.putDouble(c.horizonte.getDuracaoSegmentoChegada());
+        b.put((byte) (c.crn ? 1 : 0));
+        b.put((byte) (c.chegadaExata ? 1 : 0));
+        b.putInt(c.roteamento.ordinal());
+        b.putDouble(c.envelhecimento != null ? c.envelhecimento : Double.NaN);
+        b.putInt(c.fatorChegadaHora != null ? c.fatorChegadaHora.length : -1);
+        md.update(b.array(), 0, b.position());
+        if (c.fatorChegadaHora != null) {
+            ByteBuffer f = ByteBuffer.allocate(8 * c.fatorChegadaHora.length);
+            for (double x : c.fatorChegadaHora) f.putDouble(x);
+            md.update(f.array());
+        }
+        if (c.plano != null) {
+            // mesmo formato do envio aos trabalhadores
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                c.plano.escreve(new DataOutputStream(bytes));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            md.update(bytes.toByteArray());
+        }
+    }
+
+    // Hash do modelo compilado: cache e trabalhadores remotos só aceitam resultados da mesma versão
+    static byte[] versaoModelo() {
+        try {
+            return versaoModelo(Path.of(CacheResultados.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // raiz = diretório de classes ou jar com as classes do projeto
+    static byte[] versaoModelo(Path raiz) {
+        MessageDigest md = sha256();
+        md.update(ByteBuffer.allocate(4).putInt(VERSAO_MODELO).array());
+        try {
+            if (Files.isDirectory(raiz)) {
+                for (String nome : classesDoModelo(raiz)) {
+                    md.update(nome.getBytes(StandardCharsets.UTF_8));
+                    md.update(Files.readAllBytes(raiz.resolve(nome)));
+                }
+            } else {
+                try (JarFile jar = new JarFile(raiz.toFile())) {
+                    for (String nome : classesDoModelo(raiz)) {
+                        md.update(nome.getBytes(StandardCharsets.UTF_8));
+                        try (InputStream in = jar.getInputStream(jar.getEntry(nome))) {
+                            md.update(in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return md.digest();
+    }
+
+    // Arquivos .class que entram na versão, em ordem (independente da ordem do sistema de arquivos)
+    static List<String> classesDoModelo(Path raiz) throws IOException {
+        List<String> nomes = new ArrayList<>();
+        if (Files.isDirectory(raiz)) {
+            try (Stream<Path> arquivos = Files.walk(raiz)) {
+                arquivos.filter(Files::isRegularFile)
+                        .map(p -> raiz.relativize(p).toString().replace('\\', '/'))
+                        .filter(CacheResultados::entraNaVersao)
+                        .forEach(nomes::add);
+            }
+        } else {
+            try (JarFile jar = new JarFile(raiz.toFile())) {
+                jar.stream().map(JarEntry::getName).filter(CacheResultados::entraNaVersao).forEach(nomes::add);
+            }
+        }
+        if (nomes.isEmpty()) throw new IllegalStateException("bytecode do modelo não encontrado em " + raiz);
+        nomes.sort(Comparator.naturalOrder());
+        return nomes;
+    }
+
+    private static boolean entraNaVersao(String nome) {
+        if (!nome.endsWith(".class")) return false;
+        String pacoteModelo = ClinicaModelBase.class.getPackageName().replace('.', '/') + "/";
+        if (nome.startsWith(pacoteModelo) && nome.indexOf('/', pacoteModelo.length()) < 0) return true;
+        for (Class<?> c : CLASSES_FORA_DO_MODELO) {
+            String base = c.getName().replace('.', '/');
+            if (nome.equals(base + ".class") || nome.startsWith(base + "$")) return true;
+        }
+        return false;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (byte x : b) sb.append(Character.forDigit((x >> 4) & 0xF, 16)).append(Character.forDigit(x & 0xF, 16));
+        return sb.toString();
+    }
+
+    private static String nomeSemExtensao(Path p) {
+        String nome = p.getFileName().toString();
+        return nome.substring(0, nome.length() - EXTENSAO.length());
+    }
+}
@@ -0,0 +1,188 @@
+package org.example;
+
+import org.example.model.ClinicaModel;
+import org.example.model.ClinicaModelBase;
+import org.example.model.ClinicaModelEventos;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.Disciplina;
+import org.example.model.MotorSimulacao;
+import org.example.model.PlanoConsultorios;
+import org.example.model.PoliticaRoteamento;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+//Parâmetros de um cenário da clínica: um "modo" (prioridade / fila única / triagem) com um nº de consultórios
+public class Cenario {
+
+    public final int numConsultorios;
+    public final boolean prioridadeAtiva;
+    public final boolean modoFilaUnica;
+    public final double[] fatorChegadaHora;
+    public final Double meanNaoUrgenteOverride;
+    public final MotorSimulacao motor;
+    public final ConfiguracaoHorizonte horizonte;
+    public final boolean crn; // números aleatórios comuns: mesma semente por replicação em qualquer cenário
+    public final boolean chegadaExata; // chegadas NHPP exatas (TaxaChegada) em vez da taxa fixa por interchegada
+    public final PoliticaRoteamento roteamento; // filas separadas: em qual consultório o paciente entra
+    public final Double envelhecimento; // com prioridade: não urgente esperando há tanto (min) vira urgente; null = sem
+    public final PlanoConsultorios plano; // fator de atendimento e turnos por consultório; null = todos iguais e abertos
+
+    public Cenario(int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                   double[] fatorChegadaHora, Double meanNaoUrgenteOverride) {
+        this(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride,
+                MotorSimulacao.PROCESSOS);
+    }
+
+    public Cenario(int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                   double[] fatorChegadaHora, Double meanNaoUrgenteOverride, MotorSimulacao motor) {
+        this(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride, motor,
+                ConfiguracaoHorizonte.PADRAO);
+    }
+
+    public Cenario(int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                   double[] fatorChegadaHora, Double meanNaoUrgenteOverride, MotorSimulacao motor,
+                   ConfiguracaoHorizonte horizonte) {
+        this(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride, motor,
+                horizonte, false, false, PoliticaRoteamento.ETA, null, null);
+    }
+
+    private Cenario(int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                    double[] fatorChegadaHora, Double meanNaoUrgenteOverride, MotorSimulacao motor,
+                    ConfiguracaoHorizonte horizonte, boolean crn, boolean chegadaExata,
+                    PoliticaRoteamento roteamento, Double envelhecimento, PlanoConsultorios plano) {
+        this.numConsultorios = numConsultorios;
+        this.prioridadeAtiva = prioridadeAtiva;
+        this.modoFilaUnica = modoFilaUnica;
+        this.fatorChegadaHora = fatorChegadaHora != null ? Arrays.copyOf(fatorChegadaHora, fatorChegadaHora.length) : null;
+        this.meanNaoUrgenteOverride = meanNaoUrgenteOverride;
+        this.motor = motor;
+        this.horizonte = horizonte;
+        this.crn = crn;
+        this.chegadaExata = chegadaExata;
+        this.roteamento = roteamento;
+        this.envelhecimento = envelhecimento;
+        this.plano = plano;
+    }
+
+    // Mesmo cenário com outro nº de consultórios
+    public Cenario comConsultorios(int n) {
+        return new Cenario(n, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride, motor,
+                horizonte, crn, chegadaExata, roteamento, envelhecimento, plano);
+    }
+
+    // Mesmo cenário com o modo CRN ligado/desligado
+    public Cenario comCRN(boolean crn) {
+        return new Cenario(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride,
+                motor, horizonte, crn, chegadaExata, roteamento, envelhecimento, plano);
+    }
+
+    // Mesmo cenário com as chegadas NHPP exatas ligadas/desligadas
+    public Cenario comChegadaExata(boolean exata) {
+        return new Cenario(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride,
+                motor, horizonte, crn, exata, roteamento, envelhecimento, plano);
+    }
+
+    // Mesmo cenário com outro roteamento
+    public Cenario comRoteamento(PoliticaRoteamento roteamento) {
+        return new Cenario(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride,
+                motor, horizonte, crn, chegadaExata, roteamento, envelhecimento, plano);
+    }
+
+    // Mesmo cenário com prioridade com envelhecimento (limite em min; null desliga)
+    public Cenario comEnvelhecimento(Double limite) {
+        return new Cenario(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride,
+                motor, horizonte, crn, chegadaExata, roteamento, limite, plano);
+    }
+
+    // Mesmo cenário com consultórios heterogêneos (null = todos iguais e sempre abertos)
+    public Cenario comPlano(PlanoConsultorios plano) {
+        return new Cenario(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride,
+                motor, horizonte, crn, chegadaExata, roteamento, envelhecimento, plano);
+    }
+
+    public ClinicaModelBase criaModelo(boolean showInReport, boolean showInTrace) {
+        ClinicaModelBase model = instanciaModelo(showInReport, showInTrace);
+        model.setChegadaExata(chegadaExata);
+        model.setRoteamento(roteamento.cria());
+        if (prioridadeAtiva && envelhecimento != null) model.setDisciplina(Disciplina.comEnvelhecimento(envelhecimento));
+        model.setPlano(plano);
+        return model;
+    }
+
+    private ClinicaModelBase instanciaModelo(boolean showInReport, boolean showInTrace) {
+        if (motor == MotorSimulacao.EVENTOS) {
+            return new ClinicaModelEventos(null, "Modelo Clinica", showInReport, showInTrace,
+                    numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride, horizonte);
+        }
+        return new ClinicaModel(
+                null,
+                "Modelo Clinica",
+                showInReport,
+                showInTrace,
+                numConsultorios,
+                prioridadeAtiva,
+                modoFilaUnica,
+                fatorChegadaHora,
+                meanNaoUrgenteOverride,
+                horizonte
+        );
+    }
+
+    // Formato binário (envio aos trabalhadores remotos)
+    public void escreve(DataOutput out) throws IOException {
+        out.writeInt(numConsultorios);
+        out.writeBoolean(prioridadeAtiva);
+        out.writeBoolean(modoFilaUnica);
+        out.writeInt(fatorChegadaHora != null ? fatorChegadaHora.length : -1);
+        if (fatorChegadaHora != null) for (double f : fatorChegadaHora) out.writeDouble(f);
+        out.writeDouble(meanNaoUrgenteOverride != null ? meanNaoUrgenteOverride : Double.NaN);
+        out.writeInt(motor.ordinal());
+        out.writeDouble(horizonte.getHorizonte());
+        out.writeDouble(horizonte.getDuracaoBucket());
+        out.writeDouble(horizonte.getDuracaoDia());
+        out.writeDouble(horizonte.getDuracaoSegmentoChegada());
+        out.writeBoolean(crn);
+        out.writeBoolean(chegadaExata);
+        out.writeInt(roteamento.ordinal());
+        out.writeDouble(envelhecimento != null ? envelhecimento : Double.NaN);
+        out.writeBoolean(plano != null);
+        if (plano != null) plano.escreve(out);
+    }
+
+    public static Cenario le(DataInput in) throws IOException {
+        int numConsultorios = in.readInt();
+        boolean prioridadeAtiva = in.readBoolean();
+        boolean modoFilaUnica = in.readBoolean();
+        int n = in.readInt();
+        double[] fatorChegadaHora = n >= 0 ? new double[n] : null;
+        for (int h = 0; h < n; h++) fatorChegadaHora[h] = in.readDouble();
+        double mean = in.readDouble();
+        MotorSimulacao motor = MotorSimulacao.values()[in.readInt()];
+        ConfiguracaoHorizonte horizonte = new ConfiguracaoHorizonte(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+        boolean crn = in.readBoolean();
+        boolean chegadaExata = in.readBoolean();
+        PoliticaRoteamento roteamento = PoliticaRoteamento.values()[in.readInt()];
+        double envelhecimento = in.readDouble();
+        PlanoConsultorios plano = in.readBoolean() ? PlanoConsultorios.le(in) : null;
+        return new Cenario(numConsultorios, prioridadeAtiva, modoFilaUnica, fatorChegadaHora,
+                Double.isNaN(mean) ? null : mean, motor, horizonte, crn, chegadaExata, roteamento,
+                Double.isNaN(envelhecimento) ? null : envelhecimento, plano);
+    }
+
+    public String nomeExperimento(int rep) {
+        return "Clinica_" + numConsultorios + "cons_"
+                + (prioridadeAtiva ? "prio" : "semprio")
+                + (modoFilaUnica ? "_pool" : "_sep")
+                + (meanNaoUrgenteOverride != null ? "_triagem" : "")
+                + (motor == MotorSimulacao.EVENTOS ? "_eventos" : "")
+                + (crn ? "_crn" : "")
+                + (chegadaExata ? "_nhpp" : "")
+                + (roteamento != PoliticaRoteamento.ETA ? "_" + roteamento.name().toLowerCase() : "")
+                + (envelhecimento != null ? "_env" + envelhecimento.intValue() : "")
+                + (plano != null ? "_plano" : "")
+                + "_rep" + rep;
+    }
+}
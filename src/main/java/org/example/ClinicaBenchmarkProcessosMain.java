@@ -0,0 +1,101 @@
+package org.example;
+
+import desmoj.core.simulator.CoroutineModel;
+import desmoj.core.simulator.Experiment;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.MotorSimulacao;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compara as formas de executar os SimProcess do DESMO-J num cenário de alta ocupação (poucos consultórios,
+ * chegadas pesadas, muitos pacientes esperando ao mesmo tempo): THREADS (uma thread do SO por processo, o
+ * padrão) e FIBERS (corrotinas leves), com o motor EVENTOS (sem processos) como referência.
+ * <p>
+ * As replicações rodam uma de cada vez na thread principal, para o pico de threads e de heap medir uma
+ * replicação só. Os resultados têm de ser idênticos nas três execuções; a diferença é só de custo.
+ * <p>
+ * Uso: java -javaagent:quasar-core-&lt;versão&gt;.jar ... ClinicaBenchmarkProcessosMain [replicacoes] [consultorios]
+ * <p>
+ * Sem o agente do Quasar a linha FIBERS é pulada, com um aviso (ver {@link ExecucaoProcessos}).
+ */
+public class ClinicaBenchmarkProcessosMain {
+
+    private static final long SEMENTE_BASE = 20240601L;
+
+    // Carga bem acima da base o dia todo: a fila cresce e os pacientes ficam passivados esperando
+    private static final double[] FATOR_PESADO = {
+            1.6, 1.8, 2.0, 2.2, 2.4,
+            2.2, 2.0, 1.8, 1.6, 1.4
+    };
+
+    public static void main(String[] args) {
+        int reps = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int consultorios = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        System.out.printf("Cenário: %d consultórios, filas separadas, %d replicações por execução%n", consultorios, reps);
+        System.out.printf("%-18s %10s %10s %12s %14s%n", "execução", "tempo (s)", "reps/s", "pico threads", "pico heap (MB)");
+
+        List<int[]> referencia = null;
+        for (CoroutineModel modelo : CoroutineModel.values()) {
+            if (modelo == CoroutineModel.FIBERS && !ExecucaoProcessos.quasarAtivo()) {
+                System.out.printf("%-18s pulado (%s)%n", "PROCESSOS/" + modelo, ExecucaoProcessos.USO_AGENTE);
+                continue;
+            }
+            referencia = mede("PROCESSOS/" + modelo, modelo, MotorSimulacao.PROCESSOS, consultorios, reps, referencia);
+        }
+        mede("EVENTOS", CoroutineModel.THREADS, MotorSimulacao.EVENTOS, consultorios, reps, referencia);
+    }
+
+    // Roda as replicações e imprime a linha da tabela; devolve os picos por hora para comparar com a próxima
+    private static List<int[]> mede(String rotulo, CoroutineModel modelo, MotorSimulacao motor, int consultorios,
+                                    int reps, List<int[]> referencia) {
+        Experiment.setCoroutineModel(modelo);
+        Cenario cenario = new Cenario(consultorios, false, false, FATOR_PESADO, null, motor,
+                ConfiguracaoHorizonte.PADRAO);
+
+        // aquecimento (JIT e pool de threads do DESMO-J), fora da medida
+        ExecutorReplicacoes.rodaReplicacao(cenario, 0, ExecutorReplicacoes.semente(SEMENTE_BASE, cenario, 0));
+
+        System.gc();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        List<MemoryPoolMXBean> heap = new ArrayList<>();
+        for (MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (p.getType() == MemoryType.HEAP) {
+                p.resetPeakUsage();
+                heap.add(p);
+            }
+        }
+
+        List<int[]> picos = new ArrayList<>();
+        long inicio = System.nanoTime();
+        for (int rep = 1; rep <= reps; rep++) {
+            ResultadoReplicacao r = ExecutorReplicacoes.rodaReplicacao(cenario, rep,
+                    ExecutorReplicacoes.semente(SEMENTE_BASE, cenario, rep));
+            picos.add(r.picoHora);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        long picoHeap = 0;
+        for (MemoryPoolMXBean p : heap) picoHeap += p.getPeakUsage().getUsed();
+
+        System.out.printf("%-18s %10.2f %10.1f %12d %14.1f%n", rotulo, segundos, reps / segundos,
+                threads.getPeakThreadCount(), picoHeap / (1024.0 * 1024.0));
+
+        if (referencia != null) {
+            for (int i = 0; i < reps; i++) {
+                if (!Arrays.equals(referencia.get(i), picos.get(i))) {
+                    System.out.printf("  ATENÇÃO: rep %d difere da execução anterior%n", i + 1);
+                }
+            }
+        }
+        return picos;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import org.example.model.ClinicaModelBase;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.MotorSimulacao;
+import org.example.model.PoliticaRoteamento;
+
+import java.util.Arrays;
+
+/**
+ * Compara os roteamentos (filas separadas) com c crescente e a mesma utilização: custo por replicação e
+ * qualidade (espera média, fração de dias que cumprem a meta). Usa o motor EVENTOS, em que o ETA ainda é a
+ * varredura O(c) original, então a linha ETA mostra o custo da varredura contra MENOR_FILA (heap) e
+ * POTENCIA_2 (O(1)).
+ * <p>
+ * Uso: ClinicaBenchmarkRoteamentoMain [replicacoes] [utilizacao]
+ */
+public class ClinicaBenchmarkRoteamentoMain {
+
+    private static final long SEMENTE_BASE = 20240601L;
+    private static final int[] CONSULTORIOS = {4, 16, 64, 256};
+
+    public static void main(String[] args) {
+        int reps = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        double rho = args.length > 1 ? Double.parseDouble(args[1]) : 0.85;
+
+        // carga oferecida com fator 1.0, em consultórios ocupados (λ · E[S])
+        double p = ClinicaModelBase.PROB_URGENTE;
+        double es = p * ClinicaModelBase.MEDIA_SERVICO_URGENTE + (1 - p) * ClinicaModelBase.MEDIA_SERVICO_NAO_URGENTE;
+        double cargaBase = es / ClinicaModelBase.MEDIA_INTERCHEGADA;
+
+        System.out.printf("Utilização %.2f, %d replicações por célula, motor EVENTOS%n", rho, reps);
+        System.out.printf("%6s %-11s %10s %14s %14s %10s%n", "c", "roteamento", "ms/rep", "espera urg", "espera não", "cumpriu");
+
+        for (int c : CONSULTORIOS) {
+            double[] fator = new double[ConfiguracaoHorizonte.PADRAO.getNumBuckets()];
+            Arrays.fill(fator, rho * c / cargaBase);
+            for (PoliticaRoteamento politica : PoliticaRoteamento.values()) {
+                Cenario cenario = new Cenario(c, true, false, fator, null, MotorSimulacao.EVENTOS,
+                        ConfiguracaoHorizonte.PADRAO).comRoteamento(politica);
+
+                // aquecimento do JIT, fora da medida
+                ExecutorReplicacoes.rodaReplicacao(cenario, 0, ExecutorReplicacoes.semente(SEMENTE_BASE, cenario, 0));
+
+                double somaUrg = 0, somaNao = 0;
+                int cumpriram = 0;
+                long inicio = System.nanoTime();
+                for (int rep = 1; rep <= reps; rep++) {
+                    ResultadoReplicacao r = ExecutorReplicacoes.rodaReplicacao(cenario, rep,
+                            ExecutorReplicacoes.semente(SEMENTE_BASE, cenario, rep));
+                    somaUrg += r.esperaMediaUrgente;
+                    somaNao += r.esperaMediaNaoUrgente;
+                    if (r.cumpriu) cumpriram++;
+                }
+                double ms = (System.nanoTime() - inicio) / 1e6 / reps;
+
+                System.out.printf("%6d %-11s %10.2f %14.2f %14.2f %7d/%d%n", c, politica, ms,
+                        somaUrg / reps, somaNao / reps, cumpriram, reps);
+            }
+        }
+    }
+}
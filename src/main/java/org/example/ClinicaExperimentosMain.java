@@ -1,11 +1,24 @@
 package org.example;
 
-import desmoj.core.simulator.Experiment;
-import desmoj.core.simulator.TimeInstant;
-import org.example.model.ClinicaModel;
+import desmoj.core.simulator.CoroutineModel;
+import org.example.model.AnaliseLotes;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.HistogramaEspera;
+import org.example.model.HistogramasEspera;
+import org.example.model.MediasEmLotes;
+import org.example.model.MotorSimulacao;
+import org.example.model.PlanoConsultorios;
+import org.example.model.PoliticaRoteamento;
+import org.example.model.PoliticaVirada;
+import org.example.model.ResumoDia;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
 
 //roda varios cenarios e replicações
 public class ClinicaExperimentosMain {
@@ -13,12 +26,105 @@ public class ClinicaExperimentosMain {
     // Se quiser calcular payback de verdade, coloque aqui o benefício mensal estimado
     private static final double BENEFICIO_MENSAL_R$ = 0.0;
 
-    public static void main(String[] args) {
+    // Semente base das replicações (cada replicação deriva a sua a partir desta)
+    private static final long SEMENTE_BASE = 20240601L;
+
+    // PROCESSOS = um SimProcess por paciente; EVENTOS = mesmo modelo só com eventos (mesmos resultados, mais rápido)
+    private static final MotorSimulacao MOTOR = MotorSimulacao.PROCESSOS;
+
+    // Execução dos SimProcess: THREADS = uma thread do SO por processo; FIBERS = corrotinas leves.
+    // É global no DESMO-J (vale para todas as replicações desta execução). FIBERS precisa de
+    // -javaagent:quasar-core-<versão>.jar; sem o agente roda com THREADS (ver ExecucaoProcessos)
+    private static final CoroutineModel EXECUCAO_PROCESSOS = CoroutineModel.THREADS;
+
+    // Chegadas NHPP exatas (a taxa muda na virada da hora, também no meio de uma interchegada); false mantém
+    // a aproximação antiga, em que cada interchegada usa a taxa da hora em que foi sorteada
+    private static final boolean CHEGADA_EXATA = false;
+
+    // Filas separadas: roteamento das chegadas (ver PoliticaRoteamento; ETA é o original)
+    private static final PoliticaRoteamento ROTEAMENTO = PoliticaRoteamento.ETA;
+    // Prioridade com envelhecimento: limite de espera (min) do não urgente; null = prioridade pura
+    private static final Double ENVELHECIMENTO = null;
+
+    // Consultórios heterogêneos: fator de atendimento e turnos por consultório (formato em PlanoConsultorios);
+    // null = todos iguais e sempre abertos
+    private static final Path ARQUIVO_PLANO = null; // ex.: Path.of("plano_consultorios.txt")
+
+    // Horizonte de cada replicação e granularidade dos picos (padrão: 600 min em buckets de 1h)
+    private static final ConfiguracaoHorizonte HORIZONTE = ConfiguracaoHorizonte.PADRAO;
+
+    // Busca adaptativa: bisseção sobre o nº de consultórios + parada antecipada das replicações
+    private static final boolean BUSCA_ADAPTATIVA = false;
+    private static final double PROB_ALVO_META = 0.90; // fração mínima de dias com fila ≤ 5
+    private static final double Z_CONFIANCA = 1.645;   // 90% (bilateral) no intervalo de Wilson
+    private static final int MAX_REPS_ADAPTATIVA = 40;
+
+    // Pré-triagem analítica (Erlang-C / fluido, ver TriagemAnalitica): c que falham com folga não rodam e a
+    // busca para no primeiro c que passa com folga; os c maiores só rodam se nenhum candidato cumprir
+    private static final boolean TRIAGEM_ANALITICA = false;
+
+    // Comparação pareada triagem 20 × 15 min com números aleatórios comuns (CRN) × sementes independentes
+    private static final boolean COMPARACAO_CRN = false;
+    private static final int REPS_COMPARACAO_CRN = 30;
+
+    // Operação contínua: muitos dias seguidos num só Experiment, com a fila da véspera carregada (ou descartada)
+    private static final boolean MULTI_DIA = false;
+    private static final int DIAS_MULTI_DIA = 365;
+    private static final PoliticaVirada POLITICA_VIRADA = PoliticaVirada.CARREGA;
+
+    // Estado estacionário por médias em lotes (MSER + parada automática) numa rodada só
+    private static final boolean ESTADO_ESTACIONARIO = false;
+    private static final double PRECISAO_RELATIVA_LOTES = 0.05; // meia largura do IC 95% ≤ 5% da média
+    private static final int DIAS_MAX_LOTES = 365;            // limite se a precisão não for atingida
+
+    // Cache em disco das replicações (cenário + semente + versão do modelo); null desliga.
+    // Cenários repetidos (ex.: "Triagem BASE" = "Cenário PRIORIDADE") e execuções seguintes saem do cache.
+    private static final Path DIRETORIO_CACHE = Path.of(".cache-clinica");
+    private static final long CACHE_MAX_BYTES = 256L << 20;
+
+    // Métricas ao vivo (eventos/s, tempo simulado, filas, reps restantes, heap) no JMX e em
+    // http://127.0.0.1:<porta>/metricas; -1 desliga, 0 = porta livre (impressa no início)
+    private static final int PORTA_METRICAS = -1;
+
+    // Execução distribuída: ≥ 0 abre o coordenador nessa porta e as replicações vão para os trabalhadores
+    // (java ... org.example.ClinicaTrabalhadorMain <host> <porta> [threads], quantos quiser, nesta ou em
+    // outras máquinas); -1 roda tudo aqui. Só o loopback escuta: para outras máquinas, troque o endereço
+    private static final int PORTA_COORDENADOR = -1;
+    private static final InetAddress ENDERECO_COORDENADOR = InetAddress.getLoopbackAddress();
+
+    private static ExecutorReplicacoes executor;
+    private static PlanoConsultorios plano;
+
+    public static void main(String[] args) throws IOException {
 
         // CUIDADO: se ainda estiver pesado, diminua cenários e reps
         int[] cenariosConsultorios = {2, 3, 4, 5, 6};
         int replicacoesPorCenario = 5; // pode colocar 3 se quiser ainda mais leve
 
+        ExecucaoProcessos.define(EXECUCAO_PROCESSOS);
+        plano = ARQUIVO_PLANO != null ? PlanoConsultorios.le(ARQUIVO_PLANO) : null;
+
+        // Replicações independentes rodam em paralelo; cada uma tem sua semente (mesmo resultado com 1 thread)
+        executor = new ExecutorReplicacoes(Runtime.getRuntime().availableProcessors());
+        CacheResultados cache = DIRETORIO_CACHE != null ? new CacheResultados(DIRETORIO_CACHE, CACHE_MAX_BYTES) : null;
+        executor.setCache(cache);
+
+        MetricasExecucao metricas = null;
+        if (PORTA_METRICAS >= 0) {
+            metricas = new MetricasExecucao().publicaJmx().publicaHttp(PORTA_METRICAS);
+            executor.setMetricas(metricas);
+            System.out.println("Métricas: JMX org.example:type=MetricasExecucao | http://127.0.0.1:"
+                    + metricas.getPortaHttp() + "/metricas");
+        }
+
+        CoordenadorReplicacoes coordenador = null;
+        if (PORTA_COORDENADOR >= 0) {
+            coordenador = new CoordenadorReplicacoes(ENDERECO_COORDENADOR, PORTA_COORDENADOR);
+            executor.setRemoto(coordenador);
+            System.out.println("Coordenador em " + ENDERECO_COORDENADOR.getHostAddress() + ":" + coordenador.getPorta()
+                    + " aguardando trabalhadores");
+        }
+
         // Perfil de carga ao longo do dia (10 blocos de 1h)
         double[] fatorChegadaHora = {
                 0.8, 1.0, 1.2, 1.3, 1.4,
@@ -98,6 +204,79 @@ public class ClinicaExperimentosMain {
             }
         }
 
+        if (COMPARACAO_CRN) {
+            int c = baseTriagem.menorConsultorios != null
+                    ? baseTriagem.menorConsultorios
+                    : cenariosConsultorios[cenariosConsultorios.length - 1];
+            Cenario base20 = new Cenario(c, true, false, fatorChegadaHora, null, MOTOR, HORIZONTE)
+                    .comChegadaExata(CHEGADA_EXATA).comRoteamento(ROTEAMENTO)
+                    .comEnvelhecimento(ENVELHECIMENTO).comPlano(plano);
+            Cenario triagem = new Cenario(c, true, false, fatorChegadaHora, 15.0, MOTOR, HORIZONTE)
+                    .comChegadaExata(CHEGADA_EXATA).comRoteamento(ROTEAMENTO)
+                    .comEnvelhecimento(ENVELHECIMENTO).comPlano(plano);
+
+            System.out.println();
+            System.out.printf(">>> (c) COMPARAÇÃO PAREADA (c = %d, %d reps): NaoUrg 20 min − 15 min%n", c, REPS_COMPARACAO_CRN);
+            Map<ComparacaoCRN.Metrica, ComparacaoCRN.Resultado> comparacao =
+                    ComparacaoCRN.compara(executor, SEMENTE_BASE, base20, triagem, REPS_COMPARACAO_CRN);
+            for (Map.Entry<ComparacaoCRN.Metrica, ComparacaoCRN.Resultado> e : comparacao.entrySet()) {
+                ComparacaoCRN.Metrica m = e.getKey();
+                ComparacaoCRN.Resultado r = e.getValue();
+                System.out.printf("%-18s dif = %.2f ± %.2f | var indep = %.3f | var CRN = %.3f | redução = %.0f%% | reps CRN p/ mesma confiança = %d%n",
+                        m, r.mediaDiferencaCRN, r.meiaLarguraICCRN, r.varDiferencaIndependente, r.varDiferencaCRN,
+                        100 * r.reducaoVariancia(), r.repsEquivalentesCRN());
+            }
+        }
+
+        if (MULTI_DIA) {
+            int c = resComPrio.menorConsultorios != null
+                    ? resComPrio.menorConsultorios
+                    : cenariosConsultorios[cenariosConsultorios.length - 1];
+            Cenario continuo = new Cenario(c, true, false, fatorChegadaHora, null, MOTOR,
+                    ConfiguracaoHorizonte.dias(DIAS_MULTI_DIA, HORIZONTE.getDuracaoBucket()))
+                    .comChegadaExata(CHEGADA_EXATA).comRoteamento(ROTEAMENTO)
+                    .comEnvelhecimento(ENVELHECIMENTO).comPlano(plano);
+            List<ResumoDia> dias = SimulacaoMultiDia.roda(continuo, POLITICA_VIRADA, SEMENTE_BASE);
+
+            long atendUrg = 0, atendNao = 0, descartados = 0;
+            double somaUrg = 0, somaNao = 0;
+            int maxAguardando = 0;
+            for (ResumoDia d : dias) {
+                if (d.atendidosUrgente > 0) { somaUrg += d.esperaMediaUrgente * d.atendidosUrgente; atendUrg += d.atendidosUrgente; }
+                if (d.atendidosNaoUrgente > 0) { somaNao += d.esperaMediaNaoUrgente * d.atendidosNaoUrgente; atendNao += d.atendidosNaoUrgente; }
+                descartados += d.descartados;
+                maxAguardando = Math.max(maxAguardando, d.aguardandoNaVirada);
+            }
+
+            System.out.println();
+            System.out.printf(">>> OPERAÇÃO CONTÍNUA (c = %d, %d dias, virada = %s)%n", c, dias.size(), POLITICA_VIRADA);
+            System.out.printf("Dias que cumprem a meta: %.1f%% (sem o 1º dia: %.1f%%)%n",
+                    100 * SimulacaoMultiDia.fracaoCumpridos(dias, 1), 100 * SimulacaoMultiDia.fracaoCumpridos(dias, 2));
+            System.out.printf("Espera média Urgente: %.2f min | Não Urgente: %.2f min%n",
+                    somaUrg / Math.max(1, atendUrg), somaNao / Math.max(1, atendNao));
+            System.out.printf("Maior fila na virada do dia: %d | Descartados na virada: %d%n", maxAguardando, descartados);
+        }
+
+        if (ESTADO_ESTACIONARIO) {
+            int c = resComPrio.menorConsultorios != null
+                    ? resComPrio.menorConsultorios
+                    : cenariosConsultorios[cenariosConsultorios.length - 1];
+            Cenario longo = new Cenario(c, true, false, fatorChegadaHora, null, MOTOR,
+                    ConfiguracaoHorizonte.dias(DIAS_MAX_LOTES, HORIZONTE.getDuracaoBucket()))
+                    .comChegadaExata(CHEGADA_EXATA).comRoteamento(ROTEAMENTO)
+                    .comEnvelhecimento(ENVELHECIMENTO).comPlano(plano);
+            AnaliseLotes analise = new AnaliseLotes(PRECISAO_RELATIVA_LOTES, 1.96, 20, 2000);
+            SimulacaoLotes.Resultado r = SimulacaoLotes.roda(longo, analise, SEMENTE_BASE);
+
+            System.out.println();
+            System.out.printf(">>> ESTADO ESTACIONÁRIO (c = %d, médias em lotes): %s após %.1f dias simulados, %d chegadas%n",
+                    c, r.atingiuPrecisao ? "precisão atingida" : "horizonte máximo", r.tempoSimulado / HORIZONTE.getDuracaoDia(),
+                    r.chegadas);
+            imprimeEstimativa("Espera Urgente (min)", analise.estimaEsperaUrgente());
+            imprimeEstimativa("Espera NaoUrg (min)", analise.estimaEsperaNaoUrgente());
+            imprimeEstimativa("Fila na chegada", analise.estimaFila());
+        }
+
         // (e) – fila única (pool) com prioridade
         System.out.println();
         System.out.println("==== COMPARAÇÃO FILA ÚNICA (POOL) ====");
@@ -116,6 +295,18 @@ public class ClinicaExperimentosMain {
         System.out.printf("Fila única (pool): menor nº de consultórios que cumpre a meta = %s%n",
                 resFilaUnica.menorConsultorios == null ? "NENHUM" : resFilaUnica.menorConsultorios);
 
+        if (cache != null) {
+            System.out.println();
+            System.out.printf("Cache de replicações: %d acertos, %d simuladas%n", cache.getAcertos(), cache.getFaltas());
+        }
+
+        if (coordenador != null) {
+            System.out.printf("Execução distribuída: %d replicações reentregues por perda de trabalhador%n",
+                    coordenador.getReentregas());
+            coordenador.close();
+        }
+        if (metricas != null) metricas.close();
+        executor.close();
         System.exit(0);
     }
 
@@ -126,6 +317,8 @@ public class ClinicaExperimentosMain {
         Integer menorConsultorios; // menor nº de consultórios que cumpre a meta
         double[] mediaPorHora;     // média do pico por hora para esse nº de consultórios
         double[] p95PorHora;       // p95 do pico por hora para esse nº de consultórios
+        double[] icMediaPorHora;   // meia largura do IC 95% da média do pico por hora
+        HistogramasEspera esperas; // esperas de todas as reps desse nº de consultórios, somadas
     }
 
     /**
@@ -148,103 +341,148 @@ public class ClinicaExperimentosMain {
                 + (meanNaoUrgenteOverride != null ? " | NãoUrg=" + meanNaoUrgenteOverride + " min" : ""));
         System.out.println("================================================");
 
-        int H = 10; // 10 blocos de 1h
+        int H = HORIZONTE.getNumBuckets(); // 10 blocos de 1h no padrão
 
         Integer melhorC = null;
         double[] melhorMedia = null;
         double[] melhorP95 = null;
-
-        // varremos os possíveis números de consultórios
-        for (int nCons : cenariosConsultorios) {
-
-            boolean todosCumpriram = true;
-            List<int[]> picosHoraReps = new ArrayList<>();
-
-            for (int rep = 1; rep <= reps; rep++) {
-
-                String nomeExp = "Clinica_" + nCons + "cons_"
-                        + (prioridadeAtiva ? "prio" : "semprio")
-                        + (modoFilaUnica ? "_pool" : "_sep")
-                        + (meanNaoUrgenteOverride != null ? "_triagem" : "")
-                        + "_rep" + rep;
-
-                Experiment exp = new Experiment(nomeExp);
-
-                // showInReport=false, showInTrace=false para ficar bem leve
-                ClinicaModel model = new ClinicaModel(
-                        null,
-                        "Modelo Clinica",
-                        false,
-                        false,
-                        nCons,
-                        prioridadeAtiva,
-                        modoFilaUnica,
-                        fatorChegadaHora,
-                        meanNaoUrgenteOverride
-                );
-
-                model.connectToExperiment(exp);
-                TimeInstant stopTime = new TimeInstant(600.0); // 10h = 600 min
-                exp.stop(stopTime);
-                exp.start();
-
-                exp.finish();
-
-                boolean cumpriu;
-                int[] picoHoraVet;
-
-                if (modoFilaUnica) {
-                    int picoPool = model.getPicoPoolDia();
-                    cumpriu = (picoPool <= 5 * nCons);
-                    picoHoraVet = model.getPicoHoraPool();
-                } else {
-                    int[] picos = model.getPicoFilaPorConsultorio();
-                    int pico = 0;
-                    for (int p : picos) pico = Math.max(pico, p);
-                    cumpriu = (pico <= 5);
-                    picoHoraVet = model.getPicoHoraGlobal();
+        double[] melhorIC = null;
+        List<ResultadoReplicacao> repsMelhor = null;
+        HistogramasEspera esperasMelhor = null;
+        double filaMediaMelhor = Double.NaN;
+        double utilizacaoMelhor = Double.NaN;
+
+        // pré-triagem: sem ela, um único grupo com todos os c
+        int[][] grupos = TRIAGEM_ANALITICA ? preTriagem(prioridadeAtiva, modoFilaUnica, fatorChegadaHora,
+                meanNaoUrgenteOverride, cenariosConsultorios, reps) : new int[][]{cenariosConsultorios};
+        long simuladasAntes = executor.getReplicacoesSimuladas();
+
+        if (BUSCA_ADAPTATIVA) {
+            BuscaSequencial busca = new BuscaSequencial(executor, SEMENTE_BASE, PROB_ALVO_META, Z_CONFIANCA,
+                    reps, MAX_REPS_ADAPTATIVA);
+            Cenario modelo = new Cenario(cenariosConsultorios[0], prioridadeAtiva, modoFilaUnica, fatorChegadaHora,
+                    meanNaoUrgenteOverride, MOTOR, HORIZONTE).comChegadaExata(CHEGADA_EXATA)
+                    .comRoteamento(ROTEAMENTO).comEnvelhecimento(ENVELHECIMENTO).comPlano(plano);
+            for (int[] grupo : grupos) {
+                if (grupo.length == 0) continue;
+                if (grupo != grupos[0]) System.out.println("A simulação contradisse a triagem: rodando a reserva");
+                BuscaSequencial.Resultado r = busca.busca(modelo, grupo);
+
+                for (BuscaSequencial.Celula c : r.celulas.values()) {
+                    System.out.printf("c = %d -> Cumpriu em %d de %d reps -> %s%n",
+                            c.numConsultorios, c.cumpriram(), c.reps.size(), (c.cumpre ? "CUMPRE" : "NÃO CUMPRE"));
                 }
-
-                if (!cumpriu) {
-                    todosCumpriram = false;
+                int diferenca = r.execucoesExaustivas - r.execucoes;
+                System.out.printf("Busca adaptativa: %d replicações rodadas; a varredura em ordem (%d reps por c) rodaria %d (%d %s)%n",
+                        r.execucoes, reps, r.execucoesExaustivas, Math.abs(diferenca),
+                        diferenca >= 0 ? "economizadas" : "a mais");
+
+                melhorC = r.menorConsultorios;
+                if (melhorC != null) {
+                    repsMelhor = r.celulaEscolhida().reps;
+                    break;
                 }
-
-                picosHoraReps.add(Arrays.copyOf(picoHoraVet, picoHoraVet.length));
             }
+        } else {
+            // um grupo só roda se o anterior não tiver achado nenhum c que cumpre
+            for (int[] grupo : grupos) {
+                if (melhorC != null || grupo.length == 0) continue;
+                if (grupo != grupos[0]) System.out.println("A simulação contradisse a triagem: rodando a reserva");
+
+                // submetemos todas as replicações de todos os nº de consultórios de uma vez
+                List<List<Future<ResultadoReplicacao>>> futurosPorCenario = new ArrayList<>();
+                for (int nCons : grupo) {
+                    Cenario cenario = new Cenario(nCons, prioridadeAtiva, modoFilaUnica, fatorChegadaHora, meanNaoUrgenteOverride, MOTOR, HORIZONTE)
+                            .comChegadaExata(CHEGADA_EXATA).comRoteamento(ROTEAMENTO)
+                            .comEnvelhecimento(ENVELHECIMENTO).comPlano(plano);
+                    List<Future<ResultadoReplicacao>> futuros = new ArrayList<>();
+                    for (int rep = 1; rep <= reps; rep++) {
+                        futuros.add(executor.submete(cenario, rep, ExecutorReplicacoes.semente(SEMENTE_BASE, cenario, rep)));
+                    }
+                    futurosPorCenario.add(futuros);
+                }
 
-            System.out.printf("c = %d -> Cumpriu em todas as reps? %s%n", nCons, (todosCumpriram ? "SIM" : "NÃO"));
+                // varremos os possíveis números de consultórios, na ordem
+                for (int k = 0; k < grupo.length; k++) {
+                    int nCons = grupo[k];
 
-            if (todosCumpriram) {
-                // calculamos médias e p95 por hora para esse nº de consultórios
-                double[] medias = new double[H];
-                double[] p95s = new double[H];
+                    boolean todosCumpriram = true;
+                    List<ResultadoReplicacao> resultados = new ArrayList<>();
 
-                for (int h = 0; h < H; h++) {
-                    List<Integer> valores = new ArrayList<>();
-                    for (int[] vet : picosHoraReps) {
-                        valores.add(vet[h]);
+                    for (Future<ResultadoReplicacao> futuro : futurosPorCenario.get(k)) {
+                        ResultadoReplicacao r = ExecutorReplicacoes.aguarda(futuro);
+                        if (!r.cumpriu) {
+                            todosCumpriram = false;
+                        }
+                        resultados.add(r);
                     }
-                    medias[h] = mediaLista(valores);
-                    p95s[h] = percentil(valores, 0.95);
+
+                    System.out.printf("c = %d -> Cumpriu em todas as reps? %s%n", nCons, (todosCumpriram ? "SIM" : "NÃO"));
+
+                    if (todosCumpriram) {
+                        melhorC = nCons;
+                        repsMelhor = resultados;
+                        break; // já achou o menor c que cumpre, não precisa testar c maiores
+                    }
+                }
+
+                // c maiores que ainda não começaram não precisam rodar
+                for (List<Future<ResultadoReplicacao>> futuros : futurosPorCenario) {
+                    for (Future<ResultadoReplicacao> futuro : futuros) futuro.cancel(false);
                 }
+            }
+        }
+
+        if (TRIAGEM_ANALITICA) {
+            int puladas = cenariosConsultorios.length - grupos[0].length - grupos[1].length;
+            System.out.printf("Pré-triagem analítica: %d de %d células (FALHA) puladas, %d replicações não submetidas; "
+                            + "%d replicações simuladas neste modo%n",
+                    puladas, cenariosConsultorios.length, puladas * reps,
+                    executor.getReplicacoesSimuladas() - simuladasAntes);
+        }
 
-                melhorC = nCons;
-                melhorMedia = medias;
-                melhorP95 = p95s;
-                break; // já achou o menor c que cumpre, não precisa testar c maiores
+        if (melhorC != null) {
+            // calculamos médias, IC 95% e p95 por hora para esse nº de consultórios
+            AgregadorPicos picosHoraMelhor = new AgregadorPicos(H);
+            esperasMelhor = new HistogramasEspera(H, melhorC);
+            double somaFila = 0, somaUtilizacao = 0;
+            for (ResultadoReplicacao r : repsMelhor) {
+                picosHoraMelhor.adiciona(r.picoHora);
+                esperasMelhor.junta(r.histogramasEspera);
+                somaFila += r.filaMedia;
+                somaUtilizacao += r.utilizacaoMedia;
             }
+            filaMediaMelhor = somaFila / repsMelhor.size();
+            utilizacaoMelhor = somaUtilizacao / repsMelhor.size();
+
+            melhorMedia = picosHoraMelhor.medias();
+            melhorP95 = picosHoraMelhor.percentis(0.95);
+            melhorIC = picosHoraMelhor.meiasLargurasIC(1.96);
         }
 
         // ====== TABELA RESUMO (PRONTA PARA COLAR NO WORD) ======
         System.out.println();
         System.out.println("===== Tabela (d) — RESUMO para: " + tituloModo + " =====");
-        System.out.println("Hora\tMedia_c\tP95_c");
+        // buckets de 1h mantêm o rótulo H01..; outros tamanhos são rotulados pelo início (hh:mm)
+        double passo = HORIZONTE.getDuracaoBucket();
+        boolean porHora = passo == 60.0;
+        System.out.println((porHora ? "Hora" : "Inicio") + "\tMedia_c\tIC95_c\tP95_c");
 
         if (melhorC != null) {
-            for (int h = 0; h < 10; h++) {
-                String horaLabel = String.format("H%02d", (h + 1));
-                System.out.printf("%s\t%.1f\t%.0f%n", horaLabel, melhorMedia[h], melhorP95[h]);
+            for (int h = 0; h < H; h++) {
+                long inicio = Math.round(h * passo);
+                String horaLabel = porHora ? String.format("H%02d", (h + 1))
+                        : String.format("%02d:%02d", inicio / 60, inicio % 60);
+                System.out.printf("%s\t%.1f\t±%.1f\t%.0f%n", horaLabel, melhorMedia[h], melhorIC[h], melhorP95[h]);
             }
+
+            // Percentis de espera (SLA) somando todas as reps
+            System.out.println();
+            System.out.println("Espera (min)\tMedia\tP50\tP90\tP99\tMax");
+            imprimeEspera("Urgente", esperasMelhor.porTipo(true));
+            imprimeEspera("NaoUrgente", esperasMelhor.porTipo(false));
+            System.out.printf("Fila média no tempo (total) = %.2f | Utilização média dos consultórios = %.1f%%%n",
+                    filaMediaMelhor, 100 * utilizacaoMelhor);
         } else {
             System.out.println("Nenhum valor de consultórios testado conseguiu cumprir a meta de fila ≤ 5.");
         }
@@ -259,32 +497,50 @@ public class ClinicaExperimentosMain {
         res.menorConsultorios = melhorC;
         res.mediaPorHora = melhorMedia;
         res.p95PorHora = melhorP95;
+        res.icMediaPorHora = melhorIC;
+        res.esperas = esperasMelhor;
         return res;
     }
 
-    // ===== Funções auxiliares para estatística simples =====
-
-    private static double mediaLista(List<Integer> xs) {
-        double s = 0;
-        int n = 0;
-        for (Integer v : xs) {
-            if (v != null && v < Integer.MAX_VALUE) {
-                s += v;
-                n++;
+    // Devolve {candidatos, reserva}: candidatos = c incertos até o primeiro PASSA (inclusive, ele dá a tabela);
+    // reserva = c depois dele, sem classificar, rodados só se a simulação contradisser a triagem.
+    // Só os FALHA antes do primeiro PASSA ficam de fora dos dois grupos.
+    private static int[][] preTriagem(boolean prioridadeAtiva, boolean modoFilaUnica, double[] fatorChegadaHora,
+                                      Double meanNaoUrgenteOverride, int[] cenariosConsultorios, int reps) {
+        List<Integer> candidatos = new ArrayList<>();
+        List<Integer> reserva = new ArrayList<>();
+        boolean passou = false;
+        for (int nCons : cenariosConsultorios) {
+            if (passou) {
+                reserva.add(nCons);
+                continue;
             }
+            Cenario cenario = new Cenario(nCons, prioridadeAtiva, modoFilaUnica, fatorChegadaHora,
+                    meanNaoUrgenteOverride, MOTOR, HORIZONTE).comPlano(plano);
+            TriagemAnalitica.Avaliacao a = TriagemAnalitica.avalia(cenario, reps);
+            System.out.printf("c = %d -> triagem %s (ρ máx = %.2f, P(violar) ≤ %.3f, backlog fluido máx = %.1f)%n",
+                    nCons, a.classe, a.rhoMaximo, a.chanceViolacao, a.backlogFluidoMaximo);
+            if (a.classe != TriagemAnalitica.Classe.FALHA) {
+                candidatos.add(nCons);
+                passou = a.classe == TriagemAnalitica.Classe.PASSA;
+            }
+        }
+        if (!reserva.isEmpty()) {
+            System.out.printf("c = %s -> reserva (depois do primeiro PASSA; rodam só se ele não cumprir)%n", reserva);
         }
-        return n == 0 ? Double.NaN : s / n;
+        return new int[][]{
+                candidatos.stream().mapToInt(Integer::intValue).toArray(),
+                reserva.stream().mapToInt(Integer::intValue).toArray()
+        };
     }
 
-    private static double percentil(List<Integer> xs, double p) {
-        List<Integer> ys = new ArrayList<>();
-        for (Integer v : xs) {
-            if (v != null && v < Integer.MAX_VALUE) ys.add(v);
-        }
-        if (ys.isEmpty()) return Double.NaN;
-        ys.sort(Integer::compareTo);
-        int idx = (int) Math.ceil(p * ys.size()) - 1;
-        idx = Math.max(0, Math.min(idx, ys.size() - 1));
-        return ys.get(idx);
+    private static void imprimeEstimativa(String rotulo, MediasEmLotes.Estimativa e) {
+        System.out.printf("%-22s %.2f ± %.2f (%d lotes de %d obs., aquecimento = %d obs. descartadas)%n",
+                rotulo, e.media, e.meiaLargura, e.lotes, e.observacoesPorLote, e.descartadas);
+    }
+
+    private static void imprimeEspera(String rotulo, HistogramaEspera h) {
+        System.out.printf("%s\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f%n", rotulo,
+                h.getMedia(), h.quantil(0.50), h.quantil(0.90), h.quantil(0.99), h.getMaximo());
     }
 }
@@ -0,0 +1,95 @@
+package org.example;
+
+import desmoj.core.simulator.CoroutineModel;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Future;
+
+//roda uma grade de cenários lida de arquivo, sem report/trace/barra de progresso, gravando uma linha por célula
+public class ClinicaLoteMain {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: ClinicaLoteMain <grade.txt> <saida.csv|saida.jsonl> [threads]");
+            System.err.println("     rodar de novo com a mesma saída retoma: células já gravadas com os mesmos parâmetros");
+            System.err.println("     são puladas; as que mudaram rodam de novo (a linha mais recente vale)");
+            System.err.println("     -Dcache=<diretório> [-Dcache.mb=256] reaproveita replicações já simuladas");
+            System.err.println("     -Dmetricas.porta=<porta> publica métricas no JMX e em http://127.0.0.1:<porta>/metricas");
+            System.err.println("     -Dcoordenador.porta=<porta> [-Dcoordenador.endereco=0.0.0.0] envia as replicações a");
+            System.err.println("     trabalhadores (ClinicaTrabalhadorMain <host> <porta>); threads = total de threads deles");
+            System.err.println("     -Dprocessos=THREADS|FIBERS execução dos SimProcess no motor PROCESSOS (padrão THREADS);");
+            System.err.println("     vale para a JVM inteira (todas as células/replicações), não por cenário. FIBERS precisa");
+            System.err.println("     de -javaagent:quasar-core-<versão>.jar (sem o agente, roda com THREADS)");
+            System.exit(2);
+        }
+        GradeCenarios grade = GradeCenarios.le(Path.of(args[0]));
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        Integer portaMetricas = Integer.getInteger("metricas.porta");
+        ExecucaoProcessos.define(CoroutineModel.valueOf(System.getProperty("processos", "THREADS")));
+
+        Integer portaCoordenador = Integer.getInteger("coordenador.porta");
+
+        try (SaidaLote saida = new SaidaLote(Path.of(args[1]));
+             ExecutorReplicacoes executor = new ExecutorReplicacoes(threads);
+             MetricasExecucao metricas = portaMetricas != null ? new MetricasExecucao() : null;
+             CoordenadorReplicacoes coordenador = portaCoordenador != null
+                     ? new CoordenadorReplicacoes(InetAddress.getByName(System.getProperty("coordenador.endereco", "127.0.0.1")),
+                     portaCoordenador) : null) {
+
+            if (coordenador != null) {
+                executor.setRemoto(coordenador);
+                System.err.printf("coordenador na porta %d aguardando trabalhadores%n", coordenador.getPorta());
+            }
+
+            if (metricas != null) {
+                metricas.publicaJmx().publicaHttp(portaMetricas);
+                executor.setMetricas(metricas);
+                System.err.printf("métricas em http://127.0.0.1:%d/metricas%n", metricas.getPortaHttp());
+            }
+
+            String dirCache = System.getProperty("cache");
+            if (dirCache != null) {
+                executor.setCache(new CacheResultados(Path.of(dirCache), Long.getLong("cache.mb", 256) << 20));
+            }
+
+            List<GradeCenarios.Celula> pendentes = new ArrayList<>();
+            for (GradeCenarios.Celula c : grade.getCelulas()) {
+                if (!saida.concluida(c)) pendentes.add(c);
+            }
+            System.err.printf("%d células na grade, %d já na saída, %d a rodar (%d threads)%n",
+                    grade.getCelulas().size(), grade.getCelulas().size() - pendentes.size(), pendentes.size(),
+                    executor.getThreads());
+
+            // poucas células em voo por vez: grades grandes não enchem a memória de resultados esperando a vez
+            int maxEmVoo = 2 * executor.getThreads();
+            Deque<GradeCenarios.Celula> emVoo = new ArrayDeque<>();
+            Deque<List<Future<ResultadoReplicacao>>> futurosEmVoo = new ArrayDeque<>();
+            int proxima = 0, feitas = 0;
+            while (proxima < pendentes.size() || !emVoo.isEmpty()) {
+                while (proxima < pendentes.size() && emVoo.size() < maxEmVoo) {
+                    GradeCenarios.Celula c = pendentes.get(proxima++);
+                    List<Future<ResultadoReplicacao>> futuros = new ArrayList<>();
+                    for (int rep = 1; rep <= c.replicacoes; rep++) {
+                        futuros.add(executor.submete(c.cenario, rep, ExecutorReplicacoes.semente(c.sementeBase, c.cenario, rep)));
+                    }
+                    emVoo.add(c);
+                    futurosEmVoo.add(futuros);
+                }
+
+                GradeCenarios.Celula c = emVoo.poll();
+                List<ResultadoReplicacao> reps = new ArrayList<>();
+                for (Future<ResultadoReplicacao> f : futurosEmVoo.poll()) reps.add(ExecutorReplicacoes.aguarda(f));
+                saida.escreve(c, ResumoCelula.de(reps));
+                System.err.printf("[%d/%d] %s%n", ++feitas, pendentes.size(), c.id);
+            }
+        }
+        System.exit(0);
+    }
+}
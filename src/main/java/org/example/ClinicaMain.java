@@ -1,13 +1,26 @@
 package org.example;
 
+import desmoj.core.simulator.CoroutineModel;
 import desmoj.core.simulator.Experiment;
 import desmoj.core.simulator.TimeInstant;
 import org.example.model.ClinicaModel;
+import org.example.model.ClinicaModelBase;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.FonteChegadas;
+import org.example.model.LeitorLogEventos;
+import org.example.model.LogEventos;
+import org.example.model.MotorSimulacao;
+import org.example.model.PerfilAlocacao;
+import org.example.model.PlanoConsultorios;
+import org.example.model.PoliticaRoteamento;
+import org.example.model.SondaModelo;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 //roda apenas um cenário
 public class ClinicaMain {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
 
         int numConsultorios  = 4;
         boolean prioridadeAtiva  = true;
@@ -22,32 +35,111 @@ public class ClinicaMain {
         // (c) Triagem eletrônica: não-urgentes = 15 min (use null p/ cenário base 20 min)
         Double meanNaoUrgenteOverride = null; // 15.0 ativa triagem
 
+        // PROCESSOS = um SimProcess por paciente; EVENTOS = mesmo modelo só com eventos (mais leve)
+        MotorSimulacao motor = MotorSimulacao.PROCESSOS;
+
+        // Execução dos SimProcess no motor PROCESSOS: THREADS = uma thread do SO por processo (padrão do DESMO-J);
+        // FIBERS = corrotinas leves, para muitos pacientes esperando ao mesmo tempo (ver ClinicaBenchmarkProcessosMain);
+        // precisa de -javaagent:quasar-core-<versão>.jar na JVM, senão roda com THREADS (ver ExecucaoProcessos)
+        CoroutineModel execucaoProcessos = CoroutineModel.THREADS;
+
+        // Reprodução de dias reais: chegadas de um registro histórico (CSV tempo,urgente[,servico] em minutos,
+        // ou binário .clch) no lugar das distribuições; null = sorteia
+        Path arquivoChegadas = null; // ex.: Path.of("chegadas_2023.csv")
+
+        // Chegadas NHPP exatas: a taxa muda na virada da hora mesmo no meio de uma interchegada
+        boolean chegadaExata = false;
+
+        // Filas separadas: roteamento das chegadas (ETA = menor ETA, MENOR_FILA, POTENCIA_2 = 2 sorteados)
+        PoliticaRoteamento roteamento = PoliticaRoteamento.ETA;
+
+        // Com prioridade: não urgente que espera há tantos min passa a valer como urgente (null = prioridade pura)
+        Double envelhecimento = null; // ex.: 60.0
+
+        // Consultórios heterogêneos: fator de atendimento e turnos (almoço, meio período) por consultório,
+        // no formato de PlanoConsultorios; null = todos iguais e sempre abertos
+        Path arquivoPlano = null; // ex.: Path.of("plano_consultorios.txt")
+
+        // Horizonte e granularidade dos picos: padrão = 1 dia de 600 min em buckets de 1h
+        // (ex.: ConfiguracaoHorizonte.dias(14, 15.0) = duas semanas em buckets de 15 min)
+        ConfiguracaoHorizonte horizonte = ConfiguracaoHorizonte.PADRAO;
+
+        // Reciclagem: pacientes que terminam o atendimento voltam a um pool e são reaproveitados (menos lixo p/ o GC)
+        boolean reciclaPacientes = false;
+
+        // Perfil de alocação (bytes alocados por chegada): desliga o trace/debug do DESMO-J, que senão
+        // domina a medida com a alocação das próprias mensagens
+        boolean perfilAlocacao = false;
+
+        // Log binário de eventos por paciente (chegada/início/fim); null desliga.
+        // Bem mais leve que o trace/debug do DESMO-J, que pode ser desligado abaixo quando o log basta.
+        Path arquivoLogEventos = null; // ex.: Path.of("eventos_clinica.clev")
+
+        // Servidor sem interface gráfica: métricas ao vivo no JMX e em http://127.0.0.1:<porta>/metricas
+        // no lugar da barra de progresso Swing (-1 desliga, 0 = porta livre)
+        int portaMetricas = -1;
+
+        ExecucaoProcessos.define(execucaoProcessos); // vale para os Experiment criados depois
         Experiment exp = new Experiment("Clinica_Vida_Saudavel");
 
-        ClinicaModel model = new ClinicaModel(
-                null,
-                "Modelo Clinica",
-                true,    // showInReport
-                true,    // showInTrace
+        Cenario cenario = new Cenario(
                 numConsultorios,
                 prioridadeAtiva,
                 modoFilaUnica,
                 fatorChegadaHora,
-                meanNaoUrgenteOverride
+                meanNaoUrgenteOverride,
+                motor,
+                horizonte
+        ).comChegadaExata(chegadaExata).comRoteamento(roteamento).comEnvelhecimento(envelhecimento)
+                .comPlano(arquivoPlano != null ? PlanoConsultorios.le(arquivoPlano) : null);
+        ClinicaModelBase model = cenario.criaModelo(
+                true,               // showInReport
+                !perfilAlocacao     // showInTrace
         );
 
+        if (model instanceof ClinicaModel) ((ClinicaModel) model).setReciclaPacientes(reciclaPacientes);
+
+        // Perfil de alocação (bytes alocados por chegada), impresso no resumo
+        PerfilAlocacao perfil = perfilAlocacao ? new PerfilAlocacao() : null;
+        model.setPerfilAlocacao(perfil);
+
+        FonteChegadas fonteChegadas = arquivoChegadas != null ? FonteChegadas.abre(arquivoChegadas) : null;
+        model.setFonteChegadas(fonteChegadas);
+
+        LogEventos logEventos = arquivoLogEventos != null ? new LogEventos(arquivoLogEventos) : null;
+        model.setLogEventos(logEventos);
+
+        MetricasExecucao metricas = null;
+        SondaModelo sonda = null;
+        if (portaMetricas >= 0) {
+            metricas = new MetricasExecucao().publicaJmx().publicaHttp(portaMetricas);
+            sonda = metricas.inicia(cenario, 1);
+            model.setSonda(sonda);
+            System.out.println("Métricas em http://127.0.0.1:" + metricas.getPortaHttp() + "/metricas");
+        }
+
         model.connectToExperiment(exp);
 
-        exp.setShowProgressBar(true);
-        TimeInstant stopTime = new TimeInstant(600.0); // clinica funciona por 10 horas
+        exp.setShowProgressBar(metricas == null);
+        TimeInstant stopTime = new TimeInstant(horizonte.getHorizonte()); // clinica funciona por 10 horas (padrão)
         exp.stop(stopTime);
 
-        exp.tracePeriod(new TimeInstant(0.0), stopTime);
-        exp.debugPeriod(new TimeInstant(0.0), stopTime);
+        if (!perfilAlocacao) {
+            exp.tracePeriod(new TimeInstant(0.0), stopTime);
+            exp.debugPeriod(new TimeInstant(0.0), stopTime);
+        }
 
+        if (perfil != null) perfil.inicia();
         exp.start();
+        long bytesAlocados = perfil != null ? perfil.encerra() : 0;
         exp.report();
         exp.finish();
+        if (logEventos != null) logEventos.close();
+        if (fonteChegadas != null) fonteChegadas.close();
+        if (metricas != null) {
+            metricas.encerra(sonda);
+            metricas.close();
+        }
 
         // ---- Resumo de console ----
         System.out.println("\n===== RESUMO DO DIA =====");
@@ -55,7 +147,12 @@ public class ClinicaMain {
         System.out.println("Fila única? " + modoFilaUnica);
         System.out.printf("Espera média Urgente:  %.2f min%n", model.getTempoMedioEsperaUrgente());
         System.out.printf("Espera média Não Urgente:  %.2f min%n", model.getTempoMedioEsperaNaoUrgente());
+        System.out.printf("Espera Urgente P90/P99:  %.2f / %.2f min%n",
+                model.getHistogramasEspera().porTipo(true).quantil(0.90),
+                model.getHistogramasEspera().porTipo(true).quantil(0.99));
 
+        System.out.printf("Fila média no tempo (total): %.2f | Utilização média: %.1f%%%n",
+                model.getFilaMediaTotal(), 100 * model.getUtilizacaoMedia());
         if (!modoFilaUnica) {
             System.out.println("Pico por consultório (aguardando): " + Arrays.toString(model.getPicoFilaPorConsultorio()));
             System.out.println("\nTabela hora a hora (Total aguardando por consultório):");
@@ -69,6 +166,29 @@ public class ClinicaMain {
             model.printTabelaHoraAHora();
         }
 
+        if (perfil != null) {
+            System.out.println("\n===== PERFIL DE ALOCAÇÃO (sem trace/debug) =====");
+            System.out.println("Reciclagem de pacientes? " + reciclaPacientes);
+            if (!perfil.isSuportado()) {
+                System.out.println("Medição de alocação por thread não suportada nesta JVM.");
+            } else if (model.getTotalChegadas() > 0) {
+                System.out.printf("Chegadas: %d | Alocado: %.1f MB | %.0f bytes/chegada%n",
+                        model.getTotalChegadas(), bytesAlocados / (1024.0 * 1024.0),
+                        bytesAlocados / (double) model.getTotalChegadas());
+            }
+        }
+
+        if (arquivoLogEventos != null) {
+            // Esperas reconstruídas a partir do log (devem bater com as médias acima)
+            LeitorLogEventos.Esperas esperas = new LeitorLogEventos(arquivoLogEventos).esperas();
+            System.out.println("\n===== LOG DE EVENTOS =====");
+            System.out.printf("Arquivo: %s | %d eventos%n", arquivoLogEventos, logEventos.getTotalEventos());
+            System.out.printf("Espera média Urgente (log): %.2f min em %d atendimentos%n",
+                    LeitorLogEventos.Esperas.media(esperas.urgente), esperas.urgente.length);
+            System.out.printf("Espera média Não Urgente (log): %.2f min em %d atendimentos%n",
+                    LeitorLogEventos.Esperas.media(esperas.naoUrgente), esperas.naoUrgente.length);
+        }
+
         System.exit(0);
     }
 }
@@ -0,0 +1,133 @@
+package org.example;
+
+import desmoj.core.simulator.CoroutineModel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+//trabalhador da execução distribuída: pega replicações de um CoordenadorReplicacoes, roda e devolve o resumo
+public class ClinicaTrabalhadorMain {
+
+    // Tempo tentando (re)conectar antes de desistir (coordenador ainda subindo, rede instável)
+    private static final long ESPERA_CONEXAO_MS = 60_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 2) {
+            System.err.println("uso: ClinicaTrabalhadorMain <host do coordenador> <porta> [threads]");
+            System.err.println("     -Dprocessos=THREADS|FIBERS execução dos SimProcess no motor PROCESSOS (padrão THREADS);");
+            System.err.println("     vale para a JVM inteira (todas as células/replicações), não por cenário. FIBERS precisa");
+            System.err.println("     de -javaagent:quasar-core-<versão>.jar (sem o agente, roda com THREADS)");
+            System.exit(2);
+        }
+        String host = args[0];
+        int porta = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        ExecucaoProcessos.define(CoroutineModel.valueOf(System.getProperty("processos", "THREADS")));
+
+        ScheduledExecutorService sinais = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "trabalhador-vivo");
+            t.setDaemon(true);
+            return t;
+        });
+
+        // uma conexão por thread: o coordenador empresta uma replicação por conexão
+        List<Thread> linhas = new ArrayList<>();
+        for (int k = 1; k <= threads; k++) {
+            Thread t = new Thread(() -> trabalha(host, porta, sinais), "trabalhador-" + k);
+            t.start();
+            linhas.add(t);
+        }
+        for (Thread t : linhas) t.join();
+        System.exit(0);
+    }
+
+    // Uma conexão até o FIM do coordenador (ou até desistir de conectar)
+    static void trabalha(String host, int porta, ScheduledExecutorService sinais) {
+        long desde = System.currentTimeMillis();
+        while (System.currentTimeMillis() - desde < ESPERA_CONEXAO_MS) {
+            try (Socket s = new Socket(host, porta)) {
+                s.setTcpNoDelay(true);
+                s.setKeepAlive(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+
+                byte[] versao = CacheResultados.versaoModelo();
+                out.writeInt(CoordenadorReplicacoes.MAGICO);
+                out.writeInt(CoordenadorReplicacoes.VERSAO);
+                out.writeInt(versao.length);
+                out.write(versao);
+                out.flush();
+                if (!in.readBoolean()) {
+                    System.err.println("recusado pelo coordenador: " + in.readUTF());
+                    return;
+                }
+
+                while (in.readByte() == CoordenadorReplicacoes.UNIDADE) {
+                    roda(in, out, sinais);
+                    desde = System.currentTimeMillis();
+                }
+                return; // FIM: acabou o trabalho
+            } catch (EOFException e) {
+                System.err.println(Thread.currentThread().getName() + ": coordenador encerrou a conexão");
+                return;
+            } catch (IOException e) {
+                // coordenador ainda não subiu ou a conexão caiu: tenta de novo
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        System.err.println(Thread.currentThread().getName() + ": sem conexão com " + host + ":" + porta);
+    }
+
+    private static void roda(DataInputStream in, DataOutputStream out, ScheduledExecutorService sinais) throws IOException {
+        long id = in.readLong();
+        Cenario cenario = Cenario.le(in);
+        int rep = in.readInt();
+        long semente = in.readLong();
+
+        long intervalo = CoordenadorReplicacoes.PRAZO_MS / 6;
+        ScheduledFuture<?> vivo = sinais.scheduleAtFixedRate(() -> {
+            synchronized (out) {
+                try {
+                    out.writeByte(CoordenadorReplicacoes.VIVO);
+                    out.flush();
+                } catch (IOException ignorada) {
+                    // a conexão caiu; o coordenador reentrega a replicação
+                }
+            }
+        }, intervalo, intervalo, TimeUnit.MILLISECONDS);
+
+        ResultadoReplicacao r = null;
+        String falha = null;
+        try {
+            r = ExecutorReplicacoes.rodaReplicacao(cenario, rep, semente);
+        } catch (RuntimeException e) {
+            falha = e.toString();
+        } finally {
+            vivo.cancel(false);
+        }
+
+        synchronized (out) {
+            out.writeByte(r != null ? CoordenadorReplicacoes.RESULTADO : CoordenadorReplicacoes.FALHA);
+            out.writeLong(id);
+            if (r != null) r.escreve(out);
+            else out.writeUTF(falha);
+            out.flush();
+        }
+    }
+}
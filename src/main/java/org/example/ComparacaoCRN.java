@@ -0,0 +1,116 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+/**
+ * Comparação pareada de dois cenários (ex.: triagem 20 min × 15 min) pela diferença de uma métrica em cada
+ * replicação. Roda o par duas vezes, com sementes independentes por cenário e com números aleatórios comuns
+ * (CRN), e mede quanto a variância da diferença caiu: é isso que define quantas replicações o CRN economiza
+ * para a mesma largura de intervalo de confiança.
+ */
+public class ComparacaoCRN {
+
+    public enum Metrica {
+        ESPERA_URGENTE,
+        ESPERA_NAO_URGENTE,
+        PICO_MAXIMO;
+
+        double de(ResultadoReplicacao r) {
+            switch (this) {
+                case ESPERA_URGENTE:     return r.esperaMediaUrgente;
+                case ESPERA_NAO_URGENTE: return r.esperaMediaNaoUrgente;
+                default:
+                    int max = 0;
+                    for (int v : r.picoHora) max = Math.max(max, v);
+                    return max;
+            }
+        }
+    }
+
+    public static class Resultado {
+        public final int reps;
+        public final double mediaDiferencaCRN;      // média de (A - B) com CRN
+        public final double meiaLarguraICCRN;       // IC 95% (normal) da média com CRN
+        public final double varDiferencaIndependente;
+        public final double varDiferencaCRN;
+
+        Resultado(int reps, double mediaDiferencaCRN, double meiaLarguraICCRN,
+                  double varDiferencaIndependente, double varDiferencaCRN) {
+            this.reps = reps;
+            this.mediaDiferencaCRN = mediaDiferencaCRN;
+            this.meiaLarguraICCRN = meiaLarguraICCRN;
+            this.varDiferencaIndependente = varDiferencaIndependente;
+            this.varDiferencaCRN = varDiferencaCRN;
+        }
+
+        // Fração da variância da diferença removida pelo CRN
+        public double reducaoVariancia() {
+            return varDiferencaIndependente > 0 ? 1.0 - varDiferencaCRN / varDiferencaIndependente : 0.0;
+        }
+
+        // Replicações com CRN que dão a mesma confiança que {@code reps} replicações independentes
+        public int repsEquivalentesCRN() {
+            if (varDiferencaIndependente <= 0) return reps;
+            return (int) Math.max(2, Math.ceil(reps * varDiferencaCRN / varDiferencaIndependente));
+        }
+    }
+
+    // Roda os pares uma vez (independente e CRN) e compara todas as métricas
+    public static Map<Metrica, Resultado> compara(ExecutorReplicacoes executor, long sementeBase,
+                                                  Cenario a, Cenario b, int reps) {
+        List<ResultadoReplicacao[]> paresInd = pares(executor, sementeBase, a.comCRN(false), b.comCRN(false), reps);
+        List<ResultadoReplicacao[]> paresCRN = pares(executor, sementeBase, a.comCRN(true), b.comCRN(true), reps);
+
+        Map<Metrica, Resultado> out = new EnumMap<>(Metrica.class);
+        for (Metrica m : Metrica.values()) {
+            double[] difInd = diferencas(paresInd, m);
+            double[] difCRN = diferencas(paresCRN, m);
+            double media = media(difCRN);
+            double varCRN = variancia(difCRN, media);
+            double varInd = variancia(difInd, media(difInd));
+            double meiaLargura = 1.96 * Math.sqrt(varCRN / reps);
+            out.put(m, new Resultado(reps, media, meiaLargura, varInd, varCRN));
+        }
+        return out;
+    }
+
+    private static List<ResultadoReplicacao[]> pares(ExecutorReplicacoes executor, long sementeBase,
+                                                     Cenario a, Cenario b, int reps) {
+        List<Future<ResultadoReplicacao>> fa = new ArrayList<>();
+        List<Future<ResultadoReplicacao>> fb = new ArrayList<>();
+        for (int rep = 1; rep <= reps; rep++) {
+            fa.add(executor.submete(a, rep, ExecutorReplicacoes.semente(sementeBase, a, rep)));
+            fb.add(executor.submete(b, rep, ExecutorReplicacoes.semente(sementeBase, b, rep)));
+        }
+        List<ResultadoReplicacao[]> out = new ArrayList<>();
+        for (int k = 0; k < reps; k++) {
+            out.add(new ResultadoReplicacao[]{ExecutorReplicacoes.aguarda(fa.get(k)), ExecutorReplicacoes.aguarda(fb.get(k))});
+        }
+        return out;
+    }
+
+    private static double[] diferencas(List<ResultadoReplicacao[]> pares, Metrica metrica) {
+        double[] d = new double[pares.size()];
+        for (int k = 0; k < d.length; k++) {
+            d[k] = metrica.de(pares.get(k)[0]) - metrica.de(pares.get(k)[1]);
+        }
+        return d;
+    }
+
+    private static double media(double[] xs) {
+        double s = 0;
+        for (double x : xs) s += x;
+        return s / xs.length;
+    }
+
+    private static double variancia(double[] xs, double media) {
+        if (xs.length < 2) return 0.0;
+        double s = 0;
+        for (double x : xs) s += (x - media) * (x - media);
+        return s / (xs.length - 1);
+    }
+}
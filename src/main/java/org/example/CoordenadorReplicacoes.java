@@ -0,0 +1,229 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coordenador da execução distribuída: guarda as replicações pedidas (cenário, rep, semente) numa fila e as
+ * entrega aos trabalhadores ({@link ClinicaTrabalhadorMain}) que se conectam por TCP, uma por conexão de
+ * cada vez; o trabalhador devolve o {@link ResultadoReplicacao} no mesmo formato binário do cache.
+ * <p>
+ * Tolerância a perda de trabalhador: a replicação entregue fica "emprestada" à conexão, que precisa dar sinal
+ * de vida (VIVO) a cada poucos segundos enquanto simula. Se a conexão cai ou passa {@link #PRAZO_MS} calada,
+ * a replicação volta para o início da fila e outro trabalhador a roda. Como o resultado só depende da
+ * semente, rodar de novo dá o mesmo resultado. Uma replicação perdida {@link #MAX_ENTREGAS} vezes (que
+ * derruba todo trabalhador que a pega, por exemplo) falha em vez de voltar à fila para sempre.
+ * <p>
+ * Na conexão, o trabalhador manda a versão do modelo (o mesmo hash de bytecode do {@link CacheResultados}) e
+ * é recusado se for diferente da do coordenador.
+ * <p>
+ * Protocolo (DataInput/DataOutput):
+ * <pre>
+ * trabalhador → MAGICO, VERSAO, versão do modelo      coordenador → aceito (boolean) [, motivo]
+ * coordenador → UNIDADE id cenario rep semente | FIM
+ * trabalhador → VIVO* (RESULTADO id resultado | FALHA id mensagem)
+ * </pre>
+ */
+public class CoordenadorReplicacoes implements AutoCloseable {
+
+    static final int MAGICO = 0x434C4352; // "CLCR"
+    static final int VERSAO = 3;
+
+    static final byte UNIDADE = 1;
+    static final byte FIM = 2;
+    static final byte VIVO = 3;
+    static final byte RESULTADO = 4;
+    static final byte FALHA = 5;
+
+    // Silêncio máximo de um trabalhador com replicação emprestada; ele manda VIVO a cada PRAZO_MS / 6
+    static final int PRAZO_MS = 30_000;
+
+    // Entregas de uma mesma replicação antes de desistir dela
+    static final int MAX_ENTREGAS = 4;
+
+    private static final class Unidade {
+        final long id;
+        final Cenario cenario;
+        final int rep;
+        final long semente;
+        final CompletableFuture<ResultadoReplicacao> futuro = new CompletableFuture<>();
+        int entregas = 0; // só a conexão que a tem emprestada mexe
+
+        Unidade(long id, Cenario cenario, int rep, long semente) {
+            this.id = id;
+            this.cenario = cenario;
+            this.rep = rep;
+            this.semente = semente;
+        }
+    }
+
+    private final ServerSocket servidor;
+    private final byte[] versaoModelo = CacheResultados.versaoModelo();
+    private final BlockingDeque<Unidade> pendentes = new LinkedBlockingDeque<>();
+    private final Set<Socket> conexoes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong proximoId = new AtomicLong();
+    private final AtomicInteger reentregas = new AtomicInteger();
+    private volatile boolean fechado = false;
+
+    // endereco = onde escutar (loopback só aceita trabalhadores da mesma máquina); porta 0 = qualquer livre
+    public CoordenadorReplicacoes(InetAddress endereco, int porta) throws IOException {
+        servidor = new ServerSocket();
+        servidor.bind(new InetSocketAddress(endereco, porta));
+        Thread t = new Thread(this::aceita, "coordenador-aceita");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public int getPorta()          { return servidor.getLocalPort(); }
+    public int getTrabalhadores()  { return conexoes.size(); }
+    public int getReentregas()     { return reentregas.get(); }
+
+    public CompletableFuture<ResultadoReplicacao> submete(Cenario cenario, int rep, long semente) {
+        if (fechado) throw new IllegalStateException("coordenador fechado");
+        Unidade u = new Unidade(proximoId.incrementAndGet(), cenario, rep, semente);
+        pendentes.addLast(u);
+        return u.futuro;
+    }
+
+    private void aceita() {
+        while (!fechado) {
+            try {
+                Socket s = servidor.accept();
+                conexoes.add(s);
+                Thread t = new Thread(() -> atende(s), "coordenador-" + s.getRemoteSocketAddress());
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                if (!fechado) System.err.println("coordenador: " + e.getMessage());
+            }
+        }
+    }
+
+    // Uma conexão = um trabalhador que roda uma replicação por vez
+    private void atende(Socket s) {
+        Unidade emprestada = null;
+        try (s) {
+            s.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+
+            s.setSoTimeout(PRAZO_MS);
+            String recusa = leApresentacao(in);
+            out.writeBoolean(recusa == null);
+            if (recusa != null) out.writeUTF(recusa);
+            out.flush();
+            if (recusa != null) return;
+
+            while (!fechado) {
+                Unidade u = pendentes.pollFirst(1, TimeUnit.SECONDS);
+                if (u == null || u.futuro.isDone()) continue; // canceladas não saem para a rede
+                emprestada = u;
+                u.entregas++;
+
+                out.writeByte(UNIDADE);
+                out.writeLong(u.id);
+                u.cenario.escreve(out);
+                out.writeInt(u.rep);
+                out.writeLong(u.semente);
+                out.flush();
+
+                byte tipo;
+                while ((tipo = in.readByte()) == VIVO) {
+                    // renova o prazo (o timeout do socket recomeça a cada leitura)
+                }
+                long id = in.readLong();
+                if (id != u.id) throw new IOException("resposta para a unidade " + id + ", esperada " + u.id);
+                if (tipo == RESULTADO) {
+                    u.futuro.complete(ResultadoReplicacao.le(in, u.rep, u.semente));
+                } else if (tipo == FALHA) {
+                    u.futuro.completeExceptionally(new IllegalStateException(
+                            "trabalhador " + s.getRemoteSocketAddress() + ": " + in.readUTF()));
+                } else {
+                    throw new IOException("mensagem desconhecida: " + tipo);
+                }
+                emprestada = null;
+            }
+            out.writeByte(FIM);
+            out.flush();
+        } catch (SocketTimeoutException e) {
+            System.err.println("coordenador: " + s.getRemoteSocketAddress() + " sem sinal há " + PRAZO_MS + " ms");
+        } catch (IOException e) {
+            if (!fechado) System.err.println("coordenador: " + s.getRemoteSocketAddress() + " caiu"
+                    + (e.getMessage() != null ? " (" + e.getMessage() + ")" : ""));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            conexoes.remove(s);
+            if (emprestada != null && !emprestada.futuro.isDone()) {
+                if (emprestada.entregas >= MAX_ENTREGAS) {
+                    emprestada.futuro.completeExceptionally(new IllegalStateException("replicação " + emprestada.rep
+                            + " perdida em " + emprestada.entregas + " trabalhadores"));
+                } else {
+                    // outro trabalhador roda de novo; a ordem da fila é preservada
+                    reentregas.incrementAndGet();
+                    pendentes.addFirst(emprestada);
+                }
+            }
+        }
+    }
+
+    // null se o trabalhador é compatível; senão o motivo da recusa
+    private String leApresentacao(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGICO) return "protocolo desconhecido";
+        int versao = in.readInt();
+        if (versao != VERSAO) return "versão do protocolo " + versao + ", esperada " + VERSAO;
+        int tamanho = in.readInt();
+        if (tamanho != versaoModelo.length) {
+            return "versão do modelo com " + tamanho + " bytes, esperados " + versaoModelo.length;
+        }
+        byte[] modelo = new byte[tamanho];
+        in.readFully(modelo);
+        if (!Arrays.equals(modelo, versaoModelo)) return "versão do modelo diferente da do coordenador (recompile)";
+        return null;
+    }
+
+    @Override
+    public void close() {
+        fechado = true;
+        try {
+            servidor.close();
+        } catch (IOException ignorada) {
+            // já fechado
+        }
+        for (Unidade u; (u = pendentes.pollFirst()) != null; ) u.futuro.cancel(false);
+        // trabalhadores ociosos recebem FIM em até 1 s; quem ainda estiver simulando é desconectado
+        long limite = System.currentTimeMillis() + 2000;
+        while (!conexoes.isEmpty() && System.currentTimeMillis() < limite) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (Socket s : conexoes) {
+            try {
+                s.close();
+            } catch (IOException ignorada) {
+                // já fechado
+            }
+        }
+    }
+}
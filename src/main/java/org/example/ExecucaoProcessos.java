@@ -0,0 +1,48 @@
+package org.example;
+
+import desmoj.core.simulator.CoroutineModel;
+import desmoj.core.simulator.Experiment;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Escolha de como os SimProcess rodam (THREADS ou FIBERS). A escolha é global no DESMO-J: vale para todos os
+ * Experiment criados depois na mesma JVM, então não dá para misturar as duas numa execução em lote.
+ * <p>
+ * FIBERS usa as corrotinas do Quasar, que só funcionam com o agente dele instrumentando as classes:
+ * <pre>
+ * java -javaagent:quasar-core-&lt;versão&gt;.jar -Dprocessos=FIBERS ...
+ * </pre>
+ * (o jar do Quasar vem junto com o DESMO-J). Sem o agente, FIBERS cai para THREADS com um aviso.
+ */
+public final class ExecucaoProcessos {
+
+    public static final String USO_AGENTE = "FIBERS precisa do agente do Quasar: java -javaagent:quasar-core-<versão>.jar ...";
+
+    private ExecucaoProcessos() {}
+
+    // Define a execução para os próximos Experiment da JVM; devolve a que foi de fato usada
+    public static CoroutineModel define(CoroutineModel pedida) {
+        CoroutineModel usada = pedida;
+        if (pedida == CoroutineModel.FIBERS && !quasarAtivo()) {
+            System.err.println(USO_AGENTE + "; usando THREADS");
+            usada = CoroutineModel.THREADS;
+        }
+        Experiment.setCoroutineModel(usada);
+        return usada;
+    }
+
+    // Agente do Quasar carregado nesta JVM
+    public static boolean quasarAtivo() {
+        try {
+            Class<?> agente = Class.forName("co.paralleluniverse.fibers.instrument.JavaAgent");
+            return (Boolean) agente.getMethod("isActive").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // sem a classe do agente no classpath: procura o -javaagent na linha de comando
+            for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+                if (arg.startsWith("-javaagent:") && arg.contains("quasar")) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.example;
+
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.TimeInstant;
+import org.example.model.ClinicaModelBase;
+import org.example.model.SondaModelo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Roda replicações independentes (cada uma com seu Experiment/ClinicaModel) em um pool limitado de threads.
+ * Cada replicação recebe a própria semente, derivada do cenário e do nº da replicação, então o resultado
+ * de uma replicação não depende da ordem nem da thread em que ela roda: com 1 thread o resultado é
+ * idêntico ao da execução sequencial.
+ */
+public class ExecutorReplicacoes implements AutoCloseable {
+
+    private final ExecutorService pool;
+    private final int threads;
+    private volatile CacheResultados cache; // null = sem cache
+    private volatile MetricasExecucao metricas; // null = sem métricas ao vivo
+    private volatile CoordenadorReplicacoes remoto; // != null = replicações vão para os trabalhadores remotos
+    private final LongAdder simuladas = new LongAdder(); // replicações que chegaram a simular (não vieram do cache)
+
+    public ExecutorReplicacoes(int threads) {
+        this.threads = Math.max(1, threads);
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "replicacao-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.pool = Executors.newFixedThreadPool(this.threads, fabrica);
+    }
+
+    public int getThreads() { return threads; }
+
+    // Replicações simuladas de fato até agora: começadas no pool ou devolvidas pelos trabalhadores
+    public long getReplicacoesSimuladas() { return simuladas.sum(); }
+
+    public void setCache(CacheResultados cache) { this.cache = cache; }
+
+    public void setMetricas(MetricasExecucao metricas) { this.metricas = metricas; }
+
+    public void setRemoto(CoordenadorReplicacoes remoto) { this.remoto = remoto; }
+
+    // Replicações já no cache voltam prontas, sem ocupar o pool; com coordenador, rodam nos trabalhadores
+    public Future<ResultadoReplicacao> submete(Cenario cenario, int rep, long semente) {
+        CacheResultados c = cache;
+        MetricasExecucao m = metricas;
+        if (m != null) m.submetida();
+        if (c != null) {
+            ResultadoReplicacao guardado = c.busca(cenario, rep, semente);
+            if (guardado != null) {
+                if (m != null) m.terminada(false);
+                return CompletableFuture.completedFuture(guardado);
+            }
+        }
+        CoordenadorReplicacoes coordenador = remoto;
+        if (coordenador != null) {
+            CompletableFuture<ResultadoReplicacao> futuro = coordenador.submete(cenario, rep, semente);
+            futuro.whenComplete((r, erro) -> {
+                if (r != null) simuladas.increment();
+                if (r != null && c != null) c.guarda(cenario, r);
+                if (m != null) m.terminada(futuro.isCancelled());
+            });
+            return futuro;
+        }
+        FutureTask<ResultadoReplicacao> tarefa = new FutureTask<>(() -> {
+            simuladas.increment();
+            ResultadoReplicacao r = rodaReplicacao(cenario, rep, semente, m);
+            if (c != null) c.guarda(cenario, r);
+            return r;
+        }) {
+            @Override
+            protected void done() {
+                if (m != null) m.terminada(isCancelled()); // canceladas antes de rodar não contam como restantes
+            }
+        };
+        pool.execute(tarefa);
+        return tarefa;
+    }
+
+    // Uma replicação completa (1 dia de 600 min no horizonte padrão) sem report/trace
+    public static ResultadoReplicacao rodaReplicacao(Cenario cenario, int rep, long semente) {
+        return rodaReplicacao(cenario, rep, semente, null);
+    }
+
+    static ResultadoReplicacao rodaReplicacao(Cenario cenario, int rep, long semente, MetricasExecucao metricas) {
+        Experiment exp = novoExperimento(cenario.nomeExperimento(rep));
+
+        // showInReport=false, showInTrace=false para ficar bem leve
+        ClinicaModelBase model = cenario.criaModelo(false, false);
+        SondaModelo sonda = metricas != null ? metricas.inicia(cenario, rep) : null;
+        model.setSonda(sonda);
+
+        // antes do connect: as distribuições são criadas (e semeadas) no init()
+        if (cenario.crn) model.setSementeCRN(semente);
+        else exp.setSeedGenerator(semente);
+
+        model.connectToExperiment(exp);
+        TimeInstant stopTime = new TimeInstant(cenario.horizonte.getHorizonte()); // 10h = 600 min no padrão
+        exp.stop(stopTime);
+        try {
+            exp.start();
+        } finally {
+            if (sonda != null) metricas.encerra(sonda);
+        }
+
+        exp.finish();
+
+        return ResultadoReplicacao.deModelo(cenario, model, rep, semente);
+    }
+
+    // Experiment sem arquivos de report/trace/erro/debug, sem barra de progresso e sem mensagens no console
+    public static Experiment novoExperimento(String nome) {
+        Experiment exp = new Experiment(nome, false);
+        exp.setShowProgressBar(false);
+        exp.setSilent(true);
+        return exp;
+    }
+
+    public static ResultadoReplicacao aguarda(Future<ResultadoReplicacao> futuro) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando replicação", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na replicação", e.getCause());
+        }
+    }
+
+    // Semente da replicação: mistura (SplitMix64) da semente base com os parâmetros do cenário e o nº da rep.
+    // No modo CRN depende só da rep, para que cenários diferentes vejam os mesmos números aleatórios.
+    public static long semente(long sementeBase, Cenario cenario, int rep) {
+        if (cenario.crn) return mistura(mistura(sementeBase) ^ rep);
+        long h = sementeBase;
+        h = mistura(h ^ cenario.numConsultorios);
+        h = mistura(h ^ (cenario.prioridadeAtiva ? 1 : 0));
+        h = mistura(h ^ (cenario.modoFilaUnica ? 1 : 0));
+        h = mistura(h ^ (cenario.meanNaoUrgenteOverride == null ? 0 : Double.doubleToLongBits(cenario.meanNaoUrgenteOverride)));
+        h = mistura(h ^ rep);
+        return h;
+    }
+
+    static long mistura(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
@@ -4,6 +4,7 @@ import co.paralleluniverse.fibers.SuspendExecution;
 import desmoj.core.simulator.SimProcess;
 import desmoj.core.simulator.TimeSpan;
 import org.example.model.ClinicaModel;
+import org.example.model.FonteChegadas;
 import org.example.model.Paciente;
 
 
@@ -20,8 +21,22 @@ public class GeradorPacientes extends SimProcess {
     @Override
     public void lifeCycle() throws SuspendExecution {
 
-        // MESMO horizonte da simulação: 600 min (10h)
-        double fimSim = 600.0;
+        // MESMO horizonte da simulação (600 min = 10h no padrão)
+        double fimSim = model.getHorizonte().getHorizonte();
+
+        FonteChegadas fonte = model.getFonteChegadas();
+        if (fonte != null) {
+            // chegadas do registro histórico: espera até o tempo de cada uma (atrasadas entram na hora)
+            while (fonte.avanca() && fonte.getTempo() < fimSim) {
+                double espera = fonte.getTempo() - presentTime().getTimeAsDouble();
+                if (espera > 0) hold(new TimeSpan(espera));
+                Paciente p = model.novoPaciente(fonte.isUrgente(), fonte.getServico());
+                model.contaChegada();
+                p.activate();
+            }
+            model.fimDeProcesso();
+            return;
+        }
 
         while (true) {
             double agora = presentTime().getTimeAsDouble();
@@ -31,7 +46,8 @@ public class GeradorPacientes extends SimProcess {
             }
 
             boolean urgente = model.sampleUrgente();
-            Paciente p = new Paciente(model, "Paciente", true, urgente);
+            Paciente p = model.novoPaciente(urgente); // novo, ou reaproveitado do pool se a reciclagem estiver ligada
+            model.contaChegada();
             p.activate();
 
             double inter = model.sampleInterChegada();
@@ -49,5 +65,6 @@ public class GeradorPacientes extends SimProcess {
                 hold(new TimeSpan(inter));
             }
         }
+        model.fimDeProcesso();
     }
 }
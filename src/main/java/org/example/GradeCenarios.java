@@ -0,0 +1,183 @@
+package org.example;
+
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.MotorSimulacao;
+import org.example.model.PlanoConsultorios;
+import org.example.model.PoliticaRoteamento;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Grade de cenários lida de um arquivo texto, para rodar em lote sem recompilar (ver {@link ClinicaLoteMain}).
+ * <p>
+ * Linhas {@code chave = valor} definem os padrões; cada linha {@code cenario <nome> chave=valor ...} é um
+ * modo e pode sobrescrever qualquer padrão. Cada nº de consultórios de um cenário vira uma célula.
+ * {@code #} começa comentário. Chaves:
+ * <pre>
+ * semente          = 20240601
+ * replicacoes      = 5
+ * motor            = PROCESSOS | EVENTOS
+ * consultorios     = 2-6 | 2,4,6
+ * prioridade       = true | false
+ * filaUnica        = true | false
+ * naoUrgente       = 15          (média dos não urgentes em min; ausente = 20 min do modelo)
+ * fatorChegadaHora = 0.8,1.0,1.2,...
+ * segmentoChegada  = 60          (min de cada fator de fatorChegadaHora)
+ * horizonte        = 600         (min; buckets de 1h, dia de 600 min)
+ * crn              = true | false
+ * chegadaExata     = true | false (chegadas NHPP exatas, ver TaxaChegada)
+ * roteamento       = ETA | MENOR_FILA | POTENCIA_2 (filas separadas, ver PoliticaRoteamento)
+ * envelhecimento   = 60          (com prioridade: não urgente esperando há 60 min vira urgente)
+ * plano            = plano.txt   (fator e turnos por consultório, ver PlanoConsultorios; relativo à grade)
+ * </pre>
+ * O id da célula é {@code <nome>_c<n>} e cada linha da saída leva também o hash dos parâmetros dela
+ * (inclusive replicações e semente): ao retomar, a célula só é pulada se id e hash baterem, então mudar os
+ * parâmetros de um cenário já rodado faz ele rodar de novo.
+ */
+public class GradeCenarios {
+
+    private static final Set<String> CHAVES = Set.of("semente", "replicacoes", "motor", "consultorios",
+            "prioridade", "filaUnica", "naoUrgente", "fatorChegadaHora", "segmentoChegada", "horizonte", "crn", "chegadaExata",
+            "roteamento", "envelhecimento", "plano");
+
+    // Um nº de consultórios de um cenário, com suas replicações
+    public static class Celula {
+        public final String id;
+        public final String nomeCenario;
+        public final Cenario cenario;
+        public final int replicacoes;
+        public final long sementeBase;
+        public final String hash; // parâmetros da célula (ver CacheResultados.hashParametros)
+        public final String arquivoPlano; // como escrito na grade; null = sem plano
+
+        Celula(String id, String nomeCenario, Cenario cenario, int replicacoes, long sementeBase, String arquivoPlano) {
+            this.id = id;
+            this.arquivoPlano = arquivoPlano;
+            this.nomeCenario = nomeCenario;
+            this.cenario = cenario;
+            this.replicacoes = replicacoes;
+            this.sementeBase = sementeBase;
+            this.hash = CacheResultados.hashParametros(cenario, replicacoes, sementeBase);
+        }
+    }
+
+    private final List<Celula> celulas;
+
+    private GradeCenarios(List<Celula> celulas) {
+        this.celulas = Collections.unmodifiableList(celulas);
+    }
+
+    public List<Celula> getCelulas() { return celulas; }
+
+    public static GradeCenarios le(Path arquivo) throws IOException {
+        List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+        Map<String, String> padroes = new LinkedHashMap<>();
+        List<Celula> celulas = new ArrayList<>();
+        Set<String> nomes = new HashSet<>();
+
+        for (int i = 0; i < linhas.size(); i++) {
+            String linha = linhas.get(i);
+            int comentario = linha.indexOf('#');
+            if (comentario >= 0) linha = linha.substring(0, comentario);
+            linha = linha.trim();
+            if (linha.isEmpty()) continue;
+
+            String onde = arquivo.getFileName() + ":" + (i + 1);
+            if (linha.startsWith("cenario ") || linha.startsWith("cenario\t")) {
+                String[] partes = linha.substring(8).trim().split("\\s+");
+                String nome = partes[0];
+                if (!nome.matches("[\\w.-]+")) throw new IllegalArgumentException(onde + ": nome de cenário inválido '" + nome + "'");
+                if (!nomes.add(nome)) throw new IllegalArgumentException(onde + ": cenário repetido '" + nome + "'");
+
+                Map<String, String> valores = new LinkedHashMap<>(padroes);
+                for (int k = 1; k < partes.length; k++) poe(valores, partes[k], onde);
+                adicionaCelulas(celulas, nome, valores, arquivo, onde);
+            } else {
+                poe(padroes, linha.replaceFirst("\\s*=\\s*", "="), onde);
+            }
+        }
+        if (celulas.isEmpty()) throw new IllegalArgumentException(arquivo + ": nenhuma linha 'cenario'");
+        return new GradeCenarios(celulas);
+    }
+
+    private static void poe(Map<String, String> valores, String par, String onde) {
+        int eq = par.indexOf('=');
+        if (eq <= 0) throw new IllegalArgumentException(onde + ": esperado chave=valor em '" + par + "'");
+        String chave = par.substring(0, eq).trim();
+        if (!CHAVES.contains(chave)) throw new IllegalArgumentException(onde + ": chave desconhecida '" + chave + "'");
+        valores.put(chave, par.substring(eq + 1).trim());
+    }
+
+    private static void adicionaCelulas(List<Celula> celulas, String nome, Map<String, String> v, Path arquivo,
+                                        String onde) throws IOException {
+        try {
+            long semente = Long.parseLong(v.getOrDefault("semente", "20240601"));
+            int reps = Integer.parseInt(v.getOrDefault("replicacoes", "5"));
+            MotorSimulacao motor = MotorSimulacao.valueOf(v.getOrDefault("motor", "PROCESSOS").toUpperCase(Locale.ROOT));
+            boolean prioridade = Boolean.parseBoolean(v.getOrDefault("prioridade", "true"));
+            boolean filaUnica = Boolean.parseBoolean(v.getOrDefault("filaUnica", "false"));
+            Double naoUrgente = v.containsKey("naoUrgente") ? Double.valueOf(v.get("naoUrgente")) : null;
+            double[] fator = v.containsKey("fatorChegadaHora") ? numeros(v.get("fatorChegadaHora")) : null;
+            ConfiguracaoHorizonte horizonte = v.containsKey("horizonte")
+                    ? new ConfiguracaoHorizonte(Double.parseDouble(v.get("horizonte")), 60.0, ConfiguracaoHorizonte.PADRAO.getDuracaoDia())
+                    : ConfiguracaoHorizonte.PADRAO;
+            if (v.containsKey("segmentoChegada")) {
+                horizonte = horizonte.comSegmentoChegada(Double.parseDouble(v.get("segmentoChegada")));
+            }
+            boolean crn = Boolean.parseBoolean(v.getOrDefault("crn", "false"));
+            boolean chegadaExata = Boolean.parseBoolean(v.getOrDefault("chegadaExata", "false"));
+            PoliticaRoteamento roteamento = PoliticaRoteamento.valueOf(v.getOrDefault("roteamento", "ETA").toUpperCase(Locale.ROOT));
+            Double envelhecimento = v.containsKey("envelhecimento") ? Double.valueOf(v.get("envelhecimento")) : null;
+            PlanoConsultorios plano = v.containsKey("plano")
+                    ? PlanoConsultorios.le(arquivo.resolveSibling(v.get("plano"))) : null;
+            if (reps < 1) throw new IllegalArgumentException("replicacoes deve ser ≥ 1");
+
+            Cenario base = new Cenario(1, prioridade, filaUnica, fator, naoUrgente, motor, horizonte).comCRN(crn)
+                    .comChegadaExata(chegadaExata).comRoteamento(roteamento).comEnvelhecimento(envelhecimento)
+                    .comPlano(plano);
+            for (int c : consultorios(v.getOrDefault("consultorios", "4"))) {
+                celulas.add(new Celula(nome + "_c" + c, nome, base.comConsultorios(c), reps, semente, v.get("plano")));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(onde + ": " + e.getMessage(), e);
+        }
+    }
+
+    // "2-6" ou "2,4,6"
+    private static int[] consultorios(String s) {
+        int traco = s.indexOf('-');
+        if (traco > 0) {
+            int de = Integer.parseInt(s.substring(0, traco).trim());
+            int ate = Integer.parseInt(s.substring(traco + 1).trim());
+            if (de < 1 || ate < de) throw new IllegalArgumentException("faixa de consultórios inválida: " + s);
+            int[] r = new int[ate - de + 1];
+            for (int i = 0; i < r.length; i++) r[i] = de + i;
+            return r;
+        }
+        double[] d = numeros(s);
+        int[] r = new int[d.length];
+        for (int i = 0; i < d.length; i++) {
+            r[i] = (int) d[i];
+            if (r[i] < 1 || r[i] != d[i]) throw new IllegalArgumentException("nº de consultórios inválido: " + s);
+        }
+        return r;
+    }
+
+    private static double[] numeros(String s) {
+        String[] partes = s.split(",");
+        double[] r = new double[partes.length];
+        for (int i = 0; i < partes.length; i++) r[i] = Double.parseDouble(partes[i].trim());
+        return r;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example;
+
+import com.sun.net.httpserver.HttpServer;
+import org.example.model.SondaModelo;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de uma execução longa (varredura, lote), para servidores sem a barra de progresso Swing do DESMO-J.
+ * <p>
+ * Cada replicação em andamento tem uma {@link SondaModelo}, escrita só pela thread dela; este registro só lê
+ * as sondas quando alguém pergunta (JMX, HTTP) e uma vez por segundo para a taxa de eventos. Quando a
+ * replicação termina, os totais da sonda passam para contadores daqui. Publicado no JMX como
+ * {@code org.example:type=MetricasExecucao} e, opcionalmente, em {@code http://127.0.0.1:<porta>/metricas}
+ * (JSON), só no loopback.
+ */
+public class MetricasExecucao implements MetricasExecucaoMXBean, AutoCloseable {
+
+    private final long inicioNanos = System.nanoTime();
+    private final Map<SondaModelo, Boolean> ativas = new ConcurrentHashMap<>();
+    private final LongAdder eventosEncerradas = new LongAdder();
+    private final AtomicLong tempoEncerradas = new AtomicLong(); // bits do double, só somado no fim de cada rep
+    private final LongAdder submetidas = new LongAdder();
+    private final LongAdder concluidas = new LongAdder();
+    private final LongAdder canceladas = new LongAdder();
+
+    private final ScheduledExecutorService amostrador;
+    private volatile double eventosPorSegundo = 0;
+    private long ultimosEventos = 0;
+    private long ultimoNanos = inicioNanos;
+
+    private ObjectName nomeJmx;
+    private HttpServer http;
+
+    public MetricasExecucao() {
+        amostrador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metricas-amostrador");
+            t.setDaemon(true);
+            return t;
+        });
+        amostrador.scheduleAtFixedRate(this::amostra, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // Registra no servidor JMX da plataforma (jconsole/VisualVM)
+    public MetricasExecucao publicaJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            nomeJmx = new ObjectName("org.example:type=MetricasExecucao");
+            if (servidor.isRegistered(nomeJmx)) servidor.unregisterMBean(nomeJmx);
+            servidor.registerMBean(this, nomeJmx);
+        } catch (JMException e) {
+            throw new IllegalStateException("Falha ao registrar métricas no JMX", e);
+        }
+        return this;
+    }
+
+    // HTTP em 127.0.0.1 (porta 0 = qualquer porta livre, ver getPortaHttp)
+    public MetricasExecucao publicaHttp(int porta) throws IOException {
+        http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta), 0);
+        http.createContext("/metricas", troca -> {
+            byte[] corpo = json().getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream out = troca.getResponseBody()) {
+                out.write(corpo);
+            }
+        });
+        http.setExecutor(null); // atende na própria thread do servidor
+        http.start();
+        return this;
+    }
+
+    public int getPortaHttp() { return http != null ? http.getAddress().getPort() : -1; }
+
+    // ======= ciclo de vida das replicações (chamado pelo ExecutorReplicacoes) =======
+
+    void submetida() { submetidas.increment(); }
+
+    SondaModelo inicia(Cenario cenario, int rep) {
+        SondaModelo s = new SondaModelo(cenario.nomeExperimento(rep), cenario.modoFilaUnica ? 1 : cenario.numConsultorios);
+        ativas.put(s, Boolean.TRUE);
+        return s;
+    }
+
+    void encerra(SondaModelo s) {
+        ativas.remove(s);
+        eventosEncerradas.add(s.getEventos());
+        double t = s.getTempoSimulado();
+        tempoEncerradas.accumulateAndGet(Double.doubleToRawLongBits(t),
+                (a, b) -> Double.doubleToRawLongBits(Double.longBitsToDouble(a) + Double.longBitsToDouble(b)));
+    }
+
+    void terminada(boolean cancelada) {
+        if (cancelada) canceladas.increment();
+        else concluidas.increment();
+    }
+
+    // ======= leituras =======
+
+    @Override
+    public long getEventosProcessados() {
+        long n = eventosEncerradas.sum();
+        for (SondaModelo s : ativas.keySet()) n += s.getEventos();
+        return n;
+    }
+
+    @Override
+    public double getEventosPorSegundo() { return eventosPorSegundo; }
+
+    @Override
+    public double getTempoSimuladoMin() {
+        double t = Double.longBitsToDouble(tempoEncerradas.get());
+        for (SondaModelo s : ativas.keySet()) t += s.getTempoSimulado();
+        return t;
+    }
+
+    @Override
+    public double getTempoParedeSeg() { return (System.nanoTime() - inicioNanos) / 1e9; }
+
+    @Override
+    public double getRazaoSimuladoParede() {
+        double parede = getTempoParedeSeg();
+        return parede > 0 ? getTempoSimuladoMin() / parede : 0;
+    }
+
+    @Override
+    public long getReplicacoesConcluidas() { return concluidas.sum(); }
+
+    @Override
+    public long getReplicacoesRestantes() {
+        return Math.max(0, submetidas.sum() - concluidas.sum() - canceladas.sum());
+    }
+
+    @Override
+    public Map<String, int[]> getFilasPorReplicacao() {
+        Map<String, int[]> r = new TreeMap<>();
+        for (SondaModelo s : ativas.keySet()) r.put(s.getNome(), s.getFilas());
+        return r;
+    }
+
+    @Override
+    public long getHeapUsadoBytes() { return heap().getUsed(); }
+
+    @Override
+    public long getHeapMaximoBytes() { return heap().getMax(); }
+
+    private static MemoryUsage heap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    }
+
+    private void amostra() {
+        long agora = System.nanoTime();
+        long eventos = getEventosProcessados();
+        eventosPorSegundo = (eventos - ultimosEventos) / ((agora - ultimoNanos) / 1e9);
+        ultimosEventos = eventos;
+        ultimoNanos = agora;
+    }
+
+    String json() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append('{');
+        sb.append(String.format(Locale.ROOT,
+                "\"eventosProcessados\":%d,\"eventosPorSegundo\":%.1f,\"tempoSimuladoMin\":%.1f,"
+                        + "\"tempoParedeSeg\":%.1f,\"razaoSimuladoParede\":%.1f,\"replicacoesConcluidas\":%d,"
+                        + "\"replicacoesRestantes\":%d,\"heapUsadoBytes\":%d,\"heapMaximoBytes\":%d,",
+                getEventosProcessados(), getEventosPorSegundo(), getTempoSimuladoMin(), getTempoParedeSeg(),
+                getRazaoSimuladoParede(), getReplicacoesConcluidas(), getReplicacoesRestantes(),
+                getHeapUsadoBytes(), getHeapMaximoBytes()));
+        sb.append("\"filasPorReplicacao\":{");
+        boolean primeira = true;
+        for (Map.Entry<String, int[]> e : getFilasPorReplicacao().entrySet()) {
+            if (!primeira) sb.append(',');
+            primeira = false;
+            sb.append('"').append(e.getKey()).append("\":").append(Arrays.toString(e.getValue()).replace(" ", ""));
+        }
+        sb.append("}}");
+        return sb.toString();
+    }
+
+    @Override
+    public void close() {
+        amostrador.shutdownNow();
+        if (http != null) http.stop(0);
+        if (nomeJmx != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(nomeJmx);
+            } catch (JMException ignorada) {
+                // já removido
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example;
+
+import java.util.Map;
+
+//Métricas ao vivo de uma execução, publicadas no JMX como org.example:type=MetricasExecucao
+public interface MetricasExecucaoMXBean {
+
+    long getEventosProcessados();
+
+    double getEventosPorSegundo();      // média do último segundo
+
+    double getTempoSimuladoMin();       // soma entre replicações (concluídas + em andamento)
+
+    double getTempoParedeSeg();
+
+    double getRazaoSimuladoParede();    // min simulados por segundo de relógio
+
+    long getReplicacoesConcluidas();
+
+    long getReplicacoesRestantes();     // submetidas que ainda não terminaram nem foram canceladas
+
+    Map<String, int[]> getFilasPorReplicacao(); // replicações em andamento → total aguardando por fila
+
+    long getHeapUsadoBytes();
+
+    long getHeapMaximoBytes();
+}
@@ -0,0 +1,84 @@
+package org.example;
+
+import org.example.model.ClinicaModelBase;
+import org.example.model.HistogramasEspera;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+//Resumo de uma replicação (um dia simulado) de um cenário
+public class ResultadoReplicacao {
+
+    public final int rep;
+    public final long semente;
+    public final boolean cumpriu;          // fila ≤ 5 por consultório durante todo o dia
+    public final int[] picoHora;           // pico por hora (maior entre consultórios, ou do pool)
+    public final double esperaMediaUrgente;
+    public final double esperaMediaNaoUrgente;
+    public final HistogramasEspera histogramasEspera; // percentis de espera (somáveis entre replicações)
+    public final double filaMedia;         // total aguardando, média no tempo
+    public final double utilizacaoMedia;   // fração do tempo ocupada, média dos consultórios
+
+    public ResultadoReplicacao(int rep, long semente, boolean cumpriu, int[] picoHora,
+                               double esperaMediaUrgente, double esperaMediaNaoUrgente,
+                               HistogramasEspera histogramasEspera, double filaMedia, double utilizacaoMedia) {
+        this.rep = rep;
+        this.semente = semente;
+        this.cumpriu = cumpriu;
+        this.picoHora = picoHora;
+        this.esperaMediaUrgente = esperaMediaUrgente;
+        this.esperaMediaNaoUrgente = esperaMediaNaoUrgente;
+        this.histogramasEspera = histogramasEspera;
+        this.filaMedia = filaMedia;
+        this.utilizacaoMedia = utilizacaoMedia;
+    }
+
+    // Extrai o resumo de um modelo já simulado
+    public static ResultadoReplicacao deModelo(Cenario cenario, ClinicaModelBase model, int rep, long semente) {
+        boolean cumpriu;
+        int[] picoHoraVet;
+
+        if (cenario.modoFilaUnica) {
+            int picoPool = model.getPicoPoolDia();
+            cumpriu = (picoPool <= 5 * cenario.numConsultorios);
+            picoHoraVet = model.getPicoHoraPool();
+        } else {
+            int[] picos = model.getPicoFilaPorConsultorio();
+            int pico = 0;
+            for (int p : picos) pico = Math.max(pico, p);
+            cumpriu = (pico <= 5);
+            picoHoraVet = model.getPicoHoraGlobal();
+        }
+
+        return new ResultadoReplicacao(rep, semente, cumpriu, Arrays.copyOf(picoHoraVet, picoHoraVet.length),
+                model.getTempoMedioEsperaUrgente(), model.getTempoMedioEsperaNaoUrgente(),
+                model.getHistogramasEspera(), model.getFilaMediaTotal(), model.getUtilizacaoMedia());
+    }
+
+    // Formato binário (cache em disco, trabalhadores remotos); rep e semente ficam com quem pediu
+    public void escreve(DataOutput out) throws IOException {
+        out.writeBoolean(cumpriu);
+        out.writeInt(picoHora.length);
+        for (int p : picoHora) out.writeInt(p);
+        out.writeDouble(esperaMediaUrgente);
+        out.writeDouble(esperaMediaNaoUrgente);
+        out.writeDouble(filaMedia);
+        out.writeDouble(utilizacaoMedia);
+        histogramasEspera.escreve(out);
+    }
+
+    public static ResultadoReplicacao le(DataInput in, int rep, long semente) throws IOException {
+        boolean cumpriu = in.readBoolean();
+        int[] picoHora = new int[in.readInt()];
+        for (int h = 0; h < picoHora.length; h++) picoHora[h] = in.readInt();
+        double esperaUrg = in.readDouble();
+        double esperaNao = in.readDouble();
+        double filaMedia = in.readDouble();
+        double utilizacao = in.readDouble();
+        HistogramasEspera histogramas = HistogramasEspera.le(in);
+        return new ResultadoReplicacao(rep, semente, cumpriu, picoHora, esperaUrg, esperaNao, histogramas,
+                filaMedia, utilizacao);
+    }
+}
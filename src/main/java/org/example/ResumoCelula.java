@@ -0,0 +1,65 @@
+package org.example;
+
+import org.example.model.HistogramaEspera;
+import org.example.model.HistogramasEspera;
+
+import java.util.List;
+
+//Resumo de todas as replicações de uma célula (cenário × nº de consultórios), uma linha da saída em lote
+public class ResumoCelula {
+
+    public final int replicacoes;
+    public final int cumpriram;            // reps com fila ≤ 5 durante todo o dia
+    public final double picoMedio;         // média entre reps do maior pico horário
+    public final double picoP95;           // p95 entre reps do maior pico horário
+    public final double esperaMediaUrgente;
+    public final double esperaP90Urgente;
+    public final double esperaP99Urgente;
+    public final double esperaMediaNaoUrgente;
+    public final double esperaP90NaoUrgente;
+    public final double esperaP99NaoUrgente;
+    public final double filaMedia;         // média no tempo, média entre reps
+    public final double utilizacaoMedia;
+
+    public ResumoCelula(int replicacoes, int cumpriram, double picoMedio, double picoP95,
+                        double esperaMediaUrgente, double esperaP90Urgente, double esperaP99Urgente,
+                        double esperaMediaNaoUrgente, double esperaP90NaoUrgente, double esperaP99NaoUrgente,
+                        double filaMedia, double utilizacaoMedia) {
+        this.replicacoes = replicacoes;
+        this.cumpriram = cumpriram;
+        this.picoMedio = picoMedio;
+        this.picoP95 = picoP95;
+        this.esperaMediaUrgente = esperaMediaUrgente;
+        this.esperaP90Urgente = esperaP90Urgente;
+        this.esperaP99Urgente = esperaP99Urgente;
+        this.esperaMediaNaoUrgente = esperaMediaNaoUrgente;
+        this.esperaP90NaoUrgente = esperaP90NaoUrgente;
+        this.esperaP99NaoUrgente = esperaP99NaoUrgente;
+        this.filaMedia = filaMedia;
+        this.utilizacaoMedia = utilizacaoMedia;
+    }
+
+    public static ResumoCelula de(List<ResultadoReplicacao> reps) {
+        ResultadoReplicacao primeira = reps.get(0);
+        HistogramasEspera esperas = new HistogramasEspera(primeira.histogramasEspera.getNumBuckets(),
+                primeira.histogramasEspera.getNumConsultorios());
+        AgregadorPicos picos = new AgregadorPicos(1);
+        int cumpriram = 0;
+        double somaFila = 0, somaUtilizacao = 0;
+        for (ResultadoReplicacao r : reps) {
+            if (r.cumpriu) cumpriram++;
+            int pico = 0;
+            for (int p : r.picoHora) pico = Math.max(pico, p);
+            picos.adiciona(new int[]{pico});
+            esperas.junta(r.histogramasEspera);
+            somaFila += r.filaMedia;
+            somaUtilizacao += r.utilizacaoMedia;
+        }
+        HistogramaEspera urg = esperas.porTipo(true);
+        HistogramaEspera nao = esperas.porTipo(false);
+        return new ResumoCelula(reps.size(), cumpriram, picos.media(0), picos.percentil(0, 0.95),
+                urg.getMedia(), urg.quantil(0.90), urg.quantil(0.99),
+                nao.getMedia(), nao.quantil(0.90), nao.quantil(0.99),
+                somaFila / reps.size(), somaUtilizacao / reps.size());
+    }
+}
@@ -0,0 +1,166 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Saída em lote, uma linha por célula, em CSV ({@code .csv}) ou JSON lines (qualquer outra extensão).
+ * <p>
+ * O arquivo só cresce e cada linha é descarregada assim que a célula termina. Ao reabrir, o id e o hash
+ * dos parâmetros das células já gravadas são lidos (para a retomada pular as que não mudaram) e uma última
+ * linha incompleta, de uma execução que caiu no meio da escrita, é cortada. Uma célula que rodou de novo
+ * com outros parâmetros ganha uma linha nova; vale a mais recente.
+ */
+public class SaidaLote implements AutoCloseable {
+
+    private static final String[] COLUNAS = {"id", "hash", "cenario", "consultorios", "prioridade", "filaUnica",
+            "naoUrgente", "fatorChegadaHora", "horizonte", "segmentoChegada", "crn", "chegadaExata", "motor",
+            "roteamento", "envelhecimento", "plano", "semente",
+            "replicacoes", "cumpriram", "picoMedio", "picoP95",
+            "esperaMediaUrgente", "esperaP90Urgente", "esperaP99Urgente",
+            "esperaMediaNaoUrgente", "esperaP90NaoUrgente", "esperaP99NaoUrgente",
+            "filaMedia", "utilizacaoMedia"};
+
+    private final boolean csv;
+    private final Map<String, String> concluidas = new HashMap<>(); // id -> hash dos parâmetros
+    private final BufferedWriter saida;
+
+    public SaidaLote(Path arquivo) throws IOException {
+        this.csv = arquivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        if (Files.exists(arquivo)) cortaLinhaIncompleta(arquivo);
+        boolean novo = !Files.exists(arquivo) || Files.size(arquivo) == 0;
+        if (!novo) {
+            List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+            if (csv && !linhas.get(0).equals(String.join(",", COLUNAS))) {
+                throw new IOException(arquivo + ": colunas diferentes das desta versão; use outro arquivo de saída");
+            }
+            for (int i = csv ? 1 : 0; i < linhas.size(); i++) {
+                String[] idHash = idHashDaLinha(linhas.get(i));
+                if (idHash != null) concluidas.put(idHash[0], idHash[1]);
+            }
+        }
+        saida = Files.newBufferedWriter(arquivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (novo && csv) {
+            saida.write(String.join(",", COLUNAS));
+            saida.newLine();
+            saida.flush();
+        }
+    }
+
+    // Já gravada com os mesmos parâmetros
+    public boolean concluida(GradeCenarios.Celula celula) { return celula.hash.equals(concluidas.get(celula.id)); }
+    public int getConcluidas()                            { return concluidas.size(); }
+
+    public synchronized void escreve(GradeCenarios.Celula celula, ResumoCelula r) throws IOException {
+        Cenario c = celula.cenario;
+        Object[] valores = {celula.id, celula.hash, celula.nomeCenario, c.numConsultorios, c.prioridadeAtiva,
+                c.modoFilaUnica, c.meanNaoUrgenteOverride, c.fatorChegadaHora, c.horizonte.getHorizonte(),
+                c.horizonte.getDuracaoSegmentoChegada(), c.crn, c.chegadaExata, c.motor, c.roteamento,
+                c.envelhecimento, celula.arquivoPlano, celula.sementeBase, r.replicacoes, r.cumpriram, r.picoMedio, r.picoP95,
+                r.esperaMediaUrgente, r.esperaP90Urgente, r.esperaP99Urgente,
+                r.esperaMediaNaoUrgente, r.esperaP90NaoUrgente, r.esperaP99NaoUrgente,
+                r.filaMedia, r.utilizacaoMedia};
+
+        StringBuilder sb = new StringBuilder(256);
+        if (!csv) sb.append('{');
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) sb.append(',');
+            if (!csv) sb.append('"').append(COLUNAS[i]).append("\":");
+            sb.append(formata(valores[i]));
+        }
+        if (!csv) sb.append('}');
+
+        saida.write(sb.toString());
+        saida.newLine();
+        saida.flush();
+        concluidas.put(celula.id, celula.hash);
+    }
+
+    private String formata(Object v) {
+        if (v == null) return csv ? "" : "null";
+        if (v instanceof Double) {
+            double d = (Double) v;
+            if (Double.isNaN(d) || Double.isInfinite(d)) return csv ? "" : "null";
+            return String.format(Locale.ROOT, "%.4f", d);
+        }
+        if (v instanceof double[]) {
+            // no CSV separado por ';' para não quebrar as colunas
+            StringBuilder sb = new StringBuilder(csv ? "" : "[");
+            for (double x : (double[]) v) {
+                if (sb.length() > (csv ? 0 : 1)) sb.append(csv ? ';' : ',');
+                sb.append(x);
+            }
+            return csv ? sb.toString() : sb.append(']').toString();
+        }
+        if (v instanceof Enum) return csv ? v.toString() : "\"" + v + "\"";
+        if (v instanceof String) return texto((String) v);
+        return v.toString();
+    }
+
+    // Texto livre (nome do arquivo do plano): aspas no CSV só quando precisa, escape no JSON
+    private String texto(String s) {
+        if (csv) {
+            boolean aspas = s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0;
+            return aspas ? "\"" + s.replace("\"", "\"\"") + "\"" : s;
+        }
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (ch == '"' || ch == '\\') sb.append('\\').append(ch);
+            else if (ch < 0x20) sb.append(String.format(Locale.ROOT, "\\u%04x", (int) ch));
+            else sb.append(ch);
+        }
+        return sb.append('"').toString();
+    }
+
+    // {id, hash}; hash null em linhas de versões sem a coluna (a célula roda de novo)
+    private String[] idHashDaLinha(String linha) {
+        if (csv) {
+            String[] campos = linha.split(",", 3);
+            return campos.length >= 2 && !campos[0].isEmpty() ? new String[]{campos[0], campos[1]} : null;
+        }
+        String id = campoJson(linha, "id");
+        return id != null ? new String[]{id, campoJson(linha, "hash")} : null;
+    }
+
+    private static String campoJson(String linha, String nome) {
+        String prefixo = "\"" + nome + "\":\"";
+        int inicio = linha.indexOf(prefixo);
+        if (inicio < 0) return null;
+        inicio += prefixo.length();
+        int fim = linha.indexOf('"', inicio);
+        return fim > 0 ? linha.substring(inicio, fim) : null;
+    }
+
+    // Corta o que vier depois do último '\n' (linha que não chegou a ser descarregada inteira)
+    private static void cortaLinhaIncompleta(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamanho = canal.size();
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long pos = tamanho;
+            while (pos > 0) {
+                b.clear();
+                canal.read(b, pos - 1);
+                if (b.get(0) == '\n') break;
+                pos--;
+            }
+            if (pos < tamanho) canal.truncate(pos);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        saida.close();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example;
+
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.TimeInstant;
+import org.example.model.AnaliseLotes;
+import org.example.model.ClinicaModelBase;
+
+/**
+ * Uma rodada longa analisada por médias em lotes: o horizonte do cenário é só o limite máximo, porque o
+ * modelo para o Experiment assim que as esperas e a fila atingem a precisão pedida na AnaliseLotes.
+ * Substitui dezenas de replicações independentes (cada uma com o próprio aquecimento) por uma rodada só.
+ */
+public class SimulacaoLotes {
+
+    public static class Resultado {
+        public final AnaliseLotes analise;
+        public final boolean atingiuPrecisao; // false = chegou ao horizonte máximo antes
+        public final double tempoSimulado;    // min
+        public final long chegadas;
+
+        Resultado(AnaliseLotes analise, boolean atingiuPrecisao, double tempoSimulado, long chegadas) {
+            this.analise = analise;
+            this.atingiuPrecisao = atingiuPrecisao;
+            this.tempoSimulado = tempoSimulado;
+            this.chegadas = chegadas;
+        }
+    }
+
+    public static Resultado roda(Cenario cenario, AnaliseLotes analise, long semente) {
+        Experiment exp = ExecutorReplicacoes.novoExperimento(cenario.nomeExperimento(1) + "_lotes");
+        ClinicaModelBase model = cenario.criaModelo(false, false);
+        if (cenario.crn) model.setSementeCRN(semente);
+        else exp.setSeedGenerator(semente);
+        model.setAnaliseLotes(analise);
+
+        model.connectToExperiment(exp);
+        exp.stop(new TimeInstant(cenario.horizonte.getHorizonte()));
+        exp.start();
+        double tempo = model.presentTime().getTimeAsDouble();
+        exp.finish();
+
+        return new Resultado(analise, model.isParadaPorPrecisao(), tempo, model.getTotalChegadas());
+    }
+}
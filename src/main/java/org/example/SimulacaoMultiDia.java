@@ -0,0 +1,58 @@
+package org.example;
+
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.TimeInstant;
+import org.example.model.ClinicaModelBase;
+import org.example.model.FonteChegadas;
+import org.example.model.PoliticaVirada;
+import org.example.model.ResumoDia;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vários dias seguidos num único Experiment: o modelo é montado uma vez e a simulação para no fim de cada
+ * dia (exp.stop/proceed) para tirar o resumo do dia e aplicar a política de virada às filas. Com CARREGA
+ * o estado (filas, consultórios ocupados) passa de um dia para o outro, então só o primeiro dia começa vazio.
+ * O nº de dias vem do horizonte do cenário (ex.: ConfiguracaoHorizonte.dias(365, 60.0)).
+ */
+public class SimulacaoMultiDia {
+
+    public static List<ResumoDia> roda(Cenario cenario, PoliticaVirada politica, long semente) {
+        return roda(cenario, politica, semente, null);
+    }
+
+    // Com fonte, os dias reproduzem as chegadas de um registro histórico (lido só à medida que o relógio anda)
+    public static List<ResumoDia> roda(Cenario cenario, PoliticaVirada politica, long semente, FonteChegadas fonte) {
+        double duracaoDia = cenario.horizonte.getDuracaoDia();
+        int dias = (int) Math.ceil(cenario.horizonte.getHorizonte() / duracaoDia);
+
+        Experiment exp = ExecutorReplicacoes.novoExperimento(cenario.nomeExperimento(1) + "_" + dias + "dias");
+        ClinicaModelBase model = cenario.criaModelo(false, false);
+        if (cenario.crn) model.setSementeCRN(semente);
+        else exp.setSeedGenerator(semente);
+        model.setFonteChegadas(fonte);
+        model.connectToExperiment(exp);
+
+        List<ResumoDia> resumo = new ArrayList<>(dias);
+        for (int d = 0; d < dias; d++) {
+            exp.stop(new TimeInstant(Math.min((d + 1) * duracaoDia, cenario.horizonte.getHorizonte())));
+            if (d == 0) exp.start();
+            else exp.proceed();
+            resumo.add(model.fechaDia(d, politica));
+        }
+        exp.finish();
+        return resumo;
+    }
+
+    // Fração dos dias que cumpriram a meta, a partir do dia {@code aPartirDe} (1 = todos)
+    public static double fracaoCumpridos(List<ResumoDia> dias, int aPartirDe) {
+        int n = 0, ok = 0;
+        for (ResumoDia d : dias) {
+            if (d.dia < aPartirDe) continue;
+            n++;
+            if (d.cumpriu) ok++;
+        }
+        return n == 0 ? Double.NaN : ok / (double) n;
+    }
+}
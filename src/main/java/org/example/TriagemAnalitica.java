@@ -0,0 +1,105 @@
+package org.example;
+
+import org.example.model.ClinicaModelBase;
+
+/**
+ * Pré-triagem analítica das células (cenário × nº de consultórios) antes de simular: classifica a meta de
+ * fila ≤ 5 como PASSA, FALHA ou INCERTO a partir só dos parâmetros do modelo, e só as incertas precisam de
+ * simulação.
+ * <p>
+ * Cada hora do dia é tratada como uma M/G/c estacionária com a taxa da hora (fatorChegadaHora / 15 min) e o
+ * atendimento da mistura urgente/não urgente (médias de mediaServicoUrgente / mediaServicoNaoUrgente):
+ * <ul>
+ * <li>FALHA: o modelo fluido (backlog médio, hora a hora) chega a {@code MARGEM_FALHA} × o menor backlog que
+ * obriga a violar a meta (5c + 1 no pool; 6c com filas separadas, uma delas tem de ter 6). A fila real fica
+ * em torno do fluido ou acima, então cada replicação cumpre com chance de no máximo ~1/2.</li>
+ * <li>PASSA: a soma, nas horas do horizonte, do nº esperado de chegadas que encontram a fila no nível de
+ * violação (cauda da Erlang-C com o fator de Allen–Cunneen), vezes o nº de replicações, fica abaixo de
+ * {@code ALFA_PASSA}. O nível é 5c + 1 no pool e 6 com filas separadas (total ≤ 5 garante cada fila ≤ 5).
+ * Pela desigualdade de Markov isso limita a chance de alguma replicação violar a meta.</li>
+ * </ul>
+ * São aproximações: a decisão fica com a simulação sempre que nenhuma das duas é clara, e sempre com
+ * consultórios heterogêneos (fator de atendimento ou turnos), que a M/G/c com servidores iguais não descreve.
+ */
+public class TriagemAnalitica {
+
+    public static final double ALFA_PASSA = 0.05;
+    public static final double MARGEM_FALHA = 1.0;
+    private static final double META_FILA = 5;
+
+    public enum Classe { PASSA, FALHA, INCERTO }
+
+    public static class Avaliacao {
+        public final Classe classe;
+        public final double rhoMaximo;          // maior utilização horária (λ·E[S]/c)
+        public final double chanceViolacao;      // limite (Markov) da chance de alguma replicação violar a meta
+        public final double backlogFluidoMaximo;
+
+        Avaliacao(Classe classe, double rhoMaximo, double chanceViolacao, double backlogFluidoMaximo) {
+            this.classe = classe;
+            this.rhoMaximo = rhoMaximo;
+            this.chanceViolacao = chanceViolacao;
+            this.backlogFluidoMaximo = backlogFluidoMaximo;
+        }
+    }
+
+    public static Avaliacao avalia(Cenario cenario, int reps) {
+        int c = cenario.numConsultorios;
+        double p = ClinicaModelBase.PROB_URGENTE;
+        double mu1 = ClinicaModelBase.MEDIA_SERVICO_URGENTE, dp1 = ClinicaModelBase.DP_SERVICO_URGENTE;
+        double mu2 = cenario.meanNaoUrgenteOverride != null
+                ? cenario.meanNaoUrgenteOverride : ClinicaModelBase.MEDIA_SERVICO_NAO_URGENTE;
+        double dp2 = ClinicaModelBase.DP_SERVICO_NAO_URGENTE;
+
+        // Momentos da mistura de normais
+        double es = p * mu1 + (1 - p) * mu2;
+        double es2 = p * (dp1 * dp1 + mu1 * mu1) + (1 - p) * (dp2 * dp2 + mu2 * mu2);
+        double cs2 = (es2 - es * es) / (es * es);
+        double fatorAC = (1 + cs2) / 2; // Allen–Cunneen com chegadas Poisson (ca² = 1)
+
+        int nivelPassa = cenario.modoFilaUnica ? (int) META_FILA * c + 1 : (int) META_FILA + 1;
+        double nivelFalha = cenario.modoFilaUnica ? META_FILA * c + 1 : (META_FILA + 1) * c;
+
+        double horizonte = cenario.horizonte.getHorizonte();
+        double duracaoDia = cenario.horizonte.getDuracaoDia();
+        double rhoMax = 0, backlog = 0, backlogMax = 0, violacoesEsperadas = 0;
+        double segmento = cenario.horizonte.getDuracaoSegmentoChegada();
+        for (double t = 0; t < horizonte; t += segmento) {
+            double dt = Math.min(segmento, horizonte - t);
+            int h = cenario.horizonte.segmentoDoDia(t);
+            double fator = (cenario.fatorChegadaHora != null && h < cenario.fatorChegadaHora.length)
+                    ? cenario.fatorChegadaHora[h] : 1.0;
+            double lambda = fator / ClinicaModelBase.MEDIA_INTERCHEGADA;
+            double a = lambda * es;       // carga oferecida (Erlangs)
+            double rho = a / c;
+            rhoMax = Math.max(rhoMax, rho);
+
+            backlog = Math.max(0, backlog + (lambda - c / es) * dt);
+            backlogMax = Math.max(backlogMax, backlog);
+
+            if (rho >= 1) {
+                violacoesEsperadas = Double.POSITIVE_INFINITY;
+            } else if (lambda > 0) {
+                // P(fila ≥ k) ≈ C(c, a) · ρ^(k / fatorAC); chegadas que encontram nivel − 1 a empurram ao nível
+                double cauda = erlangC(c, a) * Math.pow(rho, (nivelPassa - 1) / fatorAC);
+                violacoesEsperadas += lambda * dt * cauda;
+            }
+        }
+
+        double chance = Math.min(1.0, violacoesEsperadas * reps);
+        Classe classe;
+        if (cenario.plano != null) classe = Classe.INCERTO;
+        else if (backlogMax >= MARGEM_FALHA * nivelFalha) classe = Classe.FALHA;
+        else if (chance <= ALFA_PASSA) classe = Classe.PASSA;
+        else classe = Classe.INCERTO;
+        return new Avaliacao(classe, rhoMax, chance, backlogMax);
+    }
+
+    // Probabilidade de espera da M/M/c (Erlang C), pela recursão estável da Erlang B
+    static double erlangC(int c, double a) {
+        double b = 1.0;
+        for (int k = 1; k <= c; k++) b = a * b / (k + a * b);
+        double rho = a / c;
+        return b / (1 - rho * (1 - b));
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.model;
+
+/**
+ * Média ponderada no tempo de um valor em degraus (tamanho de fila, consultório ocupado 0/1).
+ * Cada mudança custa O(1): soma a área do degrau anterior e guarda o novo valor.
+ */
+public class AcumuladorTempo {
+
+    private double valor = 0;
+    private double desde = 0;   // instante da última mudança
+    private double area = 0;    // ∫ valor dt até 'desde'
+    private double maximo = 0;
+
+    public void muda(double t, double novoValor) {
+        area += valor * (t - desde);
+        desde = t;
+        valor = novoValor;
+        if (novoValor > maximo) maximo = novoValor;
+    }
+
+    public double getValor()  { return valor; }
+    public double getMaximo() { return maximo; }
+
+    // Média no tempo de 0 até t (t ≥ última mudança)
+    public double media(double t) {
+        if (t <= 0) return valor;
+        return (area + valor * (t - desde)) / t;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.model;
+
+/**
+ * Análise de estado estacionário de uma rodada longa: médias em lotes com descarte MSER para a espera
+ * de cada tipo de paciente e para a fila total vista na chegada (por PASTA, chegadas de Poisson veem a
+ * fila média no tempo). Ligada ao modelo por {@link ClinicaModelBase#setAnaliseLotes}; quando todas as
+ * séries atingem a precisão pedida o modelo para o Experiment sozinho.
+ */
+public class AnaliseLotes {
+
+    public final MediasEmLotes esperaUrgente = new MediasEmLotes();
+    public final MediasEmLotes esperaNaoUrgente = new MediasEmLotes();
+    public final MediasEmLotes fila = new MediasEmLotes();
+
+    private final double precisaoRelativa; // meia largura alvo / média (ex.: 0.05)
+    private final double z;
+    private final int numLotes;
+    private final long minObservacoes;     // por série, antes de tentar parar
+    private static final int VERIFICA_A_CADA = 256; // observações entre verificações (MSER é O(mini-lotes))
+
+    private long desdeVerificacao = 0;
+    private boolean atingiu = false;
+
+    public AnaliseLotes(double precisaoRelativa, double z, int numLotes, long minObservacoes) {
+        this.precisaoRelativa = precisaoRelativa;
+        this.z = z;
+        this.numLotes = Math.max(2, numLotes);
+        this.minObservacoes = minObservacoes;
+    }
+
+    public void registraEspera(double espera, boolean urgente) {
+        (urgente ? esperaUrgente : esperaNaoUrgente).registra(espera);
+        desdeVerificacao++;
+    }
+
+    public void registraFila(int aguardando) {
+        fila.registra(aguardando);
+        desdeVerificacao++;
+    }
+
+    // true quando todas as séries atingem a precisão (verificado a cada VERIFICA_A_CADA observações)
+    public boolean atingiuPrecisao() {
+        if (atingiu) return true;
+        if (desdeVerificacao < VERIFICA_A_CADA) return false;
+        desdeVerificacao = 0;
+        atingiu = atinge(esperaUrgente) && atinge(esperaNaoUrgente) && atinge(fila);
+        return atingiu;
+    }
+
+    private boolean atinge(MediasEmLotes serie) {
+        return serie.getTotal() >= minObservacoes && serie.estima(numLotes, z).atinge(precisaoRelativa);
+    }
+
+    public MediasEmLotes.Estimativa estimaEsperaUrgente()    { return esperaUrgente.estima(numLotes, z); }
+    public MediasEmLotes.Estimativa estimaEsperaNaoUrgente() { return esperaNaoUrgente.estima(numLotes, z); }
+    public MediasEmLotes.Estimativa estimaFila()             { return fila.estima(numLotes, z); }
+}
@@ -1,24 +1,15 @@
 package org.example.model;
 
 import desmoj.core.simulator.*;
-import desmoj.core.dist.*;
-import desmoj.core.statistic.Tally;
 import org.example.GeradorPacientes;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.List;
+import java.util.BitSet;
 
 
 //ClinicaModel é o modelo DESMOJ que representa a Clinica
-public class ClinicaModel extends Model {
-
-    // Parâmetros
-    protected final int numConsultorios;
-    public final boolean prioridadeAtiva; //se true, urgentes tem prioridade na fila
-    public final boolean modoFilaUnica; //se true, todos os consultórios atendem de uma fila unica(pool); se false, cada consultório tem sua própria fila
-    protected final double[] fatorChegadaHora;
-    protected final Double meanNaoUrgenteOverride;   // (c)
+public class ClinicaModel extends ClinicaModelBase {
 
     // Filas por consultório (modo filas separadas)
     @SuppressWarnings("unchecked")
@@ -30,50 +21,37 @@ public class ClinicaModel extends Model {
     public ProcessQueue<Paciente> filaUrgGlobal;
     public ProcessQueue<Paciente> filaNaoGlobal;
 
-    // Estado dos consultórios
+    // Estado dos consultórios (alterar só via setOcupado, que mantém os índices abaixo)
     public boolean[] consultorioOcupado;
 
-    // Distribuições
-    public ContDistExponential distChegadaBase;            // mean 15
-    protected ContDistNormal distAtendimentoUrgente;       // N(10,3)
-    protected ContDistNormal distAtendimentoNaoUrgente;    // N(20,5) ou override
-    protected BoolDistBernoulli distTipoUrgente;           // 30%
-
-    // Métricas
-    protected Tally tempoEsperaUrgente;
-    protected Tally tempoEsperaNaoUrgente;
-
-    // Filas separadas – picos
-    protected int[]  picoFilaPorConsultorio;     // pico dia por consultório
-    protected int[][] picoHoraPorConsultorio;    // [hora][consultorio]
-
-    // Fila única – picos
-    private   int    picoPoolDia = 0;            // pico do total da fila única no dia
-    private   int[]  picoHoraPool = new int[10]; // pico do pool por hora
-
-    // Tabela hora-a-hora (snapshot)
-    protected List<int[]> tabelaHoraAHora;
+    // Índices para decisão em O(log c): consultórios ocupados ou fechados (próximo livre = nextClearBit) e heap de ETA
+    // (só com o roteamento por menor ETA; null nos demais)
+    private BitSet ocupados;
+    private HeapETA heapETA;
 
     // Processos
     protected GeradorPacientes gerador;
     protected SamplerHora samplerHora;
 
+    // Reciclagem de pacientes: quem termina o atendimento volta para cá e é reaproveitado na próxima chegada
+    private boolean reciclaPacientes = false;
+    private final ArrayDeque<Paciente> pacientesLivres = new ArrayDeque<>();
+
+
     //metódo construtor --> CLINICA MODEL
     public ClinicaModel(Model owner, String name, boolean showInReport, boolean showInTrace,
                         int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
                         double[] fatorChegadaHora, Double meanNaoUrgenteOverride) {
-        super(owner, name, showInReport, showInTrace);
-        this.numConsultorios = numConsultorios;
-        this.prioridadeAtiva = prioridadeAtiva;
-        this.modoFilaUnica = modoFilaUnica;
-        this.fatorChegadaHora = fatorChegadaHora != null ? Arrays.copyOf(fatorChegadaHora, fatorChegadaHora.length) : null;
-        this.meanNaoUrgenteOverride = meanNaoUrgenteOverride;
+        this(owner, name, showInReport, showInTrace, numConsultorios, prioridadeAtiva, modoFilaUnica,
+                fatorChegadaHora, meanNaoUrgenteOverride, ConfiguracaoHorizonte.PADRAO);
     }
 
-    @Override
-    public String description() {
-        return "Modelo de Gestao de Atendimentos da Clínica Vida Saudável (DESMO-J)";
-
+    public ClinicaModel(Model owner, String name, boolean showInReport, boolean showInTrace,
+                        int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                        double[] fatorChegadaHora, Double meanNaoUrgenteOverride,
+                        ConfiguracaoHorizonte horizonte) {
+        super(owner, name, showInReport, showInTrace, numConsultorios, prioridadeAtiva, modoFilaUnica,
+                fatorChegadaHora, meanNaoUrgenteOverride, horizonte);
     }
 
     @Override
@@ -81,6 +59,8 @@ public class ClinicaModel extends Model {
         // Estado
         consultorioOcupado = new boolean[numConsultorios];
         Arrays.fill(consultorioOcupado, false);
+        ocupados = new BitSet(numConsultorios);
+        heapETA = usaIndiceETA() ? new HeapETA(numConsultorios) : null; // tudo livre e vazio: ETA 0 para todos
 
         // Filas
         if (modoFilaUnica) {
@@ -95,33 +75,9 @@ public class ClinicaModel extends Model {
             }
         }
 
-        // Métricas de pico
-        picoFilaPorConsultorio = new int[numConsultorios];
-        picoHoraPorConsultorio = new int[10][numConsultorios];
-        picoPoolDia = 0; // <-- picoPoolDia é int, inicialize assim
-        for (int h = 0; h < 10; h++) {
-            Arrays.fill(picoHoraPorConsultorio[h], 0);
-            picoHoraPool[h] = 0;
-        }
-
-        // Tabela hora-a-hora
-        tabelaHoraAHora = new ArrayList<>();
-
-        // Distribuições
-        distChegadaBase = new ContDistExponential(this, "Distancia Entre Chegada dos Pacientes", 15.0, true, true);  //o sistema de chegada segue uma distribuição exponencial
-
-        distAtendimentoUrgente = new ContDistNormal(this, "Dist_Serv_Urg", 10.0, 3.0, true, true); //Tempo Atendimento --> Dist. Normal --> casos urgentes temos 10 min de atendimento e 3 min de desvio padrão
-        distAtendimentoUrgente.setNonNegative(true);
-
-        double meanNao = (meanNaoUrgenteOverride != null) ? meanNaoUrgenteOverride : 20.0;
-        distAtendimentoNaoUrgente = new ContDistNormal(this, "Dist_Serv_Nao", meanNao, 5.0, true, true); //Tempo de Atendimento --> Dist. Normal --> para casos não urgentes temos 20 min de atendimento e 5 de desvio padrão
-        distAtendimentoNaoUrgente.setNonNegative(true);
+        initComum();
 
-        distTipoUrgente = new BoolDistBernoulli(this, "Dist_Tipo_Urgente", 0.3, true, true);
-
-        // Tallys
-        tempoEsperaUrgente    = new Tally(this, "Tempo_Espera_Urgente", true, true);
-        tempoEsperaNaoUrgente = new Tally(this, "Tempo_Espera_NaoUrgente", true, true);
+        pacientesLivres.clear();
 
         // Processos
         gerador = new GeradorPacientes(this, "Gerador_Pacientes", true);
@@ -132,25 +88,143 @@ public class ClinicaModel extends Model {
     public void doInitialSchedules() {
         gerador.activate();
         samplerHora.activate();
+        agendaTurnos();
+    }
+
+    // ======= Pacientes =======
+
+    // Deve ser chamado antes do connectToExperiment
+    public void setReciclaPacientes(boolean recicla) { this.reciclaPacientes = recicla; }
+
+    public Paciente novoPaciente(boolean urgente) {
+        Paciente p = reciclaPacientes ? pacientesLivres.pollFirst() : null;
+        if (p == null) return new Paciente(this, "Paciente", true, urgente);
+        p.reinicia(urgente);
+        return p;
+    }
+
+    // Chegada de registro histórico: servico NaN = sorteado como de costume
+    public Paciente novoPaciente(boolean urgente, double servico) {
+        Paciente p = novoPaciente(urgente);
+        p.servicoRegistrado = servico;
+        return p;
+    }
+
+    // Devolve o paciente ao pool; false se a reciclagem estiver desligada (aí o processo termina)
+    public boolean devolvePaciente(Paciente p) {
+        if (!reciclaPacientes) return false;
+        pacientesLivres.addFirst(p);
+        return true;
+    }
+
+    // ======= Estado (mantém os índices de decisão) =======
+
+    public void setOcupado(int i, boolean ocupado) {
+        consultorioOcupado[i] = ocupado;
+        ocupados.set(i, ocupado || !isAberto(i));
+        mudaOcupacao(i, ocupado);
+        atualizaETA(i);
+    }
+
+    private void atualizaETA(int i) {
+        if (heapETA != null) heapETA.atualiza(i, estimaETA(i));
+    }
+
+    boolean mantemHeapETA() { return heapETA != null; }
+
+    // Filas separadas: entrada/saída do paciente nas filas do consultório i
+    public void entraFila(int i, Paciente p) {
+        if (p.isUrgente()) filaUrg[i].insert(p);
+        else filaNao[i].insert(p);
+        mudaFila(i, p.isUrgente(), (p.isUrgente() ? filaUrg[i] : filaNao[i]).length());
+        atualizaETA(i);
+    }
+
+    public void saiFila(int i, Paciente p) {
+        if (p.isUrgente()) filaUrg[i].remove(p);
+        else filaNao[i].remove(p);
+        mudaFila(i, p.isUrgente(), (p.isUrgente() ? filaUrg[i] : filaNao[i]).length());
+        atualizaETA(i);
+    }
+
+    // Fila única: entrada/saída do pool
+    public void entraPool(Paciente p) {
+        ProcessQueue<Paciente> fila = p.isUrgente() ? filaUrgGlobal : filaNaoGlobal;
+        fila.insert(p);
+        mudaFila(0, p.isUrgente(), fila.length());
+    }
+
+    public void saiPool(Paciente p) {
+        ProcessQueue<Paciente> fila = p.isUrgente() ? filaUrgGlobal : filaNaoGlobal;
+        fila.remove(p);
+        mudaFila(0, p.isUrgente(), fila.length());
+    }
+
+    @Override
+    protected void consultorioMudouTurno(int i, boolean abre) {
+        ocupados.set(i, consultorioOcupado[i] || !abre);
+        if (modoFilaUnica) {
+            if (abre) tentarDespacho();
+            return;
+        }
+        atualizaETA(i);
+        if (abre && !consultorioOcupado[i]) {
+            // quem esperava a reabertura começa já, como no fim de um atendimento
+            Paciente proximo = pickProximo(i);
+            if (proximo != null) {
+                setOcupado(i, true);
+                proximo.activate();
+            }
+        } else if (!abre) {
+            redistribui(i);
+        }
+    }
+
+    // Fechou: cada um da fila, na ordem da disciplina, é roteado de novo e entra no fim da fila escolhida.
+    // A espera segue contando da chegada. Para se o roteamento só oferece consultório fechado.
+    private void redistribui(int i) {
+        if (getNumAbertos() == 0) return;
+        for (Paciente p = pickProximo(i); p != null; p = pickProximo(i)) {
+            int j = escolheConsultorio();
+            if (!isAberto(j)) break;
+            saiFila(i, p);
+            p.setIndiceConsultorio(j);
+            registraEvento(LogEventos.TRANSFERENCIA, p.getId(), j, p.isUrgente());
+            entraFila(j, p);
+            atualizaPicoFila(j);
+            if (!consultorioOcupado[j] && pickProximo(j) == p) {
+                setOcupado(j, true);
+                p.activate();
+            }
+        }
     }
 
     // ======= Apoio de decisão =======
 
-    // ETA (filas separadas)
+    // ETA (filas separadas), no ritmo do consultório
+    @Override
     public double estimaETA(int i) {
         double base = consultorioOcupado[i] ? mediaServicoMista() : 0.0;
         if (modoFilaUnica) return base; // sem filas por consultório no pool
         int qUrg = filaUrg[i].length();
         int qNao = filaNao[i].length();
         double soma = qUrg * mediaServicoUrgente() + qNao * mediaServicoNaoUrgente();
-        return base + soma;
+        double eta = (base + soma) * getFatorServico(i);
+        return isAberto(i) ? eta : eta + PENALIDADE_FECHADO;
     }
 
-    private double mediaServicoUrgente()    { return distAtendimentoUrgente.getMean(); }
-    private double mediaServicoNaoUrgente() { return distAtendimentoNaoUrgente.getMean(); }
-    private double mediaServicoMista()      { return 0.3 * mediaServicoUrgente() + 0.7 * mediaServicoNaoUrgente(); }
+    // O(1): topo do heap, mantido a cada entrada/saída de fila e mudança de ocupação; sem o heap (outro
+    // roteamento), a varredura
+    @Override
+    public int consultorioMenorETA() {
+        if (heapETA == null) return escolherConsultorioETALinear();
+        int escolhido = heapETA.minimo();
+        assert escolhido == escolherConsultorioETALinear() : "heap de ETA divergiu da varredura linear";
+        return escolhido;
+    }
 
-    public int escolherConsultorioETA() {
+    // Varredura O(c) original; referência para conferir o heap (rodar com -ea)
+    public int escolherConsultorioETALinear() {
         int escolhido = 0;
         double melhorETA = estimaETA(0);
         for (int i = 1; i < numConsultorios; i++) {
@@ -162,49 +236,57 @@ public class ClinicaModel extends Model {
 
     // Próximo (filas separadas)
     public Paciente pickProximo(int i) {
-        if (prioridadeAtiva) {
-            if (!filaUrg[i].isEmpty()) return filaUrg[i].first();
-            if (!filaNao[i].isEmpty()) return filaNao[i].first();
-            return null;
-        } else {
-            if (filaUrg[i].isEmpty() && filaNao[i].isEmpty()) return null;
-            if (filaUrg[i].isEmpty()) return filaNao[i].first();
-            if (filaNao[i].isEmpty()) return filaUrg[i].first();
-            Paciente u = filaUrg[i].first();
-            Paciente n = filaNao[i].first();
-            return (u.getChegada() <= n.getChegada()) ? u : n;
-        }
+        return escolhe(filaUrg[i], filaNao[i]);
     }
 
     // Próximo (pool)
     public Paciente pickGlobal() {
-        if (prioridadeAtiva) {
-            if (!filaUrgGlobal.isEmpty()) return filaUrgGlobal.first();
-            if (!filaNaoGlobal.isEmpty()) return filaNaoGlobal.first();
-            return null;
-        } else {
-            if (filaUrgGlobal.isEmpty() && filaNaoGlobal.isEmpty()) return null;
-            if (filaUrgGlobal.isEmpty()) return filaNaoGlobal.first();
-            if (filaNaoGlobal.isEmpty()) return filaUrgGlobal.first();
-            Paciente u = filaUrgGlobal.first();
-            Paciente n = filaNaoGlobal.first();
-            return (u.getChegada() <= n.getChegada()) ? u : n;
-        }
+        return escolhe(filaUrgGlobal, filaNaoGlobal);
+    }
+
+    // Primeiro urgente × primeiro não urgente, pela disciplina
+    private Paciente escolhe(ProcessQueue<Paciente> urg, ProcessQueue<Paciente> nao) {
+        if (urg.isEmpty()) return nao.isEmpty() ? null : nao.first();
+        if (nao.isEmpty()) return urg.first();
+        Paciente u = urg.first();
+        Paciente n = nao.first();
+        return urgentePrimeiro(u.getChegada(), n.getChegada()) ? u : n;
+    }
+
+    // O(c/64) no bitset de ocupados ou fechados
+    @Override
+    public int primeiroLivre() {
+        int i = ocupados.nextClearBit(0);
+        return i < numConsultorios ? i : -1;
     }
 
-    // Despacho (pool)
+    // Despacho (pool): o roteamento escolhe o consultório livre; para quando o pool esvazia ou não há livre
     public void tentarDespacho() {
+        if (!modoFilaUnica) return;
+        while (true) {
+            Paciente proximo = pickGlobal();
+            if (proximo == null) break;
+            int i = escolheServidorPool();
+            if (i < 0) break;
+            // Remove do pool e ativa
+            saiPool(proximo);
+            proximo.setIndiceConsultorio(i);
+            setOcupado(i, true);
+            proximo.activate();
+        }
+    }
+
+    // Varredura O(c) original; mesmo efeito de tentarDespacho (referência para comparação)
+    public void tentarDespachoLinear() {
         if (!modoFilaUnica) return;
         for (int i = 0; i < numConsultorios; i++) {
-            if (!consultorioOcupado[i]) {
+            if (!consultorioOcupado[i] && isAberto(i)) {
                 Paciente proximo = pickGlobal();
                 if (proximo != null) {
                     // Remove do pool e ativa
-                    if (proximo.isUrgente()) filaUrgGlobal.remove(proximo);
-                    else filaNaoGlobal.remove(proximo);
-                    atualizaPicosPool(); // após remoção também registramos (não diminui pico, mas registra estado)
+                    saiPool(proximo);
                     proximo.setIndiceConsultorio(i);
-                    consultorioOcupado[i] = true;
+                    setOcupado(i, true);
                     proximo.activate();
                 }
             }
@@ -213,112 +295,73 @@ public class ClinicaModel extends Model {
 
     public boolean isMinhaVez(int i, Paciente p) {
         if (modoFilaUnica) return true; // no pool, ativado pelo dispatcher
+        if (!isAberto(i)) return false; // espera a reabertura
         Paciente proximo = pickProximo(i);
         return proximo == p;
     }
 
-    public boolean sampleUrgente() {
-        return distTipoUrgente.sample();
-    }
-
-    // Interchegada com perfil horário
-    public double sampleInterChegada() {
-        double meanBase = distChegadaBase.getMean(); // 15
-        double t = presentTime().getTimeAsDouble();
-        int h = (int)Math.max(0, Math.min(9, Math.floor(t / 60.0)));
-        double fator = (fatorChegadaHora != null && fatorChegadaHora.length > h) ? fatorChegadaHora[h] : 1.0;
-        double meanHora = meanBase / Math.max(0.0001, fator);
-        double amostraBase = distChegadaBase.sample();
-        return amostraBase * (meanHora / meanBase);
-    }
-
-    public double sampleTempoAtendimento(boolean urgente) {
-        return urgente ? distAtendimentoUrgente.sample() : distAtendimentoNaoUrgente.sample();
-    }
-
-    public void registraEspera(double espera, boolean urgente) {
-        if (urgente) tempoEsperaUrgente.update(espera);
-        else tempoEsperaNaoUrgente.update(espera);
-    }
+    // ======= Multi-dia =======
 
-    public double getTempoMedioEsperaUrgente()    { return tempoEsperaUrgente.getMean(); }
-    public double getTempoMedioEsperaNaoUrgente() { return tempoEsperaNaoUrgente.getMean(); }
-
-    // ======= Picos (filas separadas) =======
-    public void atualizaPicosFilasSeparadas() {
-        int h = (int)Math.max(0, Math.min(9, Math.floor(presentTime().getTimeAsDouble() / 60.0)));
-        for (int i = 0; i < numConsultorios; i++) {
-            int aguardando = filaUrg[i].length() + filaNao[i].length();
-            if (aguardando > picoFilaPorConsultorio[i]) picoFilaPorConsultorio[i] = aguardando;
-            if (aguardando > picoHoraPorConsultorio[h][i]) picoHoraPorConsultorio[h][i] = aguardando;
-        }
-    }
-
-    // ======= Picos (pool) =======
-    public void atualizaPicosPool() {
-        int totalPool = (filaUrgGlobal == null ? 0 : filaUrgGlobal.length())
-                + (filaNaoGlobal == null ? 0 : filaNaoGlobal.length());
-        if (totalPool > picoPoolDia) picoPoolDia = totalPool;
-        int h = (int)Math.max(0, Math.min(9, Math.floor(presentTime().getTimeAsDouble() / 60.0)));
-        if (totalPool > picoHoraPool[h]) picoHoraPool[h] = totalPool;
+    @Override
+    protected int contaAguardandoLinear() {
+        if (modoFilaUnica) return filaUrgGlobal.length() + filaNaoGlobal.length();
+        int total = 0;
+        for (int i = 0; i < numConsultorios; i++) total += filaUrg[i].length() + filaNao[i].length();
+        return total;
     }
 
-    public int[] getPicoFilaPorConsultorio() { return picoFilaPorConsultorio; }
-    public int   getPicoPoolDia()            { return picoPoolDia; }
-    public int[] getPicoHoraPool()           { return Arrays.copyOf(picoHoraPool, picoHoraPool.length); }
-
-    public int[] getPicoHoraGlobal() {
-        int[] out = new int[10];
+    // Cada paciente sai da fila e é reativado marcado como descartado: o processo termina sem atendimento
+    @Override
+    protected int esvaziaFilas() {
+        int n = 0;
         if (modoFilaUnica) {
-            // no pool, retornamos o pico do pool por hora
-            System.arraycopy(picoHoraPool, 0, out, 0, out.length);
+            n += descarta(filaUrgGlobal, -1);
+            n += descarta(filaNaoGlobal, -1);
         } else {
-            for (int h = 0; h < 10; h++) {
-                int max = 0;
-                for (int i = 0; i < numConsultorios; i++) {
-                    max = Math.max(max, picoHoraPorConsultorio[h][i]);
-                }
-                out[h] = max;
+            for (int i = 0; i < numConsultorios; i++) {
+                n += descarta(filaUrg[i], i);
+                n += descarta(filaNao[i], i);
             }
         }
-        return out;
+        return n;
     }
 
-    public void printTabelaHoraAHora() {
-        System.out.print("Hora");
-        for (int i = 0; i < numConsultorios; i++) System.out.printf("\tC%02d", (i + 1));
-        System.out.println();
-        for (int h = 0; h < tabelaHoraAHora.size(); h++) {
-            int[] linha = tabelaHoraAHora.get(h);
-            System.out.printf("%02d:00", (h + 1));
-            for (int v : linha) System.out.printf("\t%d", v);
-            System.out.println();
+    private int descarta(ProcessQueue<Paciente> fila, int i) {
+        int n = 0;
+        while (!fila.isEmpty()) {
+            Paciente p = fila.first();
+            if (i >= 0) saiFila(i, p);
+            else saiPool(p);
+            p.descarta();
+            n++;
         }
+        return n;
     }
 
-    // Sampler: snapshot por hora
+    // Sampler: snapshot ao fim de cada bucket (por hora no padrão)
     protected class SamplerHora extends SimProcess {
         public SamplerHora(Model owner, String name, boolean showInTrace) { super(owner, name, showInTrace); }
         @Override
         public void lifeCycle() throws co.paralleluniverse.fibers.SuspendExecution {
-            int horas = 10; // 600 min
-            for (int h = 0; h < horas; h++) {
-                hold(new TimeSpan(60.0)); // a cada hora
+            int buckets = horizonte.getNumBuckets(); // 10 no padrão (600 min)
+            TimeSpan passo = new TimeSpan(horizonte.getDuracaoBucket()); // mesmo TimeSpan a cada bucket
+            for (int b = 0; b < buckets; b++) {
+                hold(passo); // a cada bucket
                 int[] snap = new int[numConsultorios];
                 if (modoFilaUnica) {
                     int totalPool = (filaUrgGlobal == null ? 0 : filaUrgGlobal.length())
                             + (filaNaoGlobal == null ? 0 : filaNaoGlobal.length());
                     int porCons = (int)Math.ceil(totalPool / (double)numConsultorios);
                     Arrays.fill(snap, porCons);
-                    atualizaPicosPool(); // registrar pico por hora
                 } else {
                     for (int i = 0; i < numConsultorios; i++) {
                         snap[i] = filaUrg[i].length() + filaNao[i].length();
                     }
-                    atualizaPicosFilasSeparadas();
                 }
-                tabelaHoraAHora.add(snap);
+                avancaBucketPicos(); // as filas entram no próximo bucket com o tamanho atual
+                registraSnapshot(b, snap);
             }
+            fimDeProcesso();
         }
     }
 }
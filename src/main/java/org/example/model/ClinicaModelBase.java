@@ -0,0 +1,614 @@
+package org.example.model;
+
+import desmoj.core.simulator.*;
+import desmoj.core.dist.*;
+import desmoj.core.statistic.Tally;
+
+import java.util.Arrays;
+
+
+//Parte comum dos modelos da Clinica: parâmetros, distribuições, métricas e picos.
+//ClinicaModel (processos) e ClinicaModelEventos (eventos) só diferem em como os pacientes andam pelas filas.
+public abstract class ClinicaModelBase extends Model {
+
+    // Parâmetros das distribuições (também usados pela pré-triagem analítica)
+    public static final double MEDIA_INTERCHEGADA = 15.0;
+    public static final double MEDIA_SERVICO_URGENTE = 10.0, DP_SERVICO_URGENTE = 3.0;
+    public static final double MEDIA_SERVICO_NAO_URGENTE = 20.0, DP_SERVICO_NAO_URGENTE = 5.0;
+    public static final double PROB_URGENTE = 0.3;
+
+    // Parâmetros
+    protected final int numConsultorios;
+    public final boolean prioridadeAtiva; //se true, urgentes tem prioridade na fila
+    public final boolean modoFilaUnica; //se true, todos os consultórios atendem de uma fila unica(pool); se false, cada consultório tem sua própria fila
+    protected final double[] fatorChegadaHora;
+    protected final Double meanNaoUrgenteOverride;   // (c)
+    protected final ConfiguracaoHorizonte horizonte; // horizonte e buckets (padrão: 600 min em buckets de 1h)
+
+    // Distribuições
+    public ContDistExponential distChegadaBase;            // mean 15
+    private boolean chegadaExata = false;
+    private TaxaChegada taxaChegada;                       // só com chegada exata (NHPP)
+    protected FonteChegadas fonteChegadas;                 // registro histórico no lugar das distribuições; null = sorteia
+    protected ContDistNormal distAtendimentoUrgente;       // N(10,3)
+    protected ContDistNormal distAtendimentoNaoUrgente;    // N(20,5) ou override
+    protected BoolDistBernoulli distTipoUrgente;           // 30%
+    private ContDistUniform distConsultorio;               // consultório ao acaso (roteamentos por amostragem)
+
+    // Estratégias de fila: roteamento (filas separadas) e disciplina (urgente × não urgente)
+    private Roteamento roteamento = new Roteamento.MenorETA();
+    protected Disciplina disciplina;
+    private boolean[] ocupadoConsultorio;
+
+    // Consultórios heterogêneos (opcional; null = todos iguais e sempre abertos)
+    private PlanoConsultorios plano;
+    private double[] fatorServico; // multiplicador do tempo de atendimento por consultório
+    private boolean[] aberto;      // no turno: só consultório aberto começa atendimento
+    private int[] abertos;         // os abertos em abertos[0..numAbertos), os fechados depois (sorteio em O(1))
+    private int[] posAberto;       // posição de cada consultório em abertos
+    private int numAbertos;
+    private EventoTurno eventoTurno;
+
+    // Somada à ETA de consultório fechado: ele só é escolhido se todos estiverem fechados
+    protected static final double PENALIDADE_FECHADO = 1e9;
+
+    // Métricas
+    protected Tally tempoEsperaUrgente;
+    protected Tally tempoEsperaNaoUrgente;
+    protected HistogramasEspera histogramasEspera; // percentis por tipo, bucket de chegada e consultório
+
+    // Filas separadas – picos
+    protected int[]  picoFilaPorConsultorio;          // pico no horizonte por consultório
+    protected TabelaBuckets picoBucketPorConsultorio; // [bucket][consultorio]
+
+    // Fila única – picos
+    protected int    picoPoolDia = 0;                 // pico do total da fila única no horizonte
+    protected TabelaBuckets picoBucketPool;           // pico do pool por bucket (1 coluna)
+
+    // Tamanho atual de cada fila (i = consultório; no pool, 0), mantido por mudaFila
+    private int[] aguardandoUrg;
+    private int[] aguardandoNao;
+    private int aguardandoTotal;   // soma de todas as filas (getAguardando em O(1))
+    private int bucketPicos;       // bucket corrente dos picos
+    private double fimBucketPicos; // instante em que ele acaba
+
+    // Médias no tempo: fila por consultório (no pool, índice 0 = fila única) e ocupação por consultório
+    protected AcumuladorTempo[] filaUrgTempo;
+    protected AcumuladorTempo[] filaNaoTempo;
+    protected AcumuladorTempo[] ocupacaoTempo;
+
+    // Tabela bucket-a-bucket (snapshot ao fim de cada bucket)
+    protected TabelaBuckets tabelaHoraAHora;
+
+    // Números aleatórios comuns (CRN): semente própria por distribuição, independente do cenário
+    protected Long sementeCRN;
+
+    // Perfil de alocação (opcional)
+    protected long totalChegadas = 0;
+    protected PerfilAlocacao perfilAlocacao;
+
+    // Métricas do dia corrente (multi-dia: fechadas e zeradas em fechaDia)
+    protected HistogramaEspera esperaDiaUrgente;
+    protected HistogramaEspera esperaDiaNaoUrgente;
+    protected long chegadasDia = 0;
+
+    // Médias em lotes com parada automática (opcional; null = desligado)
+    protected AnaliseLotes analiseLotes;
+    private boolean paradaPorPrecisao = false;
+
+    // Log de eventos por paciente (opcional; null = desligado)
+    protected LogEventos logEventos;
+    private int proximoIdPaciente = 0;
+
+    // Contadores lidos de fora durante a execução (opcional; null = desligado)
+    private SondaModelo sonda;
+
+    protected ClinicaModelBase(Model owner, String name, boolean showInReport, boolean showInTrace,
+                               int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                               double[] fatorChegadaHora, Double meanNaoUrgenteOverride,
+                               ConfiguracaoHorizonte horizonte) {
+        super(owner, name, showInReport, showInTrace);
+        this.numConsultorios = numConsultorios;
+        this.prioridadeAtiva = prioridadeAtiva;
+        this.modoFilaUnica = modoFilaUnica;
+        this.fatorChegadaHora = fatorChegadaHora != null ? Arrays.copyOf(fatorChegadaHora, fatorChegadaHora.length) : null;
+        this.meanNaoUrgenteOverride = meanNaoUrgenteOverride;
+        this.disciplina = prioridadeAtiva ? Disciplina.PRIORIDADE : Disciplina.FIFO;
+        this.horizonte = horizonte != null ? horizonte : ConfiguracaoHorizonte.PADRAO;
+    }
+
+    @Override
+    public String description() {
+        return "Modelo de Gestao de Atendimentos da Clínica Vida Saudável (DESMO-J)";
+
+    }
+
+    // Métricas, distribuições e tallys; a ordem de criação das distribuições define as sementes
+    protected void initComum() {
+        // Métricas de pico
+        picoFilaPorConsultorio = new int[numConsultorios];
+        picoBucketPorConsultorio = new TabelaBuckets(numConsultorios);
+        picoPoolDia = 0; // <-- picoPoolDia é int, inicialize assim
+        picoBucketPool = new TabelaBuckets(1);
+
+        // Médias no tempo
+        int filas = modoFilaUnica ? 1 : numConsultorios;
+        aguardandoUrg = new int[filas];
+        aguardandoNao = new int[filas];
+        aguardandoTotal = 0;
+        ocupadoConsultorio = new boolean[numConsultorios];
+        fatorServico = new double[numConsultorios];
+        aberto = new boolean[numConsultorios];
+        abertos = new int[numConsultorios];
+        posAberto = new int[numConsultorios];
+        for (int i = 0; i < numConsultorios; i++) {
+            fatorServico[i] = plano != null ? plano.getFatorServico(i) : 1.0;
+            aberto[i] = true;
+            abertos[i] = i;
+            posAberto[i] = i;
+        }
+        numAbertos = numConsultorios;
+        bucketPicos = 0;
+        fimBucketPicos = horizonte.getNumBuckets() > 1 ? horizonte.getDuracaoBucket() : Double.POSITIVE_INFINITY;
+        filaUrgTempo = novosAcumuladores(filas);
+        filaNaoTempo = novosAcumuladores(filas);
+        ocupacaoTempo = novosAcumuladores(numConsultorios);
+
+        // Tabela bucket-a-bucket
+        tabelaHoraAHora = new TabelaBuckets(numConsultorios);
+        totalChegadas = 0;
+        proximoIdPaciente = 0;
+
+        // Distribuições
+        distChegadaBase = new ContDistExponential(this, "Distancia Entre Chegada dos Pacientes", MEDIA_INTERCHEGADA, true, true);  //o sistema de chegada segue uma distribuição exponencial
+
+        distAtendimentoUrgente = new ContDistNormal(this, "Dist_Serv_Urg", MEDIA_SERVICO_URGENTE, DP_SERVICO_URGENTE, true, true); //Tempo Atendimento --> Dist. Normal --> casos urgentes temos 10 min de atendimento e 3 min de desvio padrão
+        distAtendimentoUrgente.setNonNegative(true);
+
+        double meanNao = (meanNaoUrgenteOverride != null) ? meanNaoUrgenteOverride : MEDIA_SERVICO_NAO_URGENTE;
+        distAtendimentoNaoUrgente = new ContDistNormal(this, "Dist_Serv_Nao", meanNao, DP_SERVICO_NAO_URGENTE, true, true); //Tempo de Atendimento --> Dist. Normal --> para casos não urgentes temos 20 min de atendimento e 5 de desvio padrão
+        distAtendimentoNaoUrgente.setNonNegative(true);
+
+        distTipoUrgente = new BoolDistBernoulli(this, "Dist_Tipo_Urgente", PROB_URGENTE, true, true);
+
+        // criada depois das outras: as sementes delas não mudam
+        distConsultorio = new ContDistUniform(this, "Dist_Consultorio", 0.0, 1.0, false, false);
+
+        taxaChegada = chegadaExata ? TaxaChegada.doPerfil(fatorChegadaHora, horizonte, distChegadaBase.getMean()) : null;
+
+        if (sementeCRN != null) {
+            // um fluxo fixo por distribuição: o k-ésimo paciente vê os mesmos sorteios em qualquer cenário
+            distChegadaBase.setSeed(fluxoCRN(sementeCRN, 1));
+            distAtendimentoUrgente.setSeed(fluxoCRN(sementeCRN, 2));
+            distAtendimentoNaoUrgente.setSeed(fluxoCRN(sementeCRN, 3));
+            distTipoUrgente.setSeed(fluxoCRN(sementeCRN, 4));
+            distConsultorio.setSeed(fluxoCRN(sementeCRN, 5));
+        }
+
+        // Tallys
+        tempoEsperaUrgente    = new Tally(this, "Tempo_Espera_Urgente", true, true);
+        tempoEsperaNaoUrgente = new Tally(this, "Tempo_Espera_NaoUrgente", true, true);
+        histogramasEspera = new HistogramasEspera(horizonte.getNumBuckets(), numConsultorios);
+        esperaDiaUrgente = new HistogramaEspera();
+        esperaDiaNaoUrgente = new HistogramaEspera();
+        chegadasDia = 0;
+
+        roteamento.inicia(this);
+
+        // estado do início do dia; depois dos índices de decisão, que já veem os fechados
+        if (plano != null) {
+            for (int i : plano.getComTurnos()) {
+                if (i < numConsultorios && !plano.isAbertoNoInicio(i)) mudaTurno(i, false);
+            }
+        }
+    }
+
+    private static AcumuladorTempo[] novosAcumuladores(int n) {
+        AcumuladorTempo[] a = new AcumuladorTempo[n];
+        for (int i = 0; i < n; i++) a[i] = new AcumuladorTempo(); // começam em t = 0, tudo vazio
+        return a;
+    }
+
+    protected double mediaServicoUrgente()    { return distAtendimentoUrgente.getMean(); }
+    protected double mediaServicoNaoUrgente() { return distAtendimentoNaoUrgente.getMean(); }
+    protected double mediaServicoMista()      { return PROB_URGENTE * mediaServicoUrgente() + (1 - PROB_URGENTE) * mediaServicoNaoUrgente(); }
+
+    // Liga o modo CRN (deve ser chamado antes do connectToExperiment); null desliga
+    public void setSementeCRN(Long semente) { this.sementeCRN = semente; }
+
+    // No modo CRN o tempo de atendimento é sorteado na chegada, na ordem das chegadas, e não na ordem
+    // (dependente do cenário) em que os atendimentos começam
+    public boolean isServicoNaChegada() { return sementeCRN != null; }
+
+    private static long fluxoCRN(long semente, int fluxo) {
+        long z = semente + fluxo * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // Chegadas (tempo, tipo e, se houver, atendimento) de um registro histórico; antes do connectToExperiment.
+    // O modelo só lê a fonte; quem abriu fecha.
+    public void setFonteChegadas(FonteChegadas fonte) { this.fonteChegadas = fonte; }
+
+    public FonteChegadas getFonteChegadas() { return fonteChegadas; }
+
+    // Liga as chegadas NHPP exatas (TaxaChegada) no lugar da aproximação por hora; antes do connectToExperiment
+    public void setChegadaExata(boolean exata) { this.chegadaExata = exata; }
+
+    public boolean sampleUrgente() {
+        return distTipoUrgente.sample();
+    }
+
+    // Interchegada com perfil horário. Sem chegada exata, a taxa da hora da chegada anterior vale para
+    // a interchegada inteira, mesmo que ela atravesse a virada da hora.
+    public double sampleInterChegada() {
+        double meanBase = distChegadaBase.getMean(); // 15
+        double t = presentTime().getTimeAsDouble();
+        if (taxaChegada != null) {
+            // mesma amostra exponencial, reescalada para Exp(1)
+            return taxaChegada.proxima(t, distChegadaBase.sample() / meanBase) - t;
+        }
+        int h = horizonte.segmentoDoDia(t);
+        double fator = (fatorChegadaHora != null && fatorChegadaHora.length > h) ? fatorChegadaHora[h] : 1.0;
+        double meanHora = meanBase / Math.max(0.0001, fator);
+        double amostraBase = distChegadaBase.sample();
+        return amostraBase * (meanHora / meanBase);
+    }
+
+    public double sampleTempoAtendimento(boolean urgente) {
+        return urgente ? distAtendimentoUrgente.sample() : distAtendimentoNaoUrgente.sample();
+    }
+
+    // Multiplicador do tempo de atendimento no consultório i (aplicado no início do atendimento)
+    public double getFatorServico(int i) { return fatorServico[i]; }
+
+    // Chamado no início do atendimento no consultório i; o bucket é o da chegada do paciente
+    public void registraEspera(double espera, boolean urgente, int indiceConsultorio) {
+        if (urgente) tempoEsperaUrgente.update(espera);
+        else tempoEsperaNaoUrgente.update(espera);
+        int bucketChegada = horizonte.bucket(presentTime().getTimeAsDouble() - espera);
+        histogramasEspera.registra(espera, urgente, bucketChegada, indiceConsultorio);
+        (urgente ? esperaDiaUrgente : esperaDiaNaoUrgente).registra(espera);
+        if (analiseLotes != null) {
+            analiseLotes.registraEspera(espera, urgente);
+            verificaParada();
+        }
+    }
+
+    public void contaChegada()     { totalChegadas++; chegadasDia++; }
+    public long getTotalChegadas() { return totalChegadas; }
+
+    public ConfiguracaoHorizonte getHorizonte() { return horizonte; }
+
+    // Liga a medição de bytes alocados (o chamador faz inicia()/encerra() em volta do exp.start())
+    public void setPerfilAlocacao(PerfilAlocacao perfil) { this.perfilAlocacao = perfil; }
+
+    // Chamado por cada SimProcess ao terminar o lifeCycle (a thread dele pode morrer em seguida)
+    public void fimDeProcesso() {
+        if (perfilAlocacao != null) perfilAlocacao.registraThreadAtual();
+    }
+
+    // Liga o log binário de eventos (o chamador fecha o log depois do exp.finish())
+    public void setLogEventos(LogEventos log) { this.logEventos = log; }
+
+    // Id sequencial da chegada (identifica o paciente no log de eventos)
+    public int novoIdPaciente() { return proximoIdPaciente++; }
+
+    public void registraEvento(byte tipo, int idPaciente, int indiceConsultorio, boolean urgente) {
+        if (logEventos != null) {
+            logEventos.registra(tipo, idPaciente, indiceConsultorio, urgente, presentTime().getTimeAsDouble());
+        }
+        if (sonda != null) sonda.evento(presentTime().getTimeAsDouble());
+    }
+
+    public void setSonda(SondaModelo sonda) { this.sonda = sonda; }
+
+    // ======= Médias no tempo =======
+
+    // Nova ocupação da fila (i = consultório; no pool, 0)
+    protected void mudaFila(int i, boolean urgente, int tamanho) {
+        int[] aguardando = urgente ? aguardandoUrg : aguardandoNao;
+        aguardandoTotal += tamanho - aguardando[i];
+        aguardando[i] = tamanho;
+        (urgente ? filaUrgTempo : filaNaoTempo)[i].muda(presentTime().getTimeAsDouble(), tamanho);
+        if (sonda != null) sonda.fila(i, urgente, tamanho);
+        if (!modoFilaUnica) roteamento.mudou(i);
+    }
+
+    protected void mudaOcupacao(int i, boolean ocupado) {
+        ocupadoConsultorio[i] = ocupado;
+        ocupacaoTempo[i].muda(presentTime().getTimeAsDouble(), ocupado ? 1 : 0);
+        if (!modoFilaUnica) roteamento.mudou(i);
+    }
+
+    // Fila média (L_q) do consultório i por tipo até agora; no pool, i = 0 é a fila única
+    public double getFilaMedia(int i, boolean urgente) {
+        return (urgente ? filaUrgTempo : filaNaoTempo)[i].media(presentTime().getTimeAsDouble());
+    }
+
+    // Total médio aguardando em todas as filas
+    public double getFilaMediaTotal() {
+        double t = presentTime().getTimeAsDouble();
+        double soma = 0;
+        for (int i = 0; i < filaUrgTempo.length; i++) soma += filaUrgTempo[i].media(t) + filaNaoTempo[i].media(t);
+        return soma;
+    }
+
+    // Fração do tempo em que o consultório i esteve ocupado
+    public double getUtilizacao(int i) {
+        return ocupacaoTempo[i].media(presentTime().getTimeAsDouble());
+    }
+
+    public double getUtilizacaoMedia() {
+        double soma = 0;
+        for (int i = 0; i < numConsultorios; i++) soma += getUtilizacao(i);
+        return soma / numConsultorios;
+    }
+
+    // ======= Médias em lotes =======
+
+    // Liga a análise por médias em lotes; a rodada para sozinha quando a precisão é atingida
+    public void setAnaliseLotes(AnaliseLotes analise) { this.analiseLotes = analise; }
+
+    // Chamado na chegada, depois de o paciente entrar na fila
+    protected void observaFilaNaChegada() {
+        assert aguardandoTotal == contaAguardandoLinear() : "total aguardando divergiu das filas";
+        if (analiseLotes == null) return;
+        analiseLotes.registraFila(getAguardando() - 1); // sem contar o próprio paciente
+        verificaParada();
+    }
+
+    private void verificaParada() {
+        if (analiseLotes.atingiuPrecisao() && !paradaPorPrecisao) {
+            paradaPorPrecisao = true;
+            getExperiment().stop();
+        }
+    }
+
+    public boolean isParadaPorPrecisao() { return paradaPorPrecisao; }
+
+    // ======= Multi-dia =======
+
+    // Pacientes aguardando atendimento agora (todas as filas), mantido por mudaFila
+    public int getAguardando() {
+        assert aguardandoTotal == contaAguardandoLinear() : "total aguardando divergiu das filas";
+        return aguardandoTotal;
+    }
+
+    // Mesma contagem percorrendo as filas do motor (usada só pelo assert)
+    protected abstract int contaAguardandoLinear();
+
+    // ======= Roteamento e disciplina =======
+
+    // Antes do connectToExperiment; uma instância por modelo (a política pode guardar estado)
+    public void setRoteamento(Roteamento roteamento) { this.roteamento = roteamento; }
+
+    // Antes do connectToExperiment; substitui a escolha feita por prioridadeAtiva
+    public void setDisciplina(Disciplina disciplina) { this.disciplina = disciplina; }
+
+    // Consultório do paciente que acabou de chegar (filas separadas)
+    public int escolheConsultorio() { return roteamento.escolhe(this); }
+
+    // Consultório que atende o próximo do pool (fila única), -1 se todos ocupados ou fechados
+    protected int escolheServidorPool() {
+        int i = roteamento.despacha(this);
+        assert i < 0 || (!ocupadoConsultorio[i] && aberto[i]) : "despacho para consultório ocupado ou fechado: " + i;
+        return i;
+    }
+
+    // Só o roteamento por menor ETA consulta o índice de ETA; com os outros o motor não o mantém
+    protected boolean usaIndiceETA() { return !modoFilaUnica && roteamento instanceof Roteamento.MenorETA; }
+
+    // Urgente ou não urgente primeiro, com as duas filas não vazias
+    protected boolean urgentePrimeiro(double chegadaUrgente, double chegadaNaoUrgente) {
+        return disciplina.urgentePrimeiro(chegadaUrgente, chegadaNaoUrgente, presentTime().getTimeAsDouble());
+    }
+
+    // Tempo estimado até o consultório i atender quem entrar agora na fila dele
+    public abstract double estimaETA(int i);
+
+    // Consultório de menor ETA (menor índice no empate)
+    public abstract int consultorioMenorETA();
+
+    // Menor consultório livre e aberto, -1 se não houver
+    public abstract int primeiroLivre();
+
+    public int getNumConsultorios()      { return numConsultorios; }
+    public int getAguardandoFila(int i)  { return aguardandoUrg[i] + aguardandoNao[i]; }
+    public boolean isOcupado(int i)      { return ocupadoConsultorio[i]; }
+    // Consultório aberto ao acaso (qualquer um, com todos fechados): um sorteio, O(1)
+    public int sorteiaConsultorioAberto() {
+        int n = numAbertos > 0 ? numAbertos : numConsultorios;
+        int k = Math.min((int) (distConsultorio.sample() * n), n - 1);
+        return abertos[k];
+    }
+
+    // ======= Consultórios heterogêneos =======
+
+    // Fator de atendimento e turnos por consultório; antes do connectToExperiment (null = todos iguais)
+    public void setPlano(PlanoConsultorios plano) { this.plano = plano; }
+
+    public boolean isAberto(int i) { return aberto[i]; }
+    public int getNumAbertos()     { return numAbertos; }
+
+    // Chamado pelo doInitialSchedules dos motores; sem turnos, nenhum evento é agendado
+    protected void agendaTurnos() {
+        if (plano == null || !plano.temTurnos()) return;
+        eventoTurno = new EventoTurno(this, "Turnos_Consultorios", true);
+        eventoTurno.agendaProxima();
+    }
+
+    void mudaTurno(int i, boolean abre) {
+        if (aberto[i] == abre) return;
+        aberto[i] = abre;
+        // abre: troca com o primeiro fechado e o bloco dos abertos cresce; fecha: troca com o último aberto
+        int destino = abre ? numAbertos : numAbertos - 1;
+        int outro = abertos[destino];
+        abertos[posAberto[i]] = outro;
+        posAberto[outro] = posAberto[i];
+        abertos[destino] = i;
+        posAberto[i] = destino;
+        numAbertos += abre ? 1 : -1;
+        if (!modoFilaUnica) roteamento.mudou(i);
+        consultorioMudouTurno(i, abre);
+    }
+
+    // O consultório i abriu ou fechou: o motor atualiza seus índices e, ao abrir, começa atendimentos.
+    // Fechar não interrompe o atendimento em curso; quem esperava na fila vai para outro consultório aberto.
+    // Com todos fechados, a fila espera a reabertura.
+    protected abstract void consultorioMudouTurno(int i, boolean abre);
+
+    // Percorre as transições do plano, uma por disparo, e a cada virada de dia volta ao estado inicial;
+    // transições a partir do fim do dia de funcionamento são ignoradas
+    private class EventoTurno extends ExternalEvent {
+        private final double duracaoDia = horizonte.getDuracaoDia();
+        private int dia = 0;
+        private int k = 0; // próxima transição do dia; -1 = a próxima é a virada do dia
+
+        EventoTurno(Model owner, String name, boolean showInTrace) { super(owner, name, showInTrace); }
+
+        @Override
+        public void eventRoutine() {
+            if (k < 0) {
+                for (int i : plano.getComTurnos()) {
+                    if (i < numConsultorios) mudaTurno(i, plano.isAbertoNoInicio(i));
+                }
+                k = 0;
+            } else {
+                mudaTurno(plano.getConsultorio(k), plano.isAbertura(k));
+                k++;
+            }
+            agendaProxima();
+        }
+
+        void agendaProxima() {
+            while (k < plano.getNumTransicoes()
+                    && (plano.getConsultorio(k) >= numConsultorios || plano.getInstante(k) >= duracaoDia)) k++;
+            double t;
+            if (k < plano.getNumTransicoes()) {
+                t = dia * duracaoDia + plano.getInstante(k);
+            } else {
+                dia++;
+                k = -1;
+                t = dia * duracaoDia;
+            }
+            if (t < horizonte.getHorizonte()) schedule(new TimeSpan(t - presentTime().getTimeAsDouble()));
+        }
+    }
+
+    // Tira todos os pacientes das filas (quem está em atendimento termina normalmente); devolve quantos saíram
+    protected abstract int esvaziaFilas();
+
+    /**
+     * Fecha o dia {@code dia} (0 = primeiro): resume as métricas do dia, aplica a política de virada às filas
+     * e zera as métricas diárias. Chamado com a simulação parada no fim do dia.
+     * <p>
+     * Os picos, snapshots e histogramas por bucket dos buckets já fechados são descartados depois de ir para o
+     * {@link ResumoDia}, então a memória do modelo não cresce com o nº de dias; no fim da simulação
+     * {@link #getPicoHoraGlobal()} e a tabela hora a hora só têm os buckets ainda não fechados.
+     */
+    public ResumoDia fechaDia(int dia, PoliticaVirada politica) {
+        double porBucket = horizonte.getDuracaoDia() / horizonte.getDuracaoBucket();
+        int de = (int) (dia * porBucket);
+        int ate = Math.min(horizonte.getNumBuckets(), (int) Math.ceil((dia + 1) * porBucket));
+
+        int[] picos = (modoFilaUnica ? picoBucketPool : picoBucketPorConsultorio).maxPorBucket(de, ate);
+        int pico = 0;
+        for (int p : picos) pico = Math.max(pico, p);
+        boolean cumpriu = pico <= (modoFilaUnica ? 5 * numConsultorios : 5);
+
+        int aguardando = getAguardando();
+        int descartados = politica == PoliticaVirada.DESCARTA ? esvaziaFilas() : 0;
+        ResumoDia r = new ResumoDia(dia + 1, chegadasDia, esperaDiaUrgente, esperaDiaNaoUrgente,
+                picos, cumpriu, aguardando, descartados);
+
+        // um bucket que atravessa a virada continua no dia seguinte
+        int fechados = Math.min(horizonte.getNumBuckets(), (int) ((dia + 1) * porBucket));
+        picoBucketPorConsultorio.descartaAte(fechados);
+        picoBucketPool.descartaAte(fechados);
+        tabelaHoraAHora.descartaAte(fechados);
+        histogramasEspera.descartaBuckets(fechados);
+
+        esperaDiaUrgente = new HistogramaEspera();
+        esperaDiaNaoUrgente = new HistogramaEspera();
+        chegadasDia = 0;
+        return r;
+    }
+
+    public double getTempoMedioEsperaUrgente()    { return tempoEsperaUrgente.getMean(); }
+    public double getTempoMedioEsperaNaoUrgente() { return tempoEsperaNaoUrgente.getMean(); }
+    public HistogramasEspera getHistogramasEspera() { return histogramasEspera; }
+
+    // ======= Picos =======
+    // Uma fila só cresce na chegada, então o pico do bucket é o maior entre o tamanho na virada do bucket e os
+    // tamanhos logo depois de cada chegada nela: cada chegada custa O(1) e cada virada O(c).
+
+    // Bucket corrente: só compara com o fim dele (a virada vem do sampler, ou de uma chegada no mesmo instante)
+    protected int bucketAtual() {
+        double t = presentTime().getTimeAsDouble();
+        if (t >= fimBucketPicos) viraBucket(t);
+        return bucketPicos;
+    }
+
+    // Chamado pelo sampler no fim de cada bucket
+    protected void avancaBucketPicos() {
+        bucketAtual();
+    }
+
+    // Cada fila entra no novo bucket com o tamanho que tem agora
+    private void viraBucket(double t) {
+        int b = horizonte.bucket(t);
+        fimBucketPicos = b + 1 < horizonte.getNumBuckets() ? (b + 1) * horizonte.getDuracaoBucket() : Double.POSITIVE_INFINITY;
+        if (b == bucketPicos) return;
+        bucketPicos = b;
+        for (int i = 0; i < aguardandoUrg.length; i++) registraPico(b, i);
+    }
+
+    // Paciente entrou na fila i (no pool, 0): só o pico dela pode ter mudado
+    public void atualizaPicoFila(int i) {
+        registraPico(bucketAtual(), i);
+    }
+
+    private void registraPico(int b, int i) {
+        int aguardando = aguardandoUrg[i] + aguardandoNao[i];
+        if (modoFilaUnica) {
+            if (aguardando > picoPoolDia) picoPoolDia = aguardando;
+            picoBucketPool.max(b, 0, aguardando);
+        } else {
+            if (aguardando > picoFilaPorConsultorio[i]) picoFilaPorConsultorio[i] = aguardando;
+            picoBucketPorConsultorio.max(b, i, aguardando);
+        }
+    }
+
+    // Snapshot do fim do bucket b (tabela hora a hora)
+    protected void registraSnapshot(int b, int[] snap) {
+        for (int i = 0; i < snap.length; i++) tabelaHoraAHora.set(b, i, snap[i]);
+    }
+
+    public int[] getPicoFilaPorConsultorio() { return picoFilaPorConsultorio; }
+    public int   getPicoPoolDia()            { return picoPoolDia; }
+
+    // Picos por bucket (por hora no horizonte padrão), um valor por bucket do horizonte
+    public int[] getPicoHoraPool()           { return picoBucketPool.maxPorBucket(horizonte.getNumBuckets()); }
+
+    public int[] getPicoHoraGlobal() {
+        if (modoFilaUnica) {
+            // no pool, retornamos o pico do pool por bucket
+            return getPicoHoraPool();
+        }
+        return picoBucketPorConsultorio.maxPorBucket(horizonte.getNumBuckets());
+    }
+
+    public void printTabelaHoraAHora() {
+        System.out.print("Hora");
+        for (int i = 0; i < numConsultorios; i++) System.out.printf("\tC%02d", (i + 1));
+        System.out.println();
+        for (int b = 0; b < tabelaHoraAHora.getBuckets(); b++) {
+            long fim = Math.round((b + 1) * horizonte.getDuracaoBucket());
+            System.out.printf("%02d:%02d", fim / 60, fim % 60);
+            for (int i = 0; i < numConsultorios; i++) System.out.printf("\t%d", tabelaHoraAHora.get(b, i));
+            System.out.println();
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package org.example.model;
+
+import desmoj.core.simulator.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+
+//Variante orientada a eventos do ClinicaModel: sem SimProcess (sem thread/fiber por paciente).
+//Chegada, início e fim de atendimento são eventos; o paciente é só um registro leve nas filas.
+//Com a mesma semente produz as mesmas médias de espera e os mesmos picos do ClinicaModel.
+public class ClinicaModelEventos extends ClinicaModelBase {
+
+    // Registro leve de um paciente (no lugar do SimProcess Paciente)
+    static final class RegistroPaciente {
+        final int id;
+        final boolean urgente;
+        final double chegada;
+        final double servicoSorteado; // modo CRN: sorteado na chegada; NaN = sorteia no início do atendimento
+
+        RegistroPaciente(int id, boolean urgente, double chegada, double servicoSorteado) {
+            this.id = id;
+            this.urgente = urgente;
+            this.chegada = chegada;
+            this.servicoSorteado = servicoSorteado;
+        }
+    }
+
+    // Filas por consultório (modo filas separadas)
+    private ArrayDeque<RegistroPaciente>[] filaUrg = novasFilas(0);
+    private ArrayDeque<RegistroPaciente>[] filaNao = novasFilas(0);
+
+    // Filas (modo fila única)
+    private ArrayDeque<RegistroPaciente> filaUrgGlobal;
+    private ArrayDeque<RegistroPaciente> filaNaoGlobal;
+
+    // Estado dos consultórios
+    private boolean[] consultorioOcupado;
+    private RegistroPaciente[] emAtendimento; // paciente em atendimento por consultório (log de eventos)
+
+    // Eventos (reaproveitados: no máximo um agendado de cada por vez)
+    private EventoChegada eventoChegada;
+    private EventoFimAtendimento[] eventoFim; // um por consultório
+    private EventoHora eventoHora;
+
+    public ClinicaModelEventos(Model owner, String name, boolean showInReport, boolean showInTrace,
+                               int numConsultorios, boolean prioridadeAtiva, boolean modoFilaUnica,
+                               double[] fatorChegadaHora, Double meanNaoUrgenteOverride,
+                               ConfiguracaoHorizonte horizonte) {
+        super(owner, name, showInReport, showInTrace, numConsultorios, prioridadeAtiva, modoFilaUnica,
+                fatorChegadaHora, meanNaoUrgenteOverride, horizonte);
+    }
+
+    @Override
+    public void init() {
+        // Estado
+        consultorioOcupado = new boolean[numConsultorios];
+        Arrays.fill(consultorioOcupado, false);
+        emAtendimento = new RegistroPaciente[numConsultorios];
+
+        // Filas
+        if (modoFilaUnica) {
+            filaUrgGlobal = new ArrayDeque<>();
+            filaNaoGlobal = new ArrayDeque<>();
+        } else {
+            filaUrg = novasFilas(numConsultorios);
+            filaNao = novasFilas(numConsultorios);
+        }
+
+        initComum();
+
+        // Eventos
+        eventoChegada = new EventoChegada(this, "Chegada_Paciente", true);
+        eventoFim = new EventoFimAtendimento[numConsultorios];
+        for (int i = 0; i < numConsultorios; i++) {
+            eventoFim[i] = new EventoFimAtendimento(this, "Fim_Atendimento_C" + (i + 1), true, i);
+        }
+        eventoHora = new EventoHora(this, "Sampler_Hora", true);
+    }
+
+    @Override
+    public void doInitialSchedules() {
+        if (fonteChegadas == null) {
+            eventoChegada.schedule(new TimeSpan(0.0));
+        } else if (fonteChegadas.avanca() && fonteChegadas.getTempo() < horizonte.getHorizonte()) {
+            eventoChegada.schedule(new TimeSpan(Math.max(0.0, fonteChegadas.getTempo()))); // 1º registro
+        }
+        eventoHora.schedule(eventoHora.passo);
+        agendaTurnos();
+    }
+
+    // Java não cria array genérico: o cast fica só aqui
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArrayDeque<RegistroPaciente>[] novasFilas(int n) {
+        ArrayDeque<RegistroPaciente>[] filas = new ArrayDeque[n];
+        for (int i = 0; i < n; i++) filas[i] = new ArrayDeque<>();
+        return filas;
+    }
+
+    // ======= Chegada =======
+    private void chegada(RegistroPaciente p) {
+        if (modoFilaUnica) {
+            // entra no pool global
+            registraEvento(LogEventos.CHEGADA, p.id, -1, p.urgente);
+            ArrayDeque<RegistroPaciente> fila = p.urgente ? filaUrgGlobal : filaNaoGlobal;
+            fila.addLast(p);
+            mudaFila(0, p.urgente, fila.size());
+            atualizaPicoFila(0);
+            observaFilaNaChegada();
+
+            // despacha se houver servidor livre; senão aguarda
+            tentarDespacho();
+        } else {
+            // filas separadas: escolhe consultório pelo roteamento (padrão: menor ETA)
+            int i = escolheConsultorio();
+            registraEvento(LogEventos.CHEGADA, p.id, i, p.urgente);
+            ArrayDeque<RegistroPaciente> fila = p.urgente ? filaUrg[i] : filaNao[i];
+            fila.addLast(p);
+            mudaFila(i, p.urgente, fila.size());
+
+            // como no ClinicaModel, o paciente conta na fila no instante da chegada
+            atualizaPicoFila(i);
+            observaFilaNaChegada();
+
+            if (!consultorioOcupado[i] && isAberto(i) && pickProximo(i) == p) {
+                fila.removeLast();
+                mudaFila(i, p.urgente, fila.size());
+                iniciaAtendimento(i, p);
+            }
+        }
+    }
+
+    // ======= Atendimento =======
+    private void iniciaAtendimento(int i, RegistroPaciente p) {
+        consultorioOcupado[i] = true;
+        mudaOcupacao(i, true);
+        emAtendimento[i] = p;
+        registraEspera(presentTime().getTimeAsDouble() - p.chegada, p.urgente, i);
+        registraEvento(LogEventos.INICIO, p.id, i, p.urgente);
+
+        double serv = Double.isNaN(p.servicoSorteado) ? sampleTempoAtendimento(p.urgente) : p.servicoSorteado;
+        serv *= getFatorServico(i);
+        if (serv <= 0) serv = 0.1;
+        eventoFim[i].schedule(new TimeSpan(serv));
+    }
+
+    private void fimAtendimento(int i) {
+        // libera consultório
+        RegistroPaciente atendido = emAtendimento[i];
+        registraEvento(LogEventos.FIM, atendido.id, i, atendido.urgente);
+        emAtendimento[i] = null;
+        consultorioOcupado[i] = false;
+        mudaOcupacao(i, false);
+
+        if (modoFilaUnica) {
+            // após terminar, tenta despachar outro do pool
+            tentarDespacho();
+        } else if (isAberto(i)) {
+            atendeProximo(i); // fechado: a reabertura atende
+        }
+    }
+
+    // Atende o próximo da fila do consultório i (livre e aberto), se houver
+    private void atendeProximo(int i) {
+        RegistroPaciente proximo = pickProximo(i);
+        if (proximo != null) {
+            ArrayDeque<RegistroPaciente> fila = proximo.urgente ? filaUrg[i] : filaNao[i];
+            fila.removeFirst();
+            mudaFila(i, proximo.urgente, fila.size());
+            iniciaAtendimento(i, proximo);
+        }
+    }
+
+    @Override
+    protected void consultorioMudouTurno(int i, boolean abre) {
+        if (modoFilaUnica) {
+            if (abre) tentarDespacho(); // o pool não é de nenhum consultório: nada a mover ao fechar
+        } else if (abre) {
+            if (!consultorioOcupado[i]) atendeProximo(i);
+        } else {
+            redistribui(i); // quem está em atendimento termina; a fila vai para os abertos
+        }
+    }
+
+    // Mesma regra do ClinicaModel: reroteia a fila do consultório que fechou, na ordem da disciplina
+    private void redistribui(int i) {
+        if (getNumAbertos() == 0) return;
+        for (RegistroPaciente p = pickProximo(i); p != null; p = pickProximo(i)) {
+            int j = escolheConsultorio();
+            if (!isAberto(j)) break;
+            ArrayDeque<RegistroPaciente> origem = p.urgente ? filaUrg[i] : filaNao[i];
+            origem.removeFirst();
+            mudaFila(i, p.urgente, origem.size());
+            registraEvento(LogEventos.TRANSFERENCIA, p.id, j, p.urgente);
+            ArrayDeque<RegistroPaciente> destino = p.urgente ? filaUrg[j] : filaNao[j];
+            destino.addLast(p);
+            mudaFila(j, p.urgente, destino.size());
+            atualizaPicoFila(j);
+            if (!consultorioOcupado[j] && pickProximo(j) == p) {
+                destino.removeLast();
+                mudaFila(j, p.urgente, destino.size());
+                iniciaAtendimento(j, p);
+            }
+        }
+    }
+
+    // ======= Apoio de decisão (mesmas regras do ClinicaModel) =======
+    @Override
+    public double estimaETA(int i) {
+        double base = consultorioOcupado[i] ? mediaServicoMista() : 0.0;
+        double soma = filaUrg[i].size() * mediaServicoUrgente() + filaNao[i].size() * mediaServicoNaoUrgente();
+        double eta = (base + soma) * getFatorServico(i);
+        return isAberto(i) ? eta : eta + PENALIDADE_FECHADO;
+    }
+
+    // Varredura O(c), como o ClinicaModel fazia antes do heap
+    @Override
+    public int consultorioMenorETA() {
+        int escolhido = 0;
+        double melhorETA = estimaETA(0);
+        for (int i = 1; i < numConsultorios; i++) {
+            double eta = estimaETA(i);
+            if (eta < melhorETA) { melhorETA = eta; escolhido = i; }
+        }
+        return escolhido;
+    }
+
+    @Override
+    public int primeiroLivre() {
+        for (int i = 0; i < numConsultorios; i++) {
+            if (!consultorioOcupado[i] && isAberto(i)) return i;
+        }
+        return -1;
+    }
+
+    private RegistroPaciente pickProximo(int i) {
+        return escolhe(filaUrg[i], filaNao[i]);
+    }
+
+    private RegistroPaciente pickGlobal() {
+        return escolhe(filaUrgGlobal, filaNaoGlobal);
+    }
+
+    private RegistroPaciente escolhe(ArrayDeque<RegistroPaciente> urg, ArrayDeque<RegistroPaciente> nao) {
+        RegistroPaciente u = urg.peekFirst();
+        RegistroPaciente n = nao.peekFirst();
+        if (u == null) return n;
+        if (n == null) return u;
+        return urgentePrimeiro(u.chegada, n.chegada) ? u : n;
+    }
+
+    // Despacho (pool): o roteamento escolhe o consultório livre
+    private void tentarDespacho() {
+        while (true) {
+            RegistroPaciente proximo = pickGlobal();
+            if (proximo == null) break;
+            int i = escolheServidorPool();
+            if (i < 0) break;
+            ArrayDeque<RegistroPaciente> fila = proximo.urgente ? filaUrgGlobal : filaNaoGlobal;
+            fila.removeFirst();
+            mudaFila(0, proximo.urgente, fila.size());
+            iniciaAtendimento(i, proximo);
+        }
+    }
+
+    // ======= Multi-dia =======
+
+    @Override
+    protected int contaAguardandoLinear() {
+        if (modoFilaUnica) return filaUrgGlobal.size() + filaNaoGlobal.size();
+        int total = 0;
+        for (int i = 0; i < numConsultorios; i++) total += filaUrg[i].size() + filaNao[i].size();
+        return total;
+    }
+
+    @Override
+    protected int esvaziaFilas() {
+        int n = 0;
+        if (modoFilaUnica) {
+            n += descarta(filaUrgGlobal, -1, true);
+            n += descarta(filaNaoGlobal, -1, false);
+        } else {
+            for (int i = 0; i < numConsultorios; i++) {
+                n += descarta(filaUrg[i], i, true);
+                n += descarta(filaNao[i], i, false);
+            }
+        }
+        return n;
+    }
+
+    private int descarta(ArrayDeque<RegistroPaciente> fila, int i, boolean urgente) {
+        int n = fila.size();
+        for (RegistroPaciente p : fila) registraEvento(LogEventos.DESCARTE, p.id, i, p.urgente);
+        fila.clear();
+        mudaFila(Math.max(i, 0), urgente, 0);
+        return n;
+    }
+
+
+    // ======= Eventos =======
+
+    // Chegada: mesma sequência de sorteios do GeradorPacientes (tipo, depois interchegada)
+    private class EventoChegada extends ExternalEvent {
+        private final double fimSim = horizonte.getHorizonte(); // MESMO horizonte da simulação (600 min no padrão)
+
+        EventoChegada(Model owner, String name, boolean showInTrace) { super(owner, name, showInTrace); }
+
+        @Override
+        public void eventRoutine() {
+            double agora = presentTime().getTimeAsDouble();
+            if (agora >= fimSim) return;
+            if (fonteChegadas != null) {
+                chegadaRegistrada(agora);
+                return;
+            }
+
+            boolean urgente = sampleUrgente();
+            double inter = sampleInterChegada();
+            if (inter <= 0) inter = 0.1;
+            if (agora + inter < fimSim) schedule(new TimeSpan(inter));
+
+            contaChegada();
+            double servico = isServicoNaChegada() ? sampleTempoAtendimento(urgente) : Double.NaN;
+            chegada(new RegistroPaciente(novoIdPaciente(), urgente, agora, servico));
+        }
+
+        // Registro atual da fonte chega agora; agenda o próximo (atrasados entram na hora)
+        private void chegadaRegistrada(double agora) {
+            boolean urgente = fonteChegadas.isUrgente();
+            double servico = fonteChegadas.getServico();
+            if (Double.isNaN(servico) && isServicoNaChegada()) servico = sampleTempoAtendimento(urgente);
+            if (fonteChegadas.avanca() && fonteChegadas.getTempo() < fimSim) {
+                schedule(new TimeSpan(Math.max(0.0, fonteChegadas.getTempo() - agora)));
+            }
+
+            contaChegada();
+            chegada(new RegistroPaciente(novoIdPaciente(), urgente, agora, servico));
+        }
+    }
+
+    private class EventoFimAtendimento extends ExternalEvent {
+        private final int consultorio;
+
+        EventoFimAtendimento(Model owner, String name, boolean showInTrace, int consultorio) {
+            super(owner, name, showInTrace);
+            this.consultorio = consultorio;
+        }
+
+        @Override
+        public void eventRoutine() {
+            fimAtendimento(consultorio);
+        }
+    }
+
+    // Snapshot ao fim de cada bucket (equivalente ao SamplerHora)
+    private class EventoHora extends ExternalEvent {
+        private final TimeSpan passo = new TimeSpan(horizonte.getDuracaoBucket());
+        private int b = 0;
+
+        EventoHora(Model owner, String name, boolean showInTrace) { super(owner, name, showInTrace); }
+
+        @Override
+        public void eventRoutine() {
+            int[] snap = new int[numConsultorios];
+            if (modoFilaUnica) {
+                int totalPool = filaUrgGlobal.size() + filaNaoGlobal.size();
+                int porCons = (int)Math.ceil(totalPool / (double)numConsultorios);
+                Arrays.fill(snap, porCons);
+            } else {
+                for (int i = 0; i < numConsultorios; i++) {
+                    snap[i] = filaUrg[i].size() + filaNao[i].size();
+                }
+            }
+            avancaBucketPicos(); // as filas entram no próximo bucket com o tamanho atual
+            registraSnapshot(b, snap);
+
+            if (++b < horizonte.getNumBuckets()) schedule(passo); // a cada bucket até o fim do horizonte
+        }
+    }
+}
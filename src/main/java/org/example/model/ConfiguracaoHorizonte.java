@@ -0,0 +1,65 @@
+package org.example.model;
+
+/**
+ * Horizonte da simulação e granularidade dos buckets de tempo (picos e snapshots).
+ * O padrão é o dia típico da clínica: 600 min (10h) em buckets de 1h.
+ * O perfil de chegada (fatorChegadaHora) tem um fator por segmento do dia, de 60 min por padrão
+ * ({@link #comSegmentoChegada} muda), e se repete a cada {@code duracaoDia}, então semanas de operação são
+ * só um horizonte maior com a mesma duração de dia.
+ */
+public final class ConfiguracaoHorizonte {
+
+    public static final ConfiguracaoHorizonte PADRAO = new ConfiguracaoHorizonte(600.0, 60.0, 600.0);
+
+    private final double horizonte;      // min
+    private final double duracaoBucket;  // min
+    private final double duracaoDia;     // min de funcionamento por dia
+    private final double duracaoSegmentoChegada; // min por fator do perfil de chegada
+    private final int numBuckets;
+    private final int segmentosPorDia;
+
+    public ConfiguracaoHorizonte(double horizonte, double duracaoBucket, double duracaoDia) {
+        this(horizonte, duracaoBucket, duracaoDia, 60.0);
+    }
+
+    public ConfiguracaoHorizonte(double horizonte, double duracaoBucket, double duracaoDia, double duracaoSegmentoChegada) {
+        if (horizonte <= 0 || duracaoBucket <= 0 || duracaoDia <= 0 || duracaoSegmentoChegada <= 0) {
+            throw new IllegalArgumentException("horizonte, duracaoBucket, duracaoDia e duracaoSegmentoChegada devem ser positivos");
+        }
+        this.horizonte = horizonte;
+        this.duracaoBucket = duracaoBucket;
+        this.duracaoDia = duracaoDia;
+        this.duracaoSegmentoChegada = duracaoSegmentoChegada;
+        this.numBuckets = (int) Math.ceil(horizonte / duracaoBucket);
+        this.segmentosPorDia = (int) Math.ceil(duracaoDia / duracaoSegmentoChegada - 1e-9);
+    }
+
+    // Mesmo horizonte com outro segmento do perfil de chegada (ex.: 15 = um fator a cada 15 min)
+    public ConfiguracaoHorizonte comSegmentoChegada(double duracaoSegmentoChegada) {
+        return new ConfiguracaoHorizonte(horizonte, duracaoBucket, duracaoDia, duracaoSegmentoChegada);
+    }
+
+    // Ex.: dias(7, 15.0) = 7 dias de 600 min em buckets de 15 min
+    public static ConfiguracaoHorizonte dias(int dias, double duracaoBucket) {
+        return new ConfiguracaoHorizonte(dias * PADRAO.duracaoDia, duracaoBucket, PADRAO.duracaoDia);
+    }
+
+    public double getHorizonte()     { return horizonte; }
+    public double getDuracaoBucket() { return duracaoBucket; }
+    public double getDuracaoDia()    { return duracaoDia; }
+    public double getDuracaoSegmentoChegada() { return duracaoSegmentoChegada; }
+    public int    getNumBuckets()    { return numBuckets; }
+
+    // Bucket do instante t (limitado ao último bucket)
+    public int bucket(double t) {
+        int b = (int) (t / duracaoBucket);
+        return b < 0 ? 0 : (b >= numBuckets ? numBuckets - 1 : b);
+    }
+
+    // Segmento do dia (índice do perfil de chegada) do instante t
+    public int segmentoDoDia(double t) {
+        double noDia = t % duracaoDia;
+        int h = (int) (noDia / duracaoSegmentoChegada);
+        return h < 0 ? 0 : (h >= segmentosPorDia ? segmentosPorDia - 1 : h);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.model;
+
+/**
+ * Disciplina da fila: com urgentes e não urgentes esperando, quem é atendido primeiro. Só olha o primeiro de
+ * cada fila (O(1)), então serve aos dois motores e aos dois modos de fila.
+ */
+public interface Disciplina {
+
+    // true = atende o urgente da frente; só é chamada com as duas filas não vazias
+    boolean urgentePrimeiro(double chegadaUrgente, double chegadaNaoUrgente, double agora);
+
+    // Urgentes sempre antes (prioridade não preemptiva)
+    Disciplina PRIORIDADE = (u, n, agora) -> true;
+
+    // Ordem de chegada, sem olhar o tipo
+    Disciplina FIFO = (u, n, agora) -> u <= n;
+
+    /**
+     * Prioridade com envelhecimento: o não urgente que já espera há {@code limite} min passa a valer como
+     * urgente, e aí os dois seguem a ordem de chegada. Evita que os não urgentes esperem sem fim nos picos.
+     */
+    static Disciplina comEnvelhecimento(double limite) {
+        return (u, n, agora) -> agora - n < limite || u <= n;
+    }
+}
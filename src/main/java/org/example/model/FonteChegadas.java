@@ -0,0 +1,34 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Chegadas lidas de um registro histórico no lugar das distribuições (distChegadaBase / distTipoUrgente).
+ * <p>
+ * Um registro por vez: {@link #avanca()} lê o próximo e os getters devolvem o atual, sem alocar por chegada.
+ * Os tempos são minutos desde o início da simulação e não podem diminuir. Só é lido o que o relógio da
+ * simulação já pediu, então um registro de anos roda em memória constante.
+ */
+public interface FonteChegadas extends AutoCloseable {
+
+    // Lê o próximo registro; false no fim
+    boolean avanca();
+
+    double getTempo();
+
+    boolean isUrgente();
+
+    // Tempo de atendimento registrado; NaN = sorteado pelo modelo
+    double getServico();
+
+    @Override
+    void close();
+
+    // .clch = binário (FonteChegadasBinaria); qualquer outra extensão = CSV com tempo em minutos
+    static FonteChegadas abre(Path arquivo) throws IOException {
+        return arquivo.getFileName().toString().endsWith(FonteChegadasBinaria.EXTENSAO)
+                ? new FonteChegadasBinaria(arquivo)
+                : new FonteChegadasCsv(arquivo);
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Chegadas de um arquivo binário, lido por uma janela mapeada em memória que anda junto com o relógio da
+ * simulação (só a janela atual fica mapeada, qualquer que seja o tamanho do arquivo).
+ * <p>
+ * Formato: cabeçalho (MAGICO, VERSAO) seguido de registros fixos [tempo double][flags byte][servico double]
+ * em little-endian, flags = 1 se urgente; servico NaN = sorteado pelo modelo. Gerado a partir de qualquer
+ * fonte (ex.: um CSV) por {@link #converte}.
+ */
+public class FonteChegadasBinaria implements FonteChegadas {
+
+    public static final String EXTENSAO = ".clch";
+    public static final int MAGICO = 0x48434C43; // "CLCH"
+    public static final int VERSAO = 1;
+
+    static final int CABECALHO = 8;
+    static final int BYTES_POR_REGISTRO = 8 + 1 + 8;
+    private static final long JANELA = (16L << 20) / BYTES_POR_REGISTRO * BYTES_POR_REGISTRO;
+
+    private final FileChannel canal;
+    private final String nome;
+    private final long tamanho;
+    private MappedByteBuffer mapa;
+    private long posicao = CABECALHO; // próximo registro no arquivo
+
+    private double tempo = Double.NEGATIVE_INFINITY;
+    private boolean urgente;
+    private double servico;
+
+    public FonteChegadasBinaria(Path arquivo) throws IOException {
+        canal = FileChannel.open(arquivo, StandardOpenOption.READ);
+        nome = arquivo.getFileName().toString();
+        tamanho = canal.size();
+        ByteBuffer cab = ByteBuffer.allocate(CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+        canal.read(cab, 0);
+        cab.flip();
+        if (tamanho < CABECALHO || cab.getInt() != MAGICO) {
+            canal.close();
+            throw new IOException(arquivo + " não é um arquivo de chegadas " + EXTENSAO);
+        }
+        int versao = cab.getInt();
+        if (versao != VERSAO) {
+            canal.close();
+            throw new IOException(arquivo + ": versão " + versao + " não suportada");
+        }
+    }
+
+    @Override
+    public boolean avanca() {
+        if (posicao + BYTES_POR_REGISTRO > tamanho) return false;
+        if (mapa == null || !mapa.hasRemaining()) mapeia();
+        double t = mapa.getDouble();
+        // como no CSV: fora de ordem o gerador atenderia a chegada atrasada no instante atual, sem aviso
+        if (!(t >= tempo)) {
+            long registro = (posicao - CABECALHO) / BYTES_POR_REGISTRO + 1;
+            throw new IllegalArgumentException(nome + ": registro " + registro + ": tempo " + t
+                    + (Double.isNaN(t) ? " inválido" : " diminuiu (anterior " + tempo + "): o arquivo precisa estar em ordem"));
+        }
+        tempo = t;
+        urgente = (mapa.get() & 1) != 0;
+        servico = mapa.getDouble();
+        posicao += BYTES_POR_REGISTRO;
+        return true;
+    }
+
+    private void mapeia() {
+        try {
+            long n = Math.min(JANELA, (tamanho - posicao) / BYTES_POR_REGISTRO * BYTES_POR_REGISTRO);
+            mapa = canal.map(FileChannel.MapMode.READ_ONLY, posicao, n);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override public double getTempo()    { return tempo; }
+    @Override public boolean isUrgente()  { return urgente; }
+    @Override public double getServico()  { return servico; }
+
+    @Override
+    public void close() {
+        mapa = null;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Grava todas as chegadas da origem no formato binário; devolve o nº de registros
+    public static long converte(FonteChegadas origem, Path destino) throws IOException {
+        long n = 0;
+        try (FileChannel saida = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(4096 * BYTES_POR_REGISTRO).order(ByteOrder.LITTLE_ENDIAN);
+            b.putInt(MAGICO).putInt(VERSAO);
+            while (origem.avanca()) {
+                if (b.remaining() < BYTES_POR_REGISTRO) escreve(saida, b);
+                b.putDouble(origem.getTempo());
+                b.put((byte) (origem.isUrgente() ? 1 : 0));
+                b.putDouble(origem.getServico());
+                n++;
+            }
+            escreve(saida, b);
+        }
+        return n;
+    }
+
+    private static void escreve(FileChannel saida, ByteBuffer b) throws IOException {
+        b.flip();
+        while (b.hasRemaining()) saida.write(b);
+        b.clear();
+    }
+}
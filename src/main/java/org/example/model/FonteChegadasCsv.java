@@ -0,0 +1,140 @@
+package org.example.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Chegadas de um CSV {@code tempo,urgente[,servico]}, lido em fluxo (uma linha por chegada).
+ * <p>
+ * {@code tempo} é em minutos desde o início da simulação, ou data-hora ISO ({@code 2023-03-01T08:17})
+ * com {@link #comDataHora}: aí cada dia do calendário vira um dia simulado de {@code duracaoDia} minutos
+ * a partir da abertura, e chegadas fora do expediente são puladas. {@code urgente} aceita 1/0, true/false
+ * ou U/N. {@code servico} vazio ou ausente = sorteado pelo modelo. Linhas vazias, {@code #} e um
+ * cabeçalho na primeira linha (tempo que não é número nem data e começa por letra) são ignorados.
+ */
+public class FonteChegadasCsv implements FonteChegadas {
+
+    private final BufferedReader leitor;
+    private final String nome;
+    private long linha = 0;
+
+    // Só com data-hora
+    private final LocalDate primeiroDia;
+    private final LocalTime abertura;
+    private final double duracaoDia;
+    private long foraDoExpediente = 0;
+
+    private double tempo = Double.NEGATIVE_INFINITY;
+    private boolean urgente;
+    private double servico;
+
+    public FonteChegadasCsv(Path arquivo) throws IOException {
+        this(arquivo, null, null, 0);
+    }
+
+    private FonteChegadasCsv(Path arquivo, LocalDate primeiroDia, LocalTime abertura, double duracaoDia) throws IOException {
+        this.leitor = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8);
+        this.nome = arquivo.getFileName().toString();
+        this.primeiroDia = primeiroDia;
+        this.abertura = abertura;
+        this.duracaoDia = duracaoDia;
+    }
+
+    // Tempo em data-hora: primeiroDia às abertura = t 0; cada dia seguinte começa duracaoDia minutos depois
+    public static FonteChegadasCsv comDataHora(Path arquivo, LocalDate primeiroDia, LocalTime abertura,
+                                               double duracaoDia) throws IOException {
+        return new FonteChegadasCsv(arquivo, primeiroDia, abertura, duracaoDia);
+    }
+
+    public long getForaDoExpediente() { return foraDoExpediente; }
+
+    @Override
+    public boolean avanca() {
+        try {
+            String s;
+            while ((s = leitor.readLine()) != null) {
+                linha++;
+                s = s.trim();
+                if (s.isEmpty() || s.charAt(0) == '#') continue;
+                if (le(s)) return true;
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // false se a linha deve ser pulada (cabeçalho ou fora do expediente)
+    private boolean le(String s) {
+        int v1 = s.indexOf(',');
+        int v2 = v1 < 0 ? -1 : s.indexOf(',', v1 + 1);
+        if (v1 < 0) throw erro("esperado tempo,urgente[,servico]");
+        String campoTempo = s.substring(0, v1).trim();
+
+        double t;
+        try {
+            t = primeiroDia == null ? Double.parseDouble(campoTempo) : minutosSimulados(LocalDateTime.parse(campoTempo));
+        } catch (RuntimeException e) {
+            // cabeçalho: primeira linha cujo tempo não é número nem data e começa por letra (ex.: "tempo")
+            if (linha == 1 && !campoTempo.isEmpty() && Character.isLetter(campoTempo.charAt(0))) return false;
+            throw erro("tempo inválido '" + campoTempo + "'");
+        }
+        if (Double.isNaN(t)) {
+            if (primeiroDia == null) throw erro("tempo inválido '" + campoTempo + "'");
+            foraDoExpediente++;
+            return false;
+        }
+        if (t < tempo) throw erro("tempo diminuiu (" + t + " < " + tempo + "): o arquivo precisa estar em ordem");
+
+        urgente = urgente(s.substring(v1 + 1, v2 < 0 ? s.length() : v2).trim());
+        String campoServico = v2 < 0 ? "" : s.substring(v2 + 1).trim();
+        try {
+            servico = campoServico.isEmpty() ? Double.NaN : Double.parseDouble(campoServico);
+        } catch (NumberFormatException e) {
+            throw erro("tempo de atendimento inválido '" + campoServico + "'");
+        }
+        tempo = t;
+        return true;
+    }
+
+    // NaN fora do expediente
+    private double minutosSimulados(LocalDateTime dh) {
+        long dia = ChronoUnit.DAYS.between(primeiroDia, dh.toLocalDate());
+        double noDia = ChronoUnit.SECONDS.between(abertura, dh.toLocalTime()) / 60.0;
+        if (dia < 0 || noDia < 0 || noDia >= duracaoDia) return Double.NaN;
+        return dia * duracaoDia + noDia;
+    }
+
+    private boolean urgente(String v) {
+        switch (v) {
+            case "1": case "true": case "U": case "u": return true;
+            case "0": case "false": case "N": case "n": return false;
+            default: throw erro("urgente inválido '" + v + "' (use 1/0, true/false ou U/N)");
+        }
+    }
+
+    private IllegalArgumentException erro(String msg) {
+        return new IllegalArgumentException(nome + ":" + linha + ": " + msg);
+    }
+
+    @Override public double getTempo()    { return tempo; }
+    @Override public boolean isUrgente()  { return urgente; }
+    @Override public double getServico()  { return servico; }
+
+    @Override
+    public void close() {
+        try {
+            leitor.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
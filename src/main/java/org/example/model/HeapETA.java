@@ -0,0 +1,67 @@
+package org.example.model;
+
+/**
+ * Min-heap indexado dos consultórios por ETA. A posição de cada consultório no heap é rastreada,
+ * então mudar a ETA de um consultório custa O(log c) e consultar o menor custa O(1).
+ * Empates são desfeitos pelo menor índice, igual à varredura linear de escolherConsultorioETALinear.
+ */
+public class HeapETA {
+
+    private final double[] eta;   // eta[i] do consultório i
+    private final int[] heap;     // heap[k] = consultório na posição k
+    private final int[] pos;      // pos[i] = posição do consultório i no heap
+
+    public HeapETA(int numConsultorios) {
+        eta = new double[numConsultorios];
+        heap = new int[numConsultorios];
+        pos = new int[numConsultorios];
+        for (int i = 0; i < numConsultorios; i++) {
+            heap[i] = i;
+            pos[i] = i;
+        }
+    }
+
+    // Consultório com menor ETA (menor índice em caso de empate)
+    public int minimo() { return heap[0]; }
+
+    public double getETA(int i) { return eta[i]; }
+
+    public void atualiza(int i, double novaETA) {
+        double antiga = eta[i];
+        eta[i] = novaETA;
+        if (novaETA < antiga) sobe(pos[i]);
+        else if (novaETA > antiga) desce(pos[i]);
+    }
+
+    private boolean menor(int a, int b) {
+        return eta[a] < eta[b] || (eta[a] == eta[b] && a < b);
+    }
+
+    private void sobe(int k) {
+        while (k > 0) {
+            int pai = (k - 1) >>> 1;
+            if (!menor(heap[k], heap[pai])) break;
+            troca(k, pai);
+            k = pai;
+        }
+    }
+
+    private void desce(int k) {
+        int n = heap.length;
+        while (true) {
+            int esq = 2 * k + 1;
+            if (esq >= n) break;
+            int dir = esq + 1;
+            int filho = (dir < n && menor(heap[dir], heap[esq])) ? dir : esq;
+            if (!menor(heap[filho], heap[k])) break;
+            troca(k, filho);
+            k = filho;
+        }
+    }
+
+    private void troca(int a, int b) {
+        int ca = heap[a], cb = heap[b];
+        heap[a] = cb; pos[cb] = a;
+        heap[b] = ca; pos[ca] = b;
+    }
+}
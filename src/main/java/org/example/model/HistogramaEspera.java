@@ -0,0 +1,110 @@
+package org.example.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histograma log-linear (estilo HDR) de tempos de espera, para percentis sem guardar as amostras.
+ * <p>
+ * Os valores são contados em unidades de {@link #RESOLUCAO} min. Até 2^PRECISAO_BITS unidades cada valor
+ * tem seu próprio balde; acima disso cada potência de 2 é dividida em 2^(PRECISAO_BITS-1) baldes, então o
+ * erro relativo de um percentil fica abaixo de 2^(1-PRECISAO_BITS) (~1,6%). O vetor de contagens só cresce
+ * até o balde do maior valor visto e tem tamanho máximo fixo. Dois histogramas se somam com {@link #junta},
+ * o que permite percentis sobre milhares de replicações.
+ */
+public class HistogramaEspera {
+
+    public static final double RESOLUCAO = 0.01; // min
+    static final int PRECISAO_BITS = 7;
+    private static final int LINEAR = 1 << PRECISAO_BITS;        // baldes exatos [0, LINEAR)
+    private static final int POR_OITAVA = LINEAR >>> 1;          // baldes por potência de 2 acima disso
+    private static final long MAX_UNIDADES = (1L << 40) - 1;      // ~20 anos em centésimos de minuto
+
+    private long[] contagens = new long[0];
+    private long total = 0;
+    private double soma = 0;
+    private double maximo = 0;
+
+    public void registra(double minutos) {
+        if (!(minutos > 0)) minutos = 0; // também trata NaN
+        long u = Math.min(MAX_UNIDADES, Math.round(minutos / RESOLUCAO));
+        int k = indice(u);
+        if (k >= contagens.length) contagens = Arrays.copyOf(contagens, Math.max(k + 1, contagens.length + POR_OITAVA));
+        contagens[k]++;
+        total++;
+        soma += minutos;
+        if (minutos > maximo) maximo = minutos;
+    }
+
+    // Soma as contagens de outro histograma neste
+    public void junta(HistogramaEspera outro) {
+        if (outro.contagens.length > contagens.length) contagens = Arrays.copyOf(contagens, outro.contagens.length);
+        for (int k = 0; k < outro.contagens.length; k++) contagens[k] += outro.contagens[k];
+        total += outro.total;
+        soma += outro.soma;
+        maximo = Math.max(maximo, outro.maximo);
+    }
+
+    // Formato compacto para o cache de resultados: só os baldes não vazios
+    public void escreve(DataOutput out) throws IOException {
+        out.writeLong(total);
+        out.writeDouble(soma);
+        out.writeDouble(maximo);
+        out.writeInt(contagens.length);
+        int naoVazios = 0;
+        for (long c : contagens) if (c != 0) naoVazios++;
+        out.writeInt(naoVazios);
+        for (int k = 0; k < contagens.length; k++) {
+            if (contagens[k] != 0) { out.writeInt(k); out.writeLong(contagens[k]); }
+        }
+    }
+
+    public static HistogramaEspera le(DataInput in) throws IOException {
+        HistogramaEspera h = new HistogramaEspera();
+        h.total = in.readLong();
+        h.soma = in.readDouble();
+        h.maximo = in.readDouble();
+        h.contagens = new long[in.readInt()];
+        for (int n = in.readInt(); n > 0; n--) {
+            int k = in.readInt();
+            h.contagens[k] = in.readLong();
+        }
+        return h;
+    }
+
+    public long getTotal()    { return total; }
+    public double getMedia()  { return total == 0 ? Double.NaN : soma / total; }
+    public double getMaximo() { return maximo; }
+
+    /**
+     * Quantil q (0..1) pelo ponto médio do balde que contém a posição ceil(q·total).
+     * NaN se vazio.
+     */
+    public double quantil(double q) {
+        if (total == 0) return Double.NaN;
+        long alvo = Math.max(1, (long) Math.ceil(q * total));
+        long acumulado = 0;
+        for (int k = 0; k < contagens.length; k++) {
+            acumulado += contagens[k];
+            if (acumulado >= alvo) return Math.min(maximo, pontoMedio(k) * RESOLUCAO);
+        }
+        return maximo;
+    }
+
+    static int indice(long u) {
+        if (u < LINEAR) return (int) u;
+        int e = 63 - Long.numberOfLeadingZeros(u) - PRECISAO_BITS + 1; // u >> e fica em [POR_OITAVA, LINEAR)
+        return LINEAR + (e - 1) * POR_OITAVA + (int) ((u >>> e) - POR_OITAVA);
+    }
+
+    // Valor (em unidades) no meio do balde k
+    static double pontoMedio(int k) {
+        if (k < LINEAR) return k;
+        int e = (k - LINEAR) / POR_OITAVA + 1;
+        long mantissa = (k - LINEAR) % POR_OITAVA + POR_OITAVA;
+        long inicio = mantissa << e;
+        return inicio + ((1L << e) - 1) / 2.0;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histogramas de espera de uma replicação (ou de várias, somadas): por tipo de paciente, por bucket de
+ * chegada e por consultório. Índice de tipo: 0 = não urgente, 1 = urgente. Os histogramas por bucket e por
+ * consultório só são criados quando recebem a primeira amostra; os por bucket podem ser descartados depois
+ * que o bucket fecha (multi-dia), e esperas que chegam depois para um bucket descartado só entram por tipo
+ * e por consultório.
+ */
+public class HistogramasEspera {
+
+    public static final int NAO_URGENTE = 0;
+    public static final int URGENTE = 1;
+
+    private final HistogramaEspera[] porTipo = { new HistogramaEspera(), new HistogramaEspera() };
+    private HistogramaEspera[][] porBucket;      // [tipo][bucket]
+    private HistogramaEspera[][] porConsultorio; // [tipo][consultorio]
+    private int bucketsDescartados = 0;            // buckets [0, bucketsDescartados) já descartados
+
+    public HistogramasEspera(int numBuckets, int numConsultorios) {
+        porBucket = new HistogramaEspera[2][numBuckets];
+        porConsultorio = new HistogramaEspera[2][numConsultorios];
+    }
+
+    public void registra(double espera, boolean urgente, int bucketChegada, int indiceConsultorio) {
+        int t = urgente ? URGENTE : NAO_URGENTE;
+        porTipo[t].registra(espera);
+        if (bucketChegada >= bucketsDescartados) obtem(porBucket[t], bucketChegada).registra(espera);
+        obtem(porConsultorio[t], indiceConsultorio).registra(espera);
+    }
+
+    public HistogramaEspera porTipo(boolean urgente) {
+        return porTipo[urgente ? URGENTE : NAO_URGENTE];
+    }
+
+    // Vazio (não null) se o bucket/consultório não recebeu amostras
+    public HistogramaEspera porBucket(boolean urgente, int bucket) {
+        HistogramaEspera h = porBucket[urgente ? URGENTE : NAO_URGENTE][bucket];
+        return h != null ? h : new HistogramaEspera();
+    }
+
+    public HistogramaEspera porConsultorio(boolean urgente, int consultorio) {
+        HistogramaEspera h = porConsultorio[urgente ? URGENTE : NAO_URGENTE][consultorio];
+        return h != null ? h : new HistogramaEspera();
+    }
+
+    // Libera os histogramas dos buckets antes de {@code bucket}
+    public void descartaBuckets(int bucket) {
+        for (int t = 0; t < 2; t++) Arrays.fill(porBucket[t], bucketsDescartados, Math.min(bucket, porBucket[t].length), null);
+        bucketsDescartados = Math.max(bucketsDescartados, bucket);
+    }
+
+    public int getNumBuckets()      { return porBucket[0].length; }
+    public int getNumConsultorios() { return porConsultorio[0].length; }
+
+    // Soma outra replicação nesta (dimensões diferentes são estendidas)
+    public void junta(HistogramasEspera outro) {
+        for (int t = 0; t < 2; t++) {
+            porTipo[t].junta(outro.porTipo[t]);
+            porBucket[t] = junta(porBucket[t], outro.porBucket[t]);
+            porConsultorio[t] = junta(porConsultorio[t], outro.porConsultorio[t]);
+        }
+    }
+
+    public void escreve(DataOutput out) throws IOException {
+        out.writeInt(getNumBuckets());
+        out.writeInt(getNumConsultorios());
+        for (int t = 0; t < 2; t++) {
+            porTipo[t].escreve(out);
+            escreve(out, porBucket[t]);
+            escreve(out, porConsultorio[t]);
+        }
+    }
+
+    public static HistogramasEspera le(DataInput in) throws IOException {
+        HistogramasEspera h = new HistogramasEspera(in.readInt(), in.readInt());
+        for (int t = 0; t < 2; t++) {
+            h.porTipo[t] = HistogramaEspera.le(in);
+            le(in, h.porBucket[t]);
+            le(in, h.porConsultorio[t]);
+        }
+        return h;
+    }
+
+    private static void escreve(DataOutput out, HistogramaEspera[] vet) throws IOException {
+        for (HistogramaEspera h : vet) {
+            out.writeBoolean(h != null);
+            if (h != null) h.escreve(out);
+        }
+    }
+
+    private static void le(DataInput in, HistogramaEspera[] vet) throws IOException {
+        for (int k = 0; k < vet.length; k++) {
+            if (in.readBoolean()) vet[k] = HistogramaEspera.le(in);
+        }
+    }
+
+    private static HistogramaEspera[] junta(HistogramaEspera[] destino, HistogramaEspera[] origem) {
+        if (origem.length > destino.length) destino = Arrays.copyOf(destino, origem.length);
+        for (int k = 0; k < origem.length; k++) {
+            if (origem[k] != null) obtem(destino, k).junta(origem[k]);
+        }
+        return destino;
+    }
+
+    private static HistogramaEspera obtem(HistogramaEspera[] vet, int k) {
+        HistogramaEspera h = vet[k];
+        if (h == null) vet[k] = h = new HistogramaEspera();
+        return h;
+    }
+}
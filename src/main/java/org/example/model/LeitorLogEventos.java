@@ -0,0 +1,130 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Leitura offline do arquivo gerado por {@link LogEventos}: percorre os eventos na ordem em que foram
+ * gravados e reconstrói as esperas (início - chegada) de cada paciente, separadas por tipo.
+ * <p>
+ * O arquivo é mapeado em janelas, como na escrita, então logs de qualquer tamanho são lidos com memória
+ * constante. Um bloco com n = 0 é o fim do log: é o resto zerado da última janela quando a gravação foi
+ * interrompida antes do close (que trunca o arquivo).
+ */
+public class LeitorLogEventos {
+
+    public interface Visitante {
+        void evento(byte tipo, int idPaciente, int indiceConsultorio, boolean urgente, double tempo);
+    }
+
+    // Esperas reconstruídas, na ordem de início de atendimento
+    public static class Esperas {
+        public final double[] urgente;
+        public final double[] naoUrgente;
+
+        Esperas(double[] urgente, double[] naoUrgente) {
+            this.urgente = urgente;
+            this.naoUrgente = naoUrgente;
+        }
+
+        public static double media(double[] xs) {
+            if (xs.length == 0) return Double.NaN;
+            double s = 0;
+            for (double x : xs) s += x;
+            return s / xs.length;
+        }
+    }
+
+    private final Path arquivo;
+
+    public LeitorLogEventos(Path arquivo) {
+        this.arquivo = arquivo;
+    }
+
+    public void percorre(Visitante v) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            long inicio = 0; // posição do arquivo onde começa a janela
+            MappedByteBuffer buf = janela(canal, inicio, tamanho);
+            if (buf.remaining() < LogEventos.CABECALHO || buf.getInt() != LogEventos.MAGICO) {
+                throw new IOException("Não é um log de eventos: " + arquivo);
+            }
+            int versao = buf.getInt();
+            if (versao != LogEventos.VERSAO) throw new IOException("Versão de log não suportada: " + versao);
+
+            double[] tempo = new double[LogEventos.EVENTOS_POR_BLOCO];
+            int[] paciente = new int[LogEventos.EVENTOS_POR_BLOCO];
+            short[] consultorio = new short[LogEventos.EVENTOS_POR_BLOCO];
+            byte[] flags = new byte[LogEventos.EVENTOS_POR_BLOCO];
+
+            while (tamanho - (inicio + buf.position()) >= 4) {
+                // o bloco seguinte pode não caber no resto da janela: remapeia a partir dele
+                if (buf.remaining() < LogEventos.MAX_BLOCO && inicio + buf.limit() < tamanho) {
+                    inicio += buf.position();
+                    buf = janela(canal, inicio, tamanho);
+                }
+                int n = buf.getInt();
+                if (n == 0) break; // resto zerado de uma gravação interrompida
+                if (n < 0 || n > LogEventos.EVENTOS_POR_BLOCO
+                        || buf.remaining() < (long) n * LogEventos.BYTES_POR_EVENTO) {
+                    throw new IOException("Bloco corrompido em " + (inicio + buf.position() - 4) + ": " + arquivo);
+                }
+                buf.asDoubleBuffer().get(tempo, 0, n);
+                buf.position(buf.position() + n * 8);
+                buf.asIntBuffer().get(paciente, 0, n);
+                buf.position(buf.position() + n * 4);
+                buf.asShortBuffer().get(consultorio, 0, n);
+                buf.position(buf.position() + n * 2);
+                buf.get(flags, 0, n);
+
+                for (int k = 0; k < n; k++) {
+                    byte tipo = (byte) (flags[k] & ~LogEventos.FLAG_URGENTE);
+                    boolean urgente = (flags[k] & LogEventos.FLAG_URGENTE) != 0;
+                    v.evento(tipo, paciente[k], consultorio[k], urgente, tempo[k]);
+                }
+            }
+        }
+    }
+
+    private static MappedByteBuffer janela(FileChannel canal, long inicio, long tamanho) throws IOException {
+        MappedByteBuffer buf = canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(LogEventos.JANELA, tamanho - inicio));
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        return buf;
+    }
+
+    // Espera de cada paciente que começou a ser atendido (ids são sequenciais por replicação)
+    public Esperas esperas() throws IOException {
+        Reconstrutor r = new Reconstrutor();
+        percorre(r);
+        return new Esperas(Arrays.copyOf(r.urg, r.nUrg), Arrays.copyOf(r.nao, r.nNao));
+    }
+
+    private static class Reconstrutor implements Visitante {
+        double[] chegada = new double[1024]; // chegada[id]
+        double[] urg = new double[256];
+        double[] nao = new double[256];
+        int nUrg = 0, nNao = 0;
+
+        @Override
+        public void evento(byte tipo, int id, int indiceConsultorio, boolean urgente, double t) {
+            if (tipo == LogEventos.CHEGADA) {
+                if (id >= chegada.length) chegada = Arrays.copyOf(chegada, Math.max(id + 1, chegada.length * 2));
+                chegada[id] = t;
+            } else if (tipo == LogEventos.INICIO) {
+                double espera = t - chegada[id];
+                if (urgente) {
+                    if (nUrg == urg.length) urg = Arrays.copyOf(urg, nUrg * 2);
+                    urg[nUrg++] = espera;
+                } else {
+                    if (nNao == nao.length) nao = Arrays.copyOf(nao, nNao * 2);
+                    nao[nNao++] = espera;
+                }
+            }
+        }
+    }
+}
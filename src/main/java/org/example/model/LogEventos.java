@@ -0,0 +1,110 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Log binário de eventos por paciente (chegada, início e fim de atendimento, transferência), bem mais
+ * barato que o trace/debug do DESMO-J. Os eventos ficam num bloco em memória, guardado coluna a coluna
+ * (tempo, paciente, consultório, tipo); quando o bloco enche ele é copiado para uma janela mapeada
+ * do arquivo, que só cresce. Lido de volta por {@link LeitorLogEventos}.
+ * <p>
+ * Formato: cabeçalho (MAGICO, VERSAO) seguido de blocos [n][tempo double × n][paciente int × n]
+ * [consultório short × n][flags byte × n], em little-endian. Flags = tipo | (urgente ? 0x80 : 0).
+ * <p>
+ * Não é thread-safe: um log por replicação.
+ */
+public class LogEventos implements AutoCloseable {
+
+    public static final int MAGICO = 0x56454C43; // "CLEV"
+    public static final int VERSAO = 1;
+
+    public static final byte CHEGADA = 0;
+    public static final byte INICIO = 1;
+    public static final byte FIM = 2;
+    public static final byte DESCARTE = 3; // removido da fila na virada do dia (multi-dia)
+    public static final byte TRANSFERENCIA = 4; // consultório fechou: passa para a fila do consultório registrado
+    static final int FLAG_URGENTE = 0x80;
+
+    static final int CABECALHO = 8;
+    static final int EVENTOS_POR_BLOCO = 4096;
+    static final int BYTES_POR_EVENTO = 8 + 4 + 2 + 1;
+    static final long JANELA = 16L << 20; // bytes mapeados por vez (também na leitura)
+    static final int MAX_BLOCO = 4 + EVENTOS_POR_BLOCO * BYTES_POR_EVENTO;
+
+    private final FileChannel canal;
+    private MappedByteBuffer mapa;
+    private long inicioMapa;  // posição do arquivo onde começa a janela mapeada
+    private long posicao;     // bytes escritos no arquivo
+
+    // Bloco atual, por coluna
+    private final double[] tempo = new double[EVENTOS_POR_BLOCO];
+    private final int[] paciente = new int[EVENTOS_POR_BLOCO];
+    private final short[] consultorio = new short[EVENTOS_POR_BLOCO];
+    private final byte[] flags = new byte[EVENTOS_POR_BLOCO];
+    private int n = 0;
+    private long totalEventos = 0;
+
+    public LogEventos(Path arquivo) throws IOException {
+        canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapeia(0);
+        mapa.putInt(MAGICO);
+        mapa.putInt(VERSAO);
+        posicao = CABECALHO;
+    }
+
+    // consultorio = -1 quando ainda não há consultório (chegada no pool)
+    public void registra(byte tipo, int idPaciente, int indiceConsultorio, boolean urgente, double t) {
+        tempo[n] = t;
+        paciente[n] = idPaciente;
+        consultorio[n] = (short) indiceConsultorio;
+        flags[n] = (byte) (urgente ? tipo | FLAG_URGENTE : tipo);
+        totalEventos++;
+        if (++n == EVENTOS_POR_BLOCO) descarrega();
+    }
+
+    public long getTotalEventos() { return totalEventos; }
+
+    private void descarrega() {
+        if (n == 0) return;
+        long tamanho = 4L + (long) n * BYTES_POR_EVENTO;
+        if (posicao + tamanho > inicioMapa + mapa.capacity()) mapeia(posicao);
+
+        mapa.putInt(n);
+        mapa.asDoubleBuffer().put(tempo, 0, n);
+        mapa.position(mapa.position() + n * 8);
+        mapa.asIntBuffer().put(paciente, 0, n);
+        mapa.position(mapa.position() + n * 4);
+        mapa.asShortBuffer().put(consultorio, 0, n);
+        mapa.position(mapa.position() + n * 2);
+        mapa.put(flags, 0, n);
+
+        posicao += tamanho;
+        n = 0;
+    }
+
+    private void mapeia(long inicio) {
+        try {
+            inicioMapa = inicio;
+            mapa = canal.map(FileChannel.MapMode.READ_WRITE, inicio, JANELA);
+            mapa.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        descarrega();
+        mapa.force();
+        mapa = null;
+        canal.truncate(posicao); // descarta o resto da última janela
+        canal.close();
+    }
+}
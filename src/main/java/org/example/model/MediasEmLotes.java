@@ -0,0 +1,130 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Estimador por médias em lotes (batch means) de uma série de uma única rodada longa, com descarte
+ * automático do aquecimento pela regra MSER.
+ * <p>
+ * As observações são agrupadas em mini-lotes de {@code tamanhoLote} (5 no início, como no MSER-5); só as
+ * médias dos mini-lotes são guardadas. Quando o vetor enche, mini-lotes vizinhos são juntados dois a dois
+ * e o tamanho dobra, então a memória é fixa qualquer que seja o horizonte.
+ */
+public class MediasEmLotes {
+
+    private static final int MAX_MINI_LOTES = 4096;
+
+    private double[] lotes = new double[256]; // médias dos mini-lotes completos
+    private int nLotes = 0;
+    private int tamanhoLote = 5;
+    private double somaAtual = 0;
+    private int nAtual = 0;
+    private long total = 0;
+
+    // Resultado de uma estimativa
+    public static class Estimativa {
+        public final double media;
+        public final double meiaLargura;         // NaN se não há lotes suficientes
+        public final long descartadas;           // observações descartadas como aquecimento (MSER)
+        public final int lotes;                  // lotes usados no intervalo
+        public final long observacoesPorLote;
+
+        Estimativa(double media, double meiaLargura, long descartadas, int lotes, long observacoesPorLote) {
+            this.media = media;
+            this.meiaLargura = meiaLargura;
+            this.descartadas = descartadas;
+            this.lotes = lotes;
+            this.observacoesPorLote = observacoesPorLote;
+        }
+
+        // Meia largura ≤ precisão relativa × |média| (ou zero, quando a série é constante)
+        public boolean atinge(double precisaoRelativa) {
+            return !Double.isNaN(meiaLargura) && (meiaLargura == 0 || meiaLargura <= precisaoRelativa * Math.abs(media));
+        }
+    }
+
+    public void registra(double x) {
+        total++;
+        somaAtual += x;
+        if (++nAtual < tamanhoLote) return;
+        if (nLotes == MAX_MINI_LOTES) {
+            compacta();
+            if (nAtual < tamanhoLote) return; // o mini-lote atual agora precisa do dobro de observações
+        }
+        if (nLotes == lotes.length) lotes = Arrays.copyOf(lotes, nLotes * 2);
+        lotes[nLotes++] = somaAtual / nAtual;
+        somaAtual = 0;
+        nAtual = 0;
+    }
+
+    public long getTotal()    { return total; }
+    public int getMiniLotes() { return nLotes; }
+
+    // Junta os mini-lotes dois a dois (o tamanho dobra; MAX_MINI_LOTES é par)
+    private void compacta() {
+        int n = nLotes / 2;
+        for (int j = 0; j < n; j++) lotes[j] = (lotes[2 * j] + lotes[2 * j + 1]) / 2;
+        nLotes = n;
+        tamanhoLote *= 2;
+    }
+
+    /**
+     * Ponto de truncamento MSER em mini-lotes: o d que minimiza a variância da média dos mini-lotes que
+     * sobram, Σ(Z_j - Z̄_d)² / (n - d)², para d até metade da série.
+     */
+    public int truncamentoMSER() {
+        int n = nLotes;
+        if (n < 2) return 0;
+        double s1 = 0, s2 = 0;
+        double melhor = Double.POSITIVE_INFINITY;
+        int melhorD = 0;
+        // percorre d de n-1 até 0 acumulando os sufixos
+        for (int d = n - 1; d >= 0; d--) {
+            s1 += lotes[d];
+            s2 += lotes[d] * lotes[d];
+            int m = n - d;
+            if (d > n / 2 || m < 2) continue;
+            double mser = (s2 - s1 * s1 / m) / ((double) m * m);
+            if (mser <= melhor) { melhor = mser; melhorD = d; }
+        }
+        return melhorD;
+    }
+
+    /**
+     * Média e meia largura do IC após descartar o aquecimento: os mini-lotes restantes são agrupados em
+     * {@code numLotes} lotes iguais (sobras no começo também são descartadas) e o IC usa t de Student.
+     */
+    public Estimativa estima(int numLotes, double z) {
+        int d = truncamentoMSER();
+        int m = nLotes - d;
+        int porLote = m / numLotes;
+        if (porLote == 0) {
+            double s = 0;
+            for (int j = d; j < nLotes; j++) s += lotes[j];
+            return new Estimativa(m > 0 ? s / m : Double.NaN, Double.NaN, (long) d * tamanhoLote, 0, tamanhoLote);
+        }
+        int inicio = nLotes - porLote * numLotes;
+
+        double soma = 0, soma2 = 0;
+        for (int k = 0; k < numLotes; k++) {
+            double y = 0;
+            for (int j = inicio + k * porLote, fim = j + porLote; j < fim; j++) y += lotes[j];
+            y /= porLote;
+            soma += y;
+            soma2 += y * y;
+        }
+        double media = soma / numLotes;
+        double var = Math.max(0, (soma2 - numLotes * media * media) / (numLotes - 1));
+        double meia = quantilT(z, numLotes - 1) * Math.sqrt(var / numLotes);
+        return new Estimativa(media, meia, (long) inicio * tamanhoLote, numLotes, (long) porLote * tamanhoLote);
+    }
+
+    // Quantil t de Student a partir do quantil normal z (expansão de Cornish-Fisher)
+    static double quantilT(double z, int gl) {
+        double z3 = z * z * z, z5 = z3 * z * z, z7 = z5 * z * z;
+        double v = gl;
+        return z + (z3 + z) / (4 * v)
+                + (5 * z5 + 16 * z3 + 3 * z) / (96 * v * v)
+                + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * v * v * v);
+    }
+}
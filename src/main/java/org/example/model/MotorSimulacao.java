@@ -0,0 +1,7 @@
+package org.example.model;
+
+//Como os pacientes são simulados: um SimProcess por paciente (ClinicaModel) ou só eventos (ClinicaModelEventos)
+public enum MotorSimulacao {
+    PROCESSOS,
+    EVENTOS
+}
@@ -1,7 +1,6 @@
 package org.example.model;
 
 import co.paralleluniverse.fibers.SuspendExecution;
-import desmoj.core.simulator.ProcessQueue;
 import desmoj.core.simulator.SimProcess;
 import desmoj.core.simulator.TimeSpan;
 
@@ -9,10 +8,14 @@ import desmoj.core.simulator.TimeSpan;
 public class Paciente extends SimProcess {
 
     private final ClinicaModel model;
-    private final boolean urgente;
+    private boolean urgente;
+    private int id;                     // id sequencial da chegada (log de eventos)
     private int indiceConsultorio = -1; // no pool, atribuído no despacho
     private double tempoChegada;
     private double chegada;
+    private double servicoSorteado = Double.NaN; // modo CRN: tempo de atendimento sorteado na chegada
+    double servicoRegistrado = Double.NaN;       // chegada de registro histórico com atendimento conhecido
+    private boolean descartado = false;          // tirado da fila na virada do dia (multi-dia)
 
     public Paciente(ClinicaModel owner, String name, boolean showInTrace, boolean urgente) {
         super(owner, name, showInTrace);
@@ -23,66 +26,99 @@ public class Paciente extends SimProcess {
     public boolean isUrgente() { return urgente; }
     public double getChegada() { return chegada; }
     public void setIndiceConsultorio(int i) { this.indiceConsultorio = i; }
+    public int getIndiceConsultorio() { return indiceConsultorio; }
+    int getId() { return id; }
+
+    // Reaproveitamento (reciclagem): o mesmo processo volta como uma nova chegada
+    void reinicia(boolean urgente) {
+        this.urgente = urgente;
+        this.indiceConsultorio = -1;
+        this.descartado = false;
+        this.servicoRegistrado = Double.NaN;
+    }
+
+    // Chamado pelo modelo depois de tirar o paciente da fila: acorda e termina sem atendimento
+    void descarta() {
+        descartado = true;
+        model.registraEvento(LogEventos.DESCARTE, id, indiceConsultorio, urgente);
+        activate();
+    }
 
     @Override
     public void lifeCycle() throws SuspendExecution {
+        while (true) {
+            atende();
+            // com reciclagem, espera no pool do modelo até ser reativado como nova chegada
+            if (!model.devolvePaciente(this)) break;
+            passivate();
+        }
+        model.fimDeProcesso();
+    }
+
+    private void atende() throws SuspendExecution {
         tempoChegada = presentTime().getTimeAsDouble();
         chegada = tempoChegada;
+        id = model.novoIdPaciente();
+        if (!Double.isNaN(servicoRegistrado)) servicoSorteado = servicoRegistrado;
+        else servicoSorteado = model.isServicoNaChegada() ? model.sampleTempoAtendimento(urgente) : Double.NaN;
 
         if (model.modoFilaUnica) {
             // entra no pool global
-            if (urgente) model.filaUrgGlobal.insert(this);
-            else model.filaNaoGlobal.insert(this);
-            model.atualizaPicosPool();
+            model.registraEvento(LogEventos.CHEGADA, id, -1, urgente);
+            model.entraPool(this);
+            model.atualizaPicoFila(0);
+            model.observaFilaNaChegada();
 
             // tenta despachar se houver servidor livre; senão aguarda
             model.tentarDespacho();
             passivate(); // será reativado pelo dispatcher quando começar atendimento
+            if (descartado) return;
 
         } else {
-            // filas separadas: escolhe consultório por menor ETA
-            indiceConsultorio = model.escolherConsultorioETA();
-            ProcessQueue<Paciente> qUrg = model.filaUrg[indiceConsultorio];
-            ProcessQueue<Paciente> qNao = model.filaNao[indiceConsultorio];
-
-            if (urgente) qUrg.insert(this);
-            else qNao.insert(this);
+            // filas separadas: escolhe consultório pelo roteamento (padrão: menor ETA)
+            indiceConsultorio = model.escolheConsultorio();
+            model.registraEvento(LogEventos.CHEGADA, id, indiceConsultorio, urgente);
+            model.entraFila(indiceConsultorio, this);
 
-            model.atualizaPicosFilasSeparadas();
+            model.atualizaPicoFila(indiceConsultorio);
+            model.observaFilaNaChegada();
 
             if (!model.consultorioOcupado[indiceConsultorio] && model.isMinhaVez(indiceConsultorio, this)) {
                 // segue direto
             } else {
                 passivate();
+                if (descartado) return; // já saiu da fila em esvaziaFilas
             }
 
             // retira da fila
-            if (urgente) qUrg.remove(this);
-            else qNao.remove(this);
-            model.consultorioOcupado[indiceConsultorio] = true;
+            model.saiFila(indiceConsultorio, this);
+            model.setOcupado(indiceConsultorio, true);
         }
 
         // registra espera
         double inicioAtendimento = presentTime().getTimeAsDouble();
         double espera = inicioAtendimento - tempoChegada;
-        model.registraEspera(espera, urgente);
+        model.registraEspera(espera, urgente, indiceConsultorio);
+        model.registraEvento(LogEventos.INICIO, id, indiceConsultorio, urgente);
 
         // atendimento
-        double serv = model.sampleTempoAtendimento(urgente);
+        double serv = Double.isNaN(servicoSorteado) ? model.sampleTempoAtendimento(urgente) : servicoSorteado;
+        serv *= model.getFatorServico(indiceConsultorio);
         if (serv <= 0) serv = 0.1;
         hold(new TimeSpan(serv));
+        model.registraEvento(LogEventos.FIM, id, indiceConsultorio, urgente);
 
         // libera consultório
-        model.consultorioOcupado[indiceConsultorio] = false;
+        model.setOcupado(indiceConsultorio, false);
 
         if (model.modoFilaUnica) {
             // após terminar, tenta despachar outro do pool
             model.tentarDespacho();
         } else {
-            // ativa próximo da fila do consultório
-            Paciente proximo = model.pickProximo(indiceConsultorio);
+            // ativa próximo da fila do consultório (fechado: a reabertura ativa)
+            Paciente proximo = model.isAberto(indiceConsultorio) ? model.pickProximo(indiceConsultorio) : null;
             if (proximo != null) {
-                model.consultorioOcupado[indiceConsultorio] = true;
+                model.setOcupado(indiceConsultorio, true);
                 proximo.activate();
             }
         }
@@ -0,0 +1,65 @@
+package org.example.model;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mede os bytes alocados durante uma simulação, somando o contador de alocação de todas as threads da JVM.
+ * Como cada SimProcess pode rodar na própria thread (que morre quando o lifeCycle acaba), os processos
+ * chamam {@link #registraThreadAtual()} ao terminar para que a alocação da thread não se perca.
+ * Em JVMs sem o contador por thread ({@link #isSuportado()} false), as chamadas não fazem nada e
+ * {@link #encerra()} devolve 0.
+ */
+public class PerfilAlocacao {
+
+    private final com.sun.management.ThreadMXBean mx; // null se a JVM não tem o contador por thread
+    private final Map<Long, Long> ultimaLeitura = new ConcurrentHashMap<>(); // bytes já contados por thread
+    private final AtomicLong bytes = new AtomicLong();
+
+    public PerfilAlocacao() {
+        java.lang.management.ThreadMXBean padrao = ManagementFactory.getThreadMXBean();
+        this.mx = padrao instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) padrao).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) padrao : null;
+        if (mx != null) mx.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public boolean isSuportado() { return mx != null; }
+
+    public void inicia() {
+        ultimaLeitura.clear();
+        bytes.set(0);
+        if (mx == null) return;
+        long[] ids = mx.getAllThreadIds();
+        long[] alocados = mx.getThreadAllocatedBytes(ids);
+        for (int k = 0; k < ids.length; k++) {
+            if (alocados[k] >= 0) ultimaLeitura.put(ids[k], alocados[k]);
+        }
+    }
+
+    // Chamado pela própria thread do processo, logo antes de o lifeCycle terminar
+    public void registraThreadAtual() {
+        if (mx == null) return;
+        long id = Thread.currentThread().getId();
+        acumula(id, mx.getThreadAllocatedBytes(id));
+    }
+
+    // Bytes alocados desde inicia()
+    public long encerra() {
+        if (mx == null) return 0;
+        long[] ids = mx.getAllThreadIds();
+        long[] alocados = mx.getThreadAllocatedBytes(ids);
+        for (int k = 0; k < ids.length; k++) {
+            acumula(ids[k], alocados[k]);
+        }
+        return bytes.get();
+    }
+
+    private void acumula(long id, long alocadoAgora) {
+        if (alocadoAgora < 0) return;
+        Long anterior = ultimaLeitura.put(id, alocadoAgora);
+        bytes.addAndGet(alocadoAgora - (anterior == null ? 0L : anterior));
+    }
+}
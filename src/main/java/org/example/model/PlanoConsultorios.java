@@ -0,0 +1,171 @@
+package org.example.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consultórios diferentes entre si: multiplicador do tempo de atendimento (0.8 = médico 20% mais rápido) e
+ * turnos em que o consultório está aberto, em minutos do dia, repetidos a cada dia do horizonte.
+ * <p>
+ * Consultórios além dos descritos (ou sem turnos) têm fator 1.0 e ficam sempre abertos, então o mesmo plano
+ * serve para qualquer nº de consultórios da varredura. Fechar não interrompe quem está em atendimento: o
+ * consultório só deixa de começar atendimentos, e quem está na fila dele é roteado de novo para os abertos
+ * (com todos fechados, espera a reabertura).
+ * <p>
+ * Os turnos viram uma única lista ordenada de transições (instante, consultório, abre/fecha) para o dia
+ * inteiro, percorrida por um evento que se reagenda: o custo é O(1) por transição, nada por paciente.
+ */
+public final class PlanoConsultorios {
+
+    private final double[] fatorServico;  // por consultório descrito
+    private final double[][] turnos;      // por consultório: {abre1, fecha1, abre2, ...}; null = sempre aberto
+    private final int[] comTurnos;        // consultórios com turnos (os demais nunca mudam de estado)
+
+    // Transições do dia, ordenadas pelo instante (exclui o início do dia, dado por abertoNoInicio)
+    private final double[] instante;
+    private final int[] consultorio;
+    private final boolean[] abre;
+
+    /**
+     * @param fatorServico multiplicador do tempo de atendimento por consultório (null = 1.0 para todos)
+     * @param turnos       intervalos abertos por consultório, {abre, fecha, abre, fecha, ...} em min do dia,
+     *                     em ordem e sem sobreposição; null (no vetor ou no consultório) = sempre aberto
+     */
+    public PlanoConsultorios(double[] fatorServico, double[][] turnos) {
+        int n = Math.max(fatorServico != null ? fatorServico.length : 0, turnos != null ? turnos.length : 0);
+        this.fatorServico = new double[n];
+        this.turnos = new double[n][];
+        List<double[]> transicoes = new ArrayList<>(); // {instante, consultório, abre}
+        List<Integer> comTurnos = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double f = (fatorServico != null && i < fatorServico.length) ? fatorServico[i] : 1.0;
+            if (!(f > 0)) throw new IllegalArgumentException("consultório " + (i + 1) + ": fator inválido " + f);
+            this.fatorServico[i] = f;
+
+            double[] t = (turnos != null && i < turnos.length) ? turnos[i] : null;
+            if (t == null) continue;
+            if (t.length % 2 != 0) throw new IllegalArgumentException("consultório " + (i + 1) + ": turno sem fim");
+            for (int k = 0; k < t.length; k += 2) {
+                if (t[k] < 0 || t[k] >= t[k + 1] || (k > 0 && t[k] < t[k - 1])) {
+                    throw new IllegalArgumentException("consultório " + (i + 1) + ": turnos fora de ordem ou sobrepostos");
+                }
+                if (t[k] > 0) transicoes.add(new double[]{t[k], i, 1});
+                transicoes.add(new double[]{t[k + 1], i, 0});
+            }
+            this.turnos[i] = t.clone();
+            comTurnos.add(i);
+        }
+        this.comTurnos = comTurnos.stream().mapToInt(Integer::intValue).toArray();
+        // fechamentos antes de aberturas no mesmo instante (troca de turno sem sobreposição)
+        transicoes.sort((a, b) -> a[0] != b[0] ? Double.compare(a[0], b[0]) : Double.compare(a[2], b[2]));
+        instante = new double[transicoes.size()];
+        consultorio = new int[transicoes.size()];
+        abre = new boolean[transicoes.size()];
+        for (int k = 0; k < instante.length; k++) {
+            double[] tr = transicoes.get(k);
+            instante[k] = tr[0];
+            consultorio[k] = (int) tr[1];
+            abre[k] = tr[2] == 1;
+        }
+    }
+
+    public double getFatorServico(int i) { return i < fatorServico.length ? fatorServico[i] : 1.0; }
+
+    public boolean isAbertoNoInicio(int i) {
+        double[] t = i < turnos.length ? turnos[i] : null;
+        return t == null || (t.length > 0 && t[0] <= 0);
+    }
+
+    public boolean temTurnos() { return comTurnos.length > 0; }
+
+    // Consultórios que voltam ao estado do início do dia a cada virada
+    int[] getComTurnos()           { return comTurnos; }
+
+    // Transições do dia, na ordem
+    int getNumTransicoes()         { return instante.length; }
+    double getInstante(int k)      { return instante[k]; }
+    int getConsultorio(int k)      { return consultorio[k]; }
+    boolean isAbertura(int k)      { return abre[k]; }
+
+    /**
+     * Uma linha por consultório ({@code #} começa comentário):
+     * <pre>
+     * 1 fator=0.8                    # médico sênior, sempre aberto
+     * 2 turnos=0-240,300-600         # almoço das 240 às 300
+     * 3 fator=1.2 turnos=120-600     # meio período, chega 2h depois
+     * </pre>
+     */
+    public static PlanoConsultorios le(Path arquivo) throws IOException {
+        List<Double> fatores = new ArrayList<>();
+        List<double[]> turnos = new ArrayList<>();
+        int nLinha = 0;
+        for (String linha : Files.readAllLines(arquivo, StandardCharsets.UTF_8)) {
+            nLinha++;
+            int com = linha.indexOf('#');
+            if (com >= 0) linha = linha.substring(0, com);
+            linha = linha.trim();
+            if (linha.isEmpty()) continue;
+            String onde = arquivo + ":" + nLinha;
+            try {
+                String[] partes = linha.split("\\s+");
+                int i = Integer.parseInt(partes[0]) - 1;
+                if (i < 0) throw new IllegalArgumentException("consultório deve ser ≥ 1");
+                while (fatores.size() <= i) { fatores.add(1.0); turnos.add(null); }
+                for (int k = 1; k < partes.length; k++) {
+                    String[] kv = partes[k].split("=", 2);
+                    if (kv.length != 2) throw new IllegalArgumentException("esperado chave=valor em '" + partes[k] + "'");
+                    if (kv[0].equals("fator")) {
+                        fatores.set(i, Double.parseDouble(kv[1]));
+                    } else if (kv[0].equals("turnos")) {
+                        String[] intervalos = kv[1].split(",");
+                        double[] t = new double[2 * intervalos.length];
+                        for (int j = 0; j < intervalos.length; j++) {
+                            String[] ab = intervalos[j].split("-");
+                            if (ab.length != 2) throw new IllegalArgumentException("turno inválido '" + intervalos[j] + "'");
+                            t[2 * j] = Double.parseDouble(ab[0].trim());
+                            t[2 * j + 1] = Double.parseDouble(ab[1].trim());
+                        }
+                        turnos.set(i, t);
+                    } else {
+                        throw new IllegalArgumentException("chave desconhecida '" + kv[0] + "'");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(onde + ": " + e.getMessage(), e);
+            }
+        }
+        double[] f = new double[fatores.size()];
+        for (int i = 0; i < f.length; i++) f[i] = fatores.get(i);
+        return new PlanoConsultorios(f, turnos.toArray(new double[0][]));
+    }
+
+    // Formato binário (chave do cache, envio aos trabalhadores remotos)
+    public void escreve(DataOutput out) throws IOException {
+        out.writeInt(fatorServico.length);
+        for (int i = 0; i < fatorServico.length; i++) {
+            out.writeDouble(fatorServico[i]);
+            out.writeInt(turnos[i] != null ? turnos[i].length : -1);
+            if (turnos[i] != null) for (double t : turnos[i]) out.writeDouble(t);
+        }
+    }
+
+    public static PlanoConsultorios le(DataInput in) throws IOException {
+        int n = in.readInt();
+        double[] f = new double[n];
+        double[][] turnos = new double[n][];
+        for (int i = 0; i < n; i++) {
+            f[i] = in.readDouble();
+            int m = in.readInt();
+            if (m < 0) continue;
+            turnos[i] = new double[m];
+            for (int k = 0; k < m; k++) turnos[i][k] = in.readDouble();
+        }
+        return new PlanoConsultorios(f, turnos);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.model;
+
+// Roteamentos prontos (filas separadas), para escolher por configuração (Cenario, grade de cenários)
+public enum PoliticaRoteamento {
+    ETA,         // menor ETA (o roteamento original)
+    MENOR_FILA,  // menor fila, join-shortest-queue
+    POTENCIA_2;  // menor ETA entre 2 consultórios sorteados
+
+    public Roteamento cria() {
+        switch (this) {
+            case MENOR_FILA: return new Roteamento.MenorFila();
+            case POTENCIA_2: return new Roteamento.PotenciaD(2);
+            default:         return new Roteamento.MenorETA();
+        }
+    }
+}
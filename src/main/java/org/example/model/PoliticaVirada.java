@@ -0,0 +1,7 @@
+package org.example.model;
+
+// O que acontece com quem ainda está na fila quando o dia termina (modo multi-dia)
+public enum PoliticaVirada {
+    CARREGA,  // continua na fila e é atendido no dia seguinte
+    DESCARTA  // a fila é esvaziada na virada (pacientes contados como descartados)
+}
@@ -0,0 +1,36 @@
+package org.example.model;
+
+//Métricas de um dia dentro de uma simulação multi-dia (tiradas na virada do dia)
+public class ResumoDia {
+
+    public final int dia;                   // 1, 2, ...
+    public final long chegadas;
+    public final long atendidosUrgente;     // inícios de atendimento no dia
+    public final long atendidosNaoUrgente;
+    public final double esperaMediaUrgente;
+    public final double esperaMediaNaoUrgente;
+    public final double esperaP90Urgente;
+    public final int picoFila;              // maior fila por consultório (ou do pool) no dia
+    public final int[] picoPorBucket;       // maior fila em cada bucket do dia
+    public final boolean cumpriu;           // mesma meta de fila ≤ 5 por consultório
+    public final int aguardandoNaVirada;    // pacientes na fila no fim do dia
+    public final int descartados;           // removidos na virada (PoliticaVirada.DESCARTA)
+
+    public ResumoDia(int dia, long chegadas, HistogramaEspera esperaUrgente, HistogramaEspera esperaNaoUrgente,
+                     int[] picoPorBucket, boolean cumpriu, int aguardandoNaVirada, int descartados) {
+        this.dia = dia;
+        this.chegadas = chegadas;
+        this.atendidosUrgente = esperaUrgente.getTotal();
+        this.atendidosNaoUrgente = esperaNaoUrgente.getTotal();
+        this.esperaMediaUrgente = esperaUrgente.getMedia();
+        this.esperaMediaNaoUrgente = esperaNaoUrgente.getMedia();
+        this.esperaP90Urgente = esperaUrgente.quantil(0.90);
+        int pico = 0;
+        for (int p : picoPorBucket) pico = Math.max(pico, p);
+        this.picoFila = pico;
+        this.picoPorBucket = picoPorBucket;
+        this.cumpriu = cumpriu;
+        this.aguardandoNaVirada = aguardandoNaVirada;
+        this.descartados = descartados;
+    }
+}
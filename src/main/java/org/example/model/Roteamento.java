@@ -0,0 +1,75 @@
+package org.example.model;
+
+/**
+ * Roteamento das chegadas no modo filas separadas: em qual consultório o paciente entra na fila. No modo fila
+ * única, {@link #despacha} decide qual consultório livre atende o próximo do pool.
+ * <p>
+ * Uma instância por replicação (pode guardar estado): o modelo chama {@link #inicia} no init e
+ * {@link #mudou} a cada entrada/saída de fila ou mudança de ocupação do consultório i, para a política
+ * manter seus índices. Políticas prontas em {@link PoliticaRoteamento}.
+ */
+public interface Roteamento {
+
+    default void inicia(ClinicaModelBase modelo) { }
+
+    default void mudou(int i) { }
+
+    int escolhe(ClinicaModelBase modelo);
+
+    // Fila única: consultório livre e aberto que atende o próximo do pool, -1 se não houver; padrão = menor índice
+    default int despacha(ClinicaModelBase modelo) { return modelo.primeiroLivre(); }
+
+    // Menor ETA (fila × tempo médio de atendimento, mais o atendimento em curso); O(1) no heap do ClinicaModel
+    final class MenorETA implements Roteamento {
+        @Override
+        public int escolhe(ClinicaModelBase modelo) { return modelo.consultorioMenorETA(); }
+    }
+
+    // Menor fila (aguardando + em atendimento), join-shortest-queue; heap indexado, O(log c) por mudança.
+    // Consultório fechado só recebe chegadas se todos estiverem fechados.
+    final class MenorFila implements Roteamento {
+        private ClinicaModelBase modelo;
+        private HeapETA heap;
+
+        @Override
+        public void inicia(ClinicaModelBase modelo) {
+            this.modelo = modelo;
+            this.heap = new HeapETA(modelo.getNumConsultorios());
+        }
+
+        @Override
+        public void mudou(int i) {
+            double fila = modelo.getAguardandoFila(i) + (modelo.isOcupado(i) ? 1 : 0);
+            heap.atualiza(i, modelo.isAberto(i) ? fila : fila + ClinicaModelBase.PENALIDADE_FECHADO);
+        }
+
+        @Override
+        public int escolhe(ClinicaModelBase modelo) { return heap.minimo(); }
+    }
+
+    /**
+     * Potência de d escolhas: sorteia d consultórios abertos e fica com o de menor ETA. O(d) por chegada,
+     * qualquer que seja c e quantos estejam fechados (o sorteio é direto na lista de abertos do modelo), e
+     * quase tão bom quanto olhar todos já com d = 2. Com todos fechados, vale qualquer um.
+     */
+    final class PotenciaD implements Roteamento {
+        private final int d;
+
+        public PotenciaD(int d) {
+            if (d < 1) throw new IllegalArgumentException("d deve ser ≥ 1: " + d);
+            this.d = d;
+        }
+
+        @Override
+        public int escolhe(ClinicaModelBase modelo) {
+            int escolhido = modelo.sorteiaConsultorioAberto();
+            double melhor = modelo.estimaETA(escolhido);
+            for (int k = 1; k < d; k++) {
+                int i = modelo.sorteiaConsultorioAberto();
+                double eta = modelo.estimaETA(i);
+                if (eta < melhor || (eta == melhor && i < escolhido)) { melhor = eta; escolhido = i; }
+            }
+            return escolhido;
+        }
+    }
+}
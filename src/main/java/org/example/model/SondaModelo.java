@@ -0,0 +1,44 @@
+package org.example.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores ao vivo de uma replicação, lidos por outras threads (métricas JMX/HTTP) enquanto ela roda.
+ * Só a thread da simulação escreve, então cada atualização é um lazySet (sem CAS nem barreira completa):
+ * o leitor pode ver um valor um pouco atrasado, nunca um valor rasgado.
+ */
+public class SondaModelo {
+
+    private final String nome;
+    private final AtomicLong eventos = new AtomicLong();
+    private final AtomicLong tempoSimulado = new AtomicLong(); // bits do double
+    private final AtomicIntegerArray filas;                    // [2·consultório + (urgente ? 1 : 0)]
+
+    // numFilas = nº de consultórios (filas separadas) ou 1 (pool)
+    public SondaModelo(String nome, int numFilas) {
+        this.nome = nome;
+        this.filas = new AtomicIntegerArray(2 * numFilas);
+    }
+
+    void evento(double t) {
+        eventos.lazySet(eventos.get() + 1);
+        tempoSimulado.lazySet(Double.doubleToRawLongBits(t));
+    }
+
+    void fila(int i, boolean urgente, int tamanho) {
+        int k = 2 * i + (urgente ? 1 : 0);
+        if (k < filas.length()) filas.lazySet(k, tamanho);
+    }
+
+    public String getNome()           { return nome; }
+    public long getEventos()          { return eventos.get(); }
+    public double getTempoSimulado()  { return Double.longBitsToDouble(tempoSimulado.get()); }
+
+    // Total aguardando por fila (urgentes + não urgentes)
+    public int[] getFilas() {
+        int[] r = new int[filas.length() / 2];
+        for (int i = 0; i < r.length; i++) r[i] = filas.get(2 * i) + filas.get(2 * i + 1);
+        return r;
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+/**
+ * Tabela [bucket][coluna] de inteiros guardada num único int[] que cresce em blocos de buckets.
+ * Só ocupa memória até o último bucket tocado, então horizontes longos (semanas em buckets de 15 min)
+ * não precisam alocar a tabela inteira de antemão. Buckets já fechados podem ser descartados
+ * ({@link #descartaAte}): a tabela guarda então só os buckets a partir do primeiro mantido.
+ */
+public class TabelaBuckets {
+
+    private static final int BUCKETS_POR_BLOCO = 64;
+
+    private final int colunas;
+    private int[] dados = new int[0];
+    private int buckets = 0; // buckets já tocados (último + 1)
+    private int base = 0;    // primeiro bucket guardado (os anteriores foram descartados)
+
+    public TabelaBuckets(int colunas) {
+        this.colunas = colunas;
+    }
+
+    public int getColunas() { return colunas; }
+    public int getBuckets() { return buckets; }
+
+    // Escritas em buckets descartados são ignoradas
+    public void set(int bucket, int coluna, int valor) {
+        if (bucket < base) return;
+        garante(bucket);
+        dados[(bucket - base) * colunas + coluna] = valor;
+    }
+
+    // Guarda o máximo entre o valor atual e o novo
+    public void max(int bucket, int coluna, int valor) {
+        if (bucket < base) return;
+        garante(bucket);
+        int k = (bucket - base) * colunas + coluna;
+        if (valor > dados[k]) dados[k] = valor;
+    }
+
+    public int get(int bucket, int coluna) {
+        return bucket >= base && bucket < buckets ? dados[(bucket - base) * colunas + coluna] : 0;
+    }
+
+    // Linha do bucket (cópia)
+    public int[] linha(int bucket) {
+        int[] out = new int[colunas];
+        if (bucket >= base && bucket < buckets) System.arraycopy(dados, (bucket - base) * colunas, out, 0, colunas);
+        return out;
+    }
+
+    // Máximo entre as colunas de cada bucket, para os primeiros n buckets
+    public int[] maxPorBucket(int n) {
+        return maxPorBucket(0, n);
+    }
+
+    // Máximo entre as colunas de cada bucket em [de, ate)
+    public int[] maxPorBucket(int de, int ate) {
+        int[] out = new int[ate - de];
+        for (int b = Math.max(de, base); b < Math.min(ate, buckets); b++) {
+            int max = 0;
+            for (int c = 0, k = (b - base) * colunas; c < colunas; c++, k++) max = Math.max(max, dados[k]);
+            out[b - de] = max;
+        }
+        return out;
+    }
+
+    // Máximo de todas as colunas nos buckets [de, ate)
+    public int maxIntervalo(int de, int ate) {
+        int max = 0;
+        for (int k = (Math.max(de, base) - base) * colunas, fim = (Math.min(ate, buckets) - base) * colunas; k < fim; k++) {
+            max = Math.max(max, dados[k]);
+        }
+        return max;
+    }
+
+    // Descarta os buckets antes de {@code bucket}; o espaço é reaproveitado pelos seguintes
+    public void descartaAte(int bucket) {
+        if (bucket <= base) return;
+        int guardados = Math.max(0, buckets - bucket);
+        if (guardados > 0) System.arraycopy(dados, (bucket - base) * colunas, dados, 0, guardados * colunas);
+        Arrays.fill(dados, guardados * colunas, (buckets - base) * colunas, 0);
+        base = bucket;
+        buckets = Math.max(buckets, bucket);
+    }
+
+    public void limpa() {
+        Arrays.fill(dados, 0, (buckets - base) * colunas, 0);
+        buckets = 0;
+        base = 0;
+    }
+
+    private void garante(int bucket) {
+        if (bucket < buckets) return;
+        int necessario = (bucket - base + 1) * colunas;
+        if (necessario > dados.length) {
+            int blocos = ((bucket - base) / BUCKETS_POR_BLOCO) + 1;
+            dados = Arrays.copyOf(dados, blocos * BUCKETS_POR_BLOCO * colunas);
+        }
+        buckets = bucket + 1;
+    }
+}
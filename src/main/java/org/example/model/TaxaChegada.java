@@ -0,0 +1,86 @@
+package org.example.model;
+
+/**
+ * Chegadas como processo de Poisson não homogêneo exato, por inversão da taxa acumulada.
+ * <p>
+ * A taxa é constante por segmento (de qualquer duração; o perfil padrão é o caso de 60 min) e se repete a
+ * cada dia. A tabela Λ(início do segmento k) é calculada uma vez; a próxima chegada depois de t é o s com
+ * Λ(s) − Λ(t) = E, E ~ Exp(1), então uma interchegada que atravessa a fronteira de um segmento passa a usar
+ * a taxa do segmento seguinte. Como o tempo só avança, o segmento atual fica guardado e achar Λ(t) e
+ * inverter custa O(1) por chegada (só anda pelos segmentos atravessados).
+ */
+public class TaxaChegada {
+
+    private final double duracaoSegmento;
+    private final double duracaoDia;
+    private final double[] taxa;       // chegadas/min por segmento
+    private final double[] acumulada;  // Λ no início de cada segmento (relativa ao início do dia); [n] = Λ do dia
+    private final int n;
+
+    // Posição atual (o tempo só avança)
+    private double inicioDia = 0;
+    private int k = 0;
+
+    /**
+     * @param fatores      fator de carga por segmento (1.0 = carga base); segmentos além do vetor valem 1.0
+     * @param mediaBase    interchegada média com fator 1.0 (min)
+     */
+    public TaxaChegada(double[] fatores, double duracaoSegmento, double duracaoDia, double mediaBase) {
+        if (duracaoSegmento <= 0 || duracaoDia <= 0 || mediaBase <= 0) {
+            throw new IllegalArgumentException("duracaoSegmento, duracaoDia e mediaBase devem ser positivos");
+        }
+        this.duracaoSegmento = duracaoSegmento;
+        this.duracaoDia = duracaoDia;
+        this.n = (int) Math.ceil(duracaoDia / duracaoSegmento - 1e-9);
+        this.taxa = new double[n];
+        this.acumulada = new double[n + 1];
+        for (int s = 0; s < n; s++) {
+            double f = (fatores != null && s < fatores.length) ? fatores[s] : 1.0;
+            if (f < 0 || Double.isNaN(f)) throw new IllegalArgumentException("fator de chegada inválido: " + f);
+            taxa[s] = f / mediaBase;
+            acumulada[s + 1] = acumulada[s] + taxa[s] * (fimSegmento(s) - s * duracaoSegmento);
+        }
+    }
+
+    // Perfil de chegada do modelo (fatorChegadaHora) no dia do horizonte, com o segmento configurado nele
+    public static TaxaChegada doPerfil(double[] fatorChegadaHora, ConfiguracaoHorizonte horizonte, double mediaBase) {
+        return new TaxaChegada(fatorChegadaHora, horizonte.getDuracaoSegmentoChegada(), horizonte.getDuracaoDia(), mediaBase);
+    }
+
+    public double getTaxaDia() { return acumulada[n]; }
+
+    /**
+     * Instante da próxima chegada depois de t, dado E ~ Exp(1). Infinito se a taxa é zero o dia todo.
+     */
+    public double proxima(double t, double e) {
+        posiciona(t);
+        double lambdaDia = acumulada[n];
+        if (lambdaDia <= 0) return Double.POSITIVE_INFINITY;
+
+        double alvo = acumulada[k] + (t - inicioDia - k * duracaoSegmento) * taxa[k] + e;
+        double dia = inicioDia;
+        if (alvo >= lambdaDia) {
+            // dias inteiros de uma vez, depois anda no dia em que cai
+            long dias = (long) (alvo / lambdaDia);
+            alvo = Math.max(0, alvo - dias * lambdaDia);
+            dia += dias * duracaoDia;
+        }
+        // primeiro segmento com Λ(fim) > alvo; trechos com taxa zero ficam para trás sozinhos
+        int s = (dia == inicioDia) ? k : 0;
+        while (s < n - 1 && acumulada[s + 1] <= alvo) s++;
+        return dia + s * duracaoSegmento + (alvo - acumulada[s]) / taxa[s];
+    }
+
+    private void posiciona(double t) {
+        if (t < inicioDia + k * duracaoSegmento || t >= inicioDia + duracaoDia) {
+            // recuo (nova replicação) ou salto de mais de um dia: recalcula
+            inicioDia = Math.floor(t / duracaoDia) * duracaoDia;
+            k = 0;
+        }
+        while (k < n - 1 && t >= inicioDia + fimSegmento(k)) k++;
+    }
+
+    private double fimSegmento(int s) {
+        return Math.min((s + 1) * duracaoSegmento, duracaoDia);
+    }
+}
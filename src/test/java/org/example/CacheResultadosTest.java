@@ -0,0 +1,213 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Versão do modelo, ida e volta pelo disco, despejo LRU e arquivos corrompidos
+class CacheResultadosTest {
+
+    @TempDir
+    Path dir;
+
+    private static Path classes() throws Exception {
+        return Path.of(CacheResultados.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    // Cópia do diretório de classes, para alterar um .class sem mexer no build
+    private Path copiaClasses() throws Exception {
+        Path origem = classes(), destino = dir.resolve("classes");
+        try (Stream<Path> arquivos = Files.walk(origem)) {
+            for (Path p : (Iterable<Path>) arquivos::iterator) {
+                Path alvo = destino.resolve(origem.relativize(p).toString());
+                if (Files.isDirectory(p)) Files.createDirectories(alvo);
+                else Files.copy(p, alvo);
+            }
+        }
+        return destino;
+    }
+
+    @Test
+    void versaoIncluiClassesAninhadas() throws Exception {
+        List<String> nomes = CacheResultados.classesDoModelo(classes());
+        for (String esperado : new String[]{
+                "org/example/model/ClinicaModelEventos$EventoChegada.class",
+                "org/example/model/ClinicaModelEventos$EventoFimAtendimento.class",
+                "org/example/model/ClinicaModelEventos$EventoHora.class",
+                "org/example/model/ClinicaModel$SamplerHora.class",
+                "org/example/model/ClinicaModelBase$EventoTurno.class",
+                "org/example/model/Roteamento$PotenciaD.class",
+                "org/example/Cenario.class",
+                "org/example/ExecutorReplicacoes.class"}) {
+            assertTrue(nomes.contains(esperado), esperado);
+        }
+        assertFalse(nomes.contains("org/example/ClinicaMain.class"));
+    }
+
+    // Qualquer .class do modelo alterado (aqui, uma classe aninhada) muda a versão e, com ela, a chave
+    @Test
+    void classeAlteradaMudaAChave() throws Exception {
+        Path copia = copiaClasses();
+        byte[] antes = CacheResultados.versaoModelo(copia);
+        assertArrayEquals(CacheResultados.versaoModelo(), antes);
+
+        Files.write(copia.resolve("org/example/model/ClinicaModelEventos$EventoHora.class"), new byte[]{0},
+                StandardOpenOption.APPEND);
+        byte[] depois = CacheResultados.versaoModelo(copia);
+        assertFalse(Arrays.equals(antes, depois));
+
+        Cenario cenario = new Cenario(3, true, false, null, null);
+        String chaveAntes = new CacheResultados(dir.resolve("cache"), 1 << 20, antes).chave(cenario, 42L);
+        String chaveDepois = new CacheResultados(dir.resolve("cache"), 1 << 20, depois).chave(cenario, 42L);
+        assertNotEquals(chaveAntes, chaveDepois);
+    }
+
+    private static final byte[] VERSAO = {1, 2, 3};
+
+    private static ResultadoReplicacao roda(Cenario cenario, int rep) {
+        return ExecutorReplicacoes.rodaReplicacao(cenario, rep, ExecutorReplicacoes.semente(7L, cenario, rep));
+    }
+
+    private static byte[] bytes(ResultadoReplicacao r) throws IOException {
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        r.escreve(new DataOutputStream(b));
+        return b.toByteArray();
+    }
+
+    private static Path arquivo(Path cache, CacheResultados c, Cenario cenario, ResultadoReplicacao r) {
+        return cache.resolve(c.chave(cenario, r.semente) + ".res");
+    }
+
+    // Guardado e lido de volta, inclusive por outra instância no mesmo diretório (outra execução)
+    @Test
+    void guardaEBusca() throws IOException {
+        Cenario cenario = new Cenario(3, true, false, null, null);
+        ResultadoReplicacao r = roda(cenario, 1);
+        Path cache = dir.resolve("cache");
+        CacheResultados c = new CacheResultados(cache, 1 << 20, VERSAO);
+        assertNull(c.busca(cenario, 1, r.semente));
+        c.guarda(cenario, r);
+
+        for (CacheResultados leitor : new CacheResultados[]{c, new CacheResultados(cache, 1 << 20, VERSAO)}) {
+            ResultadoReplicacao lido = leitor.busca(cenario, 1, r.semente);
+            assertNotNull(lido);
+            assertEquals(r.rep, lido.rep);
+            assertEquals(r.semente, lido.semente);
+            assertEquals(r.cumpriu, lido.cumpriu);
+            assertArrayEquals(r.picoHora, lido.picoHora);
+            assertEquals(r.esperaMediaUrgente, lido.esperaMediaUrgente);
+            assertEquals(r.esperaMediaNaoUrgente, lido.esperaMediaNaoUrgente);
+            assertEquals(r.filaMedia, lido.filaMedia);
+            assertEquals(r.utilizacaoMedia, lido.utilizacaoMedia);
+            assertArrayEquals(bytes(r), bytes(lido));
+            assertEquals(1, leitor.getAcertos());
+        }
+        // outra semente ou outro cenário: falta
+        assertNull(c.busca(cenario, 2, r.semente + 1));
+        assertNull(c.busca(cenario.comConsultorios(4), 1, r.semente));
+    }
+
+    // Passando de maxBytes sai o usado há mais tempo: o acertado por último fica
+    @Test
+    void despejaOMenosUsadoRecentemente() throws IOException {
+        Cenario cenario = new Cenario(3, true, false, null, null);
+        ResultadoReplicacao a = roda(cenario, 1), b = roda(cenario, 2), c = roda(cenario, 3);
+
+        // tamanho de cada arquivo, medido num cache sem limite
+        Path medida = dir.resolve("medida");
+        CacheResultados semLimite = new CacheResultados(medida, Long.MAX_VALUE, VERSAO);
+        long total = 0;
+        for (ResultadoReplicacao r : List.of(a, b, c)) {
+            semLimite.guarda(cenario, r);
+            total += Files.size(arquivo(medida, semLimite, cenario, r));
+        }
+        assertEquals(total, semLimite.getBytes());
+
+        Path cache = dir.resolve("lru");
+        CacheResultados lru = new CacheResultados(cache, total - 1, VERSAO); // os três não cabem
+        lru.guarda(cenario, a);
+        lru.guarda(cenario, b);
+        assertNotNull(lru.busca(cenario, 1, a.semente)); // a passa a ser o mais recente
+        lru.guarda(cenario, c);
+
+        assertNull(lru.busca(cenario, 2, b.semente));
+        assertFalse(Files.exists(arquivo(cache, lru, cenario, b)));
+        assertNotNull(lru.busca(cenario, 1, a.semente));
+        assertNotNull(lru.busca(cenario, 3, c.semente));
+        assertEquals(2, lru.getEntradas());
+        assertTrue(lru.getBytes() <= total - 1);
+
+        // reaberto com limite menor: a ordem vem das datas dos arquivos (a com data antiga sai primeiro)
+        Files.setLastModifiedTime(arquivo(cache, lru, cenario, a), FileTime.fromMillis(0));
+        CacheResultados menor = new CacheResultados(cache, Files.size(arquivo(cache, lru, cenario, c)), VERSAO);
+        assertEquals(1, menor.getEntradas());
+        assertNotNull(menor.busca(cenario, 3, c.semente));
+    }
+
+    // Arquivo truncado ou com outro conteúdo: falta, sai do índice e do disco
+    @Test
+    void arquivoCorrompidoViraFalta() throws IOException {
+        Cenario cenario = new Cenario(2, true, false, null, null);
+        ResultadoReplicacao a = roda(cenario, 1), b = roda(cenario, 2);
+        Path cache = dir.resolve("corrompido");
+        CacheResultados c = new CacheResultados(cache, 1 << 20, VERSAO);
+        c.guarda(cenario, a);
+        c.guarda(cenario, b);
+        Path arqA = arquivo(cache, c, cenario, a), arqB = arquivo(cache, c, cenario, b);
+        long tamanhoB = Files.size(arqB);
+
+        byte[] inteiro = Files.readAllBytes(arqA);
+        Files.write(arqA, Arrays.copyOf(inteiro, inteiro.length / 2)); // truncado
+        Files.write(arqB, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});        // mágico errado
+
+        assertNull(c.busca(cenario, 1, a.semente));
+        assertNull(c.busca(cenario, 2, b.semente));
+        assertEquals(2, c.getFaltas());
+        assertEquals(0, c.getEntradas());
+        assertEquals(0, c.getBytes());
+        assertFalse(Files.exists(arqA));
+        assertFalse(Files.exists(arqB));
+
+        c.guarda(cenario, b); // volta a funcionar normalmente
+        assertEquals(tamanhoB, c.getBytes());
+        assertNotNull(c.busca(cenario, 2, b.semente));
+    }
+
+    // No jar (benchmarks, trabalhadores) a versão é a mesma do diretório de classes
+    @Test
+    void jarTemAMesmaVersao() throws Exception {
+        Path origem = classes(), jar = dir.resolve("modelo.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+             Stream<Path> arquivos = Files.walk(origem)) {
+            for (Path p : (Iterable<Path>) arquivos::iterator) {
+                if (!Files.isRegularFile(p)) continue;
+                out.putNextEntry(new JarEntry(origem.relativize(p).toString().replace('\\', '/')));
+                Files.copy(p, (OutputStream) out);
+                out.closeEntry();
+            }
+        }
+        assertEquals(CacheResultados.classesDoModelo(origem), CacheResultados.classesDoModelo(jar));
+        assertArrayEquals(CacheResultados.versaoModelo(origem), CacheResultados.versaoModelo(jar));
+    }
+}
@@ -0,0 +1,124 @@
+package org.example;
+
+import org.example.model.MotorSimulacao;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Coordenador com trabalhadores de verdade (threads de ClinicaTrabalhadorMain) e trabalhadores que caem com
+// uma replicação emprestada
+class CoordenadorReplicacoesTest {
+
+    private static final double[] FATOR = {0.8, 1.0, 1.2, 1.3, 1.4, 1.2, 1.0, 0.9, 0.8, 0.7};
+
+    private static DataOutputStream saida(Socket s) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+    }
+
+    // Apresenta-se como trabalhador compatível, pega uma replicação e cai sem responder; devolve a rep pega
+    private static int pegaECai(int porta) throws IOException {
+        try (Socket s = new Socket(InetAddress.getLoopbackAddress(), porta)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = saida(s);
+            byte[] versao = CacheResultados.versaoModelo();
+            out.writeInt(CoordenadorReplicacoes.MAGICO);
+            out.writeInt(CoordenadorReplicacoes.VERSAO);
+            out.writeInt(versao.length);
+            out.write(versao);
+            out.flush();
+            assertTrue(in.readBoolean());
+            assertEquals(CoordenadorReplicacoes.UNIDADE, in.readByte());
+            in.readLong();
+            Cenario.le(in);
+            int rep = in.readInt();
+            in.readLong();
+            return rep;
+        }
+    }
+
+    @Test
+    void trabalhadorQueCaiTemAReplicacaoReentregue() throws Exception {
+        Cenario cenario = new Cenario(3, true, false, FATOR, null, MotorSimulacao.EVENTOS);
+        ScheduledExecutorService sinais = Executors.newSingleThreadScheduledExecutor();
+        List<Thread> trabalhadores = new ArrayList<>();
+        try (CoordenadorReplicacoes coordenador = new CoordenadorReplicacoes(InetAddress.getLoopbackAddress(), 0)) {
+            List<CompletableFuture<ResultadoReplicacao>> futuros = new ArrayList<>();
+            for (int rep = 1; rep <= 8; rep++) {
+                futuros.add(coordenador.submete(cenario, rep, ExecutorReplicacoes.semente(1L, cenario, rep)));
+            }
+
+            // o primeiro "trabalhador" morre no meio do empréstimo, antes de os outros conectarem
+            int perdida = pegaECai(coordenador.getPorta());
+
+            for (int k = 0; k < 2; k++) {
+                Thread t = new Thread(() -> ClinicaTrabalhadorMain.trabalha("127.0.0.1", coordenador.getPorta(), sinais));
+                t.start();
+                trabalhadores.add(t);
+            }
+
+            for (int rep = 1; rep <= 8; rep++) {
+                ResultadoReplicacao remoto = futuros.get(rep - 1).get(60, TimeUnit.SECONDS);
+                ResultadoReplicacao local = ExecutorReplicacoes.rodaReplicacao(cenario, rep,
+                        ExecutorReplicacoes.semente(1L, cenario, rep));
+                assertEquals(local.esperaMediaUrgente, remoto.esperaMediaUrgente, "rep " + rep);
+                assertEquals(local.esperaMediaNaoUrgente, remoto.esperaMediaNaoUrgente, "rep " + rep);
+                assertArrayEquals(local.picoHora, remoto.picoHora, "rep " + rep);
+            }
+            assertEquals(1, perdida);
+            assertEquals(1, coordenador.getReentregas());
+        } finally {
+            for (Thread t : trabalhadores) t.join(10_000);
+            sinais.shutdownNow();
+        }
+        for (Thread t : trabalhadores) assertFalse(t.isAlive(), "trabalhador não recebeu FIM");
+    }
+
+    // Uma replicação que derruba todo trabalhador que a pega falha depois de MAX_ENTREGAS entregas
+    @Test
+    void replicacaoPerdidaDemaisFalha() throws Exception {
+        Cenario cenario = new Cenario(2, true, false, FATOR, null, MotorSimulacao.EVENTOS);
+        try (CoordenadorReplicacoes coordenador = new CoordenadorReplicacoes(InetAddress.getLoopbackAddress(), 0)) {
+            CompletableFuture<ResultadoReplicacao> futuro = coordenador.submete(cenario, 1, 7L);
+            for (int k = 0; k < CoordenadorReplicacoes.MAX_ENTREGAS; k++) pegaECai(coordenador.getPorta());
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> futuro.get(10, TimeUnit.SECONDS));
+            assertTrue(e.getCause().getMessage().contains("perdida"), e.getCause().getMessage());
+            assertEquals(CoordenadorReplicacoes.MAX_ENTREGAS - 1, coordenador.getReentregas());
+        }
+    }
+
+    // Tamanho de versão absurdo na apresentação: recusado sem alocar
+    @Test
+    void apresentacaoComTamanhoInvalidoERecusada() throws Exception {
+        try (CoordenadorReplicacoes coordenador = new CoordenadorReplicacoes(InetAddress.getLoopbackAddress(), 0);
+             Socket s = new Socket(InetAddress.getLoopbackAddress(), coordenador.getPorta())) {
+            DataOutputStream out = saida(s);
+            out.writeInt(CoordenadorReplicacoes.MAGICO);
+            out.writeInt(CoordenadorReplicacoes.VERSAO);
+            out.writeInt(Integer.MAX_VALUE);
+            out.flush();
+            DataInputStream in = new DataInputStream(s.getInputStream());
+            assertFalse(in.readBoolean());
+            assertTrue(in.readUTF().contains("bytes"));
+        }
+    }
+}
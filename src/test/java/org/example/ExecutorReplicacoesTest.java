@@ -0,0 +1,93 @@
+package org.example;
+
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.MotorSimulacao;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// A mesma grade no pool de 1 thread, no de várias e em sequência tem de dar resultados idênticos: a semente
+// de cada replicação só depende do cenário e do nº da replicação, e nada do DESMO-J é compartilhado
+class ExecutorReplicacoesTest {
+
+    private static final long SEMENTE = 20240601L;
+    private static final double[] FATOR = {0.8, 1.0, 1.2, 1.3, 1.4, 1.2, 1.0, 0.9, 0.8, 0.7};
+
+    private static List<Cenario> grade() {
+        List<Cenario> cenarios = new ArrayList<>();
+        for (MotorSimulacao motor : new MotorSimulacao[]{MotorSimulacao.PROCESSOS, MotorSimulacao.EVENTOS}) {
+            for (int c = 2; c <= 5; c++) {
+                for (boolean filaUnica : new boolean[]{false, true}) {
+                    cenarios.add(new Cenario(c, true, filaUnica, FATOR, null, motor, ConfiguracaoHorizonte.PADRAO));
+                }
+            }
+        }
+        return cenarios;
+    }
+
+    private static List<ResultadoReplicacao> roda(ExecutorReplicacoes executor, List<Cenario> cenarios, int reps) {
+        List<Future<ResultadoReplicacao>> futuros = new ArrayList<>();
+        for (Cenario cenario : cenarios) {
+            for (int rep = 1; rep <= reps; rep++) {
+                futuros.add(executor.submete(cenario, rep, ExecutorReplicacoes.semente(SEMENTE, cenario, rep)));
+            }
+        }
+        List<ResultadoReplicacao> resultados = new ArrayList<>();
+        for (Future<ResultadoReplicacao> f : futuros) resultados.add(ExecutorReplicacoes.aguarda(f));
+        return resultados;
+    }
+
+    private static byte[] bytes(ResultadoReplicacao r) throws IOException {
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        r.histogramasEspera.escreve(new DataOutputStream(b));
+        return b.toByteArray();
+    }
+
+    private static void comparaResultados(List<ResultadoReplicacao> esperado, List<ResultadoReplicacao> obtido, String qual)
+            throws IOException {
+        assertEquals(esperado.size(), obtido.size(), qual);
+        for (int k = 0; k < esperado.size(); k++) {
+            ResultadoReplicacao a = esperado.get(k);
+            ResultadoReplicacao b = obtido.get(k);
+            String onde = qual + ", replicação " + k;
+            assertEquals(a.rep, b.rep, onde);
+            assertEquals(a.semente, b.semente, onde);
+            assertEquals(a.cumpriu, b.cumpriu, onde);
+            assertArrayEquals(a.picoHora, b.picoHora, onde);
+            assertEquals(a.esperaMediaUrgente, b.esperaMediaUrgente, onde);
+            assertEquals(a.esperaMediaNaoUrgente, b.esperaMediaNaoUrgente, onde);
+            assertEquals(a.filaMedia, b.filaMedia, onde);
+            assertEquals(a.utilizacaoMedia, b.utilizacaoMedia, onde);
+            assertArrayEquals(bytes(a), bytes(b), onde + ": histogramas");
+        }
+    }
+
+    @Test
+    void poolDeUmaThreadEDeVariasReproduzemOSequencial() throws IOException {
+        List<Cenario> cenarios = grade();
+        int reps = 3; // 48 replicações
+
+        List<ResultadoReplicacao> sequencial = new ArrayList<>();
+        for (Cenario cenario : cenarios) {
+            for (int rep = 1; rep <= reps; rep++) {
+                sequencial.add(ExecutorReplicacoes.rodaReplicacao(cenario, rep, ExecutorReplicacoes.semente(SEMENTE, cenario, rep)));
+            }
+        }
+
+        try (ExecutorReplicacoes um = new ExecutorReplicacoes(1)) {
+            comparaResultados(sequencial, roda(um, cenarios, reps), "1 thread");
+        }
+        try (ExecutorReplicacoes varios = new ExecutorReplicacoes(8)) {
+            comparaResultados(sequencial, roda(varios, cenarios, reps), "8 threads");
+            assertEquals(48, varios.getReplicacoesSimuladas());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.MotorSimulacao;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Com a mesma semente, o motor EVENTOS tem de reproduzir o PROCESSOS: mesmas médias dos Tally e mesmos picos
+class MotoresEquivalentesTest {
+
+    private static final long SEMENTE = 20240601L;
+    private static final double[] FATOR = {0.8, 1.0, 1.2, 1.3, 1.4, 1.2, 1.0, 0.9, 0.8, 0.7};
+
+    private static void comparaMotores(int c, boolean prioridade, boolean filaUnica, Double naoUrgente) {
+        Cenario processos = new Cenario(c, prioridade, filaUnica, FATOR, naoUrgente, MotorSimulacao.PROCESSOS,
+                ConfiguracaoHorizonte.PADRAO);
+        Cenario eventos = new Cenario(c, prioridade, filaUnica, FATOR, naoUrgente, MotorSimulacao.EVENTOS,
+                ConfiguracaoHorizonte.PADRAO);
+        for (int rep = 1; rep <= 5; rep++) {
+            long semente = ExecutorReplicacoes.semente(SEMENTE, processos, rep);
+            ResultadoReplicacao p = ExecutorReplicacoes.rodaReplicacao(processos, rep, semente);
+            ResultadoReplicacao e = ExecutorReplicacoes.rodaReplicacao(eventos, rep, semente);
+
+            String onde = "c = " + c + ", rep " + rep;
+            assertEquals(p.esperaMediaUrgente, e.esperaMediaUrgente, onde);
+            assertEquals(p.esperaMediaNaoUrgente, e.esperaMediaNaoUrgente, onde);
+            assertArrayEquals(p.picoHora, e.picoHora, onde);
+            assertEquals(p.cumpriu, e.cumpriu, onde);
+            assertEquals(p.filaMedia, e.filaMedia, 1e-9, onde);
+            assertEquals(p.utilizacaoMedia, e.utilizacaoMedia, 1e-9, onde);
+        }
+    }
+
+    @Test
+    void prioridadeFilasSeparadas() {
+        comparaMotores(2, true, false, null);
+        comparaMotores(4, true, false, null);
+    }
+
+    @Test
+    void filaUnica() {
+        comparaMotores(2, false, true, null);
+        comparaMotores(4, true, true, null);
+    }
+
+    @Test
+    void triagem() {
+        comparaMotores(3, true, false, 15.0);
+    }
+}
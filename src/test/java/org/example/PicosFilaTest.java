@@ -0,0 +1,81 @@
+package org.example;
+
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.TimeInstant;
+import org.example.model.ClinicaModelBase;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.LeitorLogEventos;
+import org.example.model.LogEventos;
+import org.example.model.MotorSimulacao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Picos incrementais (O(1) por chegada) × regra direta: o maior tamanho que cada fila teve em cada bucket,
+// reconstruído do log de eventos. Cenários sorteados, os dois motores, filas separadas e pool.
+class PicosFilaTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void picosIncrementaisConcordamComAsFilasDoLog() throws IOException {
+        SplittableRandom rnd = new SplittableRandom(2024);
+        double[] buckets = {15.0, 30.0, 60.0};
+        for (int k = 0; k < 40; k++) {
+            int c = 1 + rnd.nextInt(8);
+            boolean filaUnica = rnd.nextBoolean();
+            double[] fator = new double[10];
+            for (int h = 0; h < fator.length; h++) fator[h] = (0.5 + 2 * rnd.nextDouble()) * c / 2;
+            ConfiguracaoHorizonte horizonte = new ConfiguracaoHorizonte(600.0, buckets[rnd.nextInt(buckets.length)], 600.0);
+            Cenario cenario = new Cenario(c, rnd.nextBoolean(), filaUnica, fator, null,
+                    rnd.nextBoolean() ? MotorSimulacao.EVENTOS : MotorSimulacao.PROCESSOS, horizonte);
+            String onde = "cenário " + k + " (c = " + c + ", pool = " + filaUnica + ", " + cenario.motor + ")";
+
+            Path arquivo = dir.resolve("picos_" + k + ".clev");
+            Experiment exp = ExecutorReplicacoes.novoExperimento(cenario.nomeExperimento(k));
+            ClinicaModelBase model = cenario.criaModelo(false, false);
+            LogEventos log = new LogEventos(arquivo);
+            model.setLogEventos(log);
+            exp.setSeedGenerator(rnd.nextLong());
+            model.connectToExperiment(exp);
+            exp.stop(new TimeInstant(horizonte.getHorizonte()));
+            exp.start();
+            exp.finish();
+            log.close();
+
+            int filas = filaUnica ? 1 : c;
+            int[] tamanho = new int[filas];
+            int[] pico = new int[horizonte.getNumBuckets()];
+            int[] ultimoBucket = {0};
+            new LeitorLogEventos(arquivo).percorre((tipo, id, consultorio, urgente, t) -> {
+                int b = horizonte.bucket(t);
+                // a fila entra em cada bucket novo com o tamanho que tinha
+                for (; ultimoBucket[0] < b; ultimoBucket[0]++) {
+                    for (int n : tamanho) pico[ultimoBucket[0] + 1] = Math.max(pico[ultimoBucket[0] + 1], n);
+                }
+                int i = filaUnica ? 0 : consultorio;
+                if (tipo == LogEventos.CHEGADA) {
+                    tamanho[i]++;
+                    pico[b] = Math.max(pico[b], tamanho[i]);
+                } else if (tipo == LogEventos.INICIO) {
+                    tamanho[i]--;
+                }
+            });
+            for (int b = ultimoBucket[0] + 1; b < pico.length; b++) {
+                for (int n : tamanho) pico[b] = Math.max(pico[b], n);
+            }
+
+            int total = 0;
+            for (int n : tamanho) total += n;
+            assertArrayEquals(pico, model.getPicoHoraGlobal(), onde);
+            assertEquals(total, model.getAguardando(), onde);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Retomada da saída em lote: pula só as células gravadas com os mesmos parâmetros
+class SaidaLoteTest {
+
+    @TempDir
+    Path dir;
+
+    private GradeCenarios grade(String... linhas) throws IOException {
+        Path arquivo = dir.resolve("grade.txt");
+        Files.write(arquivo, List.of(linhas), StandardCharsets.UTF_8);
+        return GradeCenarios.le(arquivo);
+    }
+
+    private static void grava(SaidaLote saida, GradeCenarios.Celula c) throws IOException {
+        ResultadoReplicacao r = ExecutorReplicacoes.rodaReplicacao(c.cenario, 1, c.sementeBase);
+        saida.escreve(c, ResumoCelula.de(List.of(r)));
+    }
+
+    private void retomaSoQuandoOsParametrosBatem(String nomeSaida) throws IOException {
+        Path arquivo = dir.resolve(nomeSaida);
+        GradeCenarios original = grade("replicacoes = 1", "fatorChegadaHora = 1.0,1.2",
+                "cenario base consultorios=2,3");
+        try (SaidaLote saida = new SaidaLote(arquivo)) {
+            for (GradeCenarios.Celula c : original.getCelulas()) grava(saida, c);
+        }
+
+        try (SaidaLote saida = new SaidaLote(arquivo)) {
+            for (GradeCenarios.Celula c : original.getCelulas()) assertTrue(saida.concluida(c), c.id);
+        }
+
+        // mesmo nome e mesmos ids, parâmetros diferentes: roda de novo
+        GradeCenarios mudada = grade("replicacoes = 1", "fatorChegadaHora = 1.0,1.3",
+                "cenario base consultorios=2,3 semente=7");
+        try (SaidaLote saida = new SaidaLote(arquivo)) {
+            GradeCenarios.Celula c2 = mudada.getCelulas().get(0);
+            assertFalse(saida.concluida(c2));
+            grava(saida, c2);
+        }
+        try (SaidaLote saida = new SaidaLote(arquivo)) {
+            assertTrue(saida.concluida(mudada.getCelulas().get(0)));   // a linha nova vale
+            assertFalse(saida.concluida(original.getCelulas().get(0)));
+            assertFalse(saida.concluida(mudada.getCelulas().get(1)));
+            assertEquals(2, saida.getConcluidas());
+        }
+    }
+
+    @Test
+    void retomadaCsv() throws IOException {
+        retomaSoQuandoOsParametrosBatem("saida.csv");
+        List<String> linhas = Files.readAllLines(dir.resolve("saida.csv"), StandardCharsets.UTF_8);
+        String[] cabecalho = linhas.get(0).split(",");
+        for (int i = 1; i < linhas.size(); i++) assertEquals(cabecalho.length, linhas.get(i).split(",", -1).length);
+        assertTrue(linhas.get(1).contains(",1.0;1.2,600.0000,60.0000,false,false,PROCESSOS,ETA,,,20240601,"), linhas.get(1));
+    }
+
+    @Test
+    void retomadaJsonLines() throws IOException {
+        retomaSoQuandoOsParametrosBatem("saida.jsonl");
+        String linha = Files.readAllLines(dir.resolve("saida.jsonl"), StandardCharsets.UTF_8).get(0);
+        assertTrue(linha.contains("\"fatorChegadaHora\":[1.0,1.2],\"horizonte\":600.0000,"
+                + "\"segmentoChegada\":60.0000,\"crn\":false,\"chegadaExata\":false"), linha);
+        assertTrue(linha.contains("\"roteamento\":\"ETA\",\"envelhecimento\":null,\"plano\":null,\"semente\":20240601"), linha);
+    }
+
+    // Células que só diferem em roteamento, envelhecimento, plano etc. se distinguem pelas colunas, não só pelo hash
+    private List<String> gravaGradeCompleta(String nomeSaida) throws IOException {
+        Files.write(dir.resolve("plano,almoco.txt"), List.of("2 turnos=0-240,300-600"), StandardCharsets.UTF_8);
+        GradeCenarios g = grade("replicacoes = 1", "horizonte = 120",
+                "cenario a consultorios=2 roteamento=potencia_2 chegadaExata=true segmentoChegada=30",
+                "cenario b consultorios=2 envelhecimento=20 plano=plano,almoco.txt");
+        Path arquivo = dir.resolve(nomeSaida);
+        try (SaidaLote saida = new SaidaLote(arquivo)) {
+            for (GradeCenarios.Celula c : g.getCelulas()) grava(saida, c);
+        }
+        return Files.readAllLines(arquivo, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void colunasDeTodosOsParametrosCsv() throws IOException {
+        List<String> linhas = gravaGradeCompleta("completa.csv");
+        assertTrue(linhas.get(0).contains(",horizonte,segmentoChegada,crn,chegadaExata,motor,roteamento,envelhecimento,plano,semente,"),
+                linhas.get(0));
+        assertTrue(linhas.get(1).contains(",120.0000,30.0000,false,true,PROCESSOS,POTENCIA_2,,,"), linhas.get(1));
+        assertTrue(linhas.get(2).contains(",120.0000,60.0000,false,false,PROCESSOS,ETA,20.0000,\"plano,almoco.txt\","),
+                linhas.get(2));
+    }
+
+    @Test
+    void colunasDeTodosOsParametrosJsonLines() throws IOException {
+        List<String> linhas = gravaGradeCompleta("completa.jsonl");
+        assertTrue(linhas.get(0).contains("\"segmentoChegada\":30.0000,\"crn\":false,\"chegadaExata\":true,"
+                + "\"motor\":\"PROCESSOS\",\"roteamento\":\"POTENCIA_2\",\"envelhecimento\":null,\"plano\":null"), linhas.get(0));
+        assertTrue(linhas.get(1).contains("\"chegadaExata\":false,\"motor\":\"PROCESSOS\",\"roteamento\":\"ETA\","
+                + "\"envelhecimento\":20.0000,\"plano\":\"plano,almoco.txt\""), linhas.get(1));
+    }
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.MotorSimulacao;
+import org.example.model.PoliticaVirada;
+import org.example.model.ResumoDia;
+import org.example.model.TabelaBuckets;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SimulacaoMultiDiaTest {
+
+    private static final double[] FATOR = {0.8, 1.0, 1.2, 1.3, 1.4, 1.2, 1.0, 0.9, 0.8, 0.7};
+
+    // Com CARREGA, parar no fim de cada dia não muda a simulação: os picos por bucket guardados nos
+    // ResumoDia (as tabelas do modelo são descartadas a cada dia) são os de uma rodada direta
+    @Test
+    void picosDosDiasSaoOsDaRodadaDireta() {
+        for (MotorSimulacao motor : MotorSimulacao.values()) {
+            for (boolean filaUnica : new boolean[]{false, true}) {
+                Cenario cenario = new Cenario(3, true, filaUnica, FATOR, null, motor, ConfiguracaoHorizonte.dias(20, 60.0));
+                long semente = 777L;
+                List<ResumoDia> dias = SimulacaoMultiDia.roda(cenario, PoliticaVirada.CARREGA, semente);
+                ResultadoReplicacao direta = ExecutorReplicacoes.rodaReplicacao(cenario, 1, semente);
+
+                int[] picos = new int[0];
+                for (ResumoDia d : dias) {
+                    int n = picos.length;
+                    picos = Arrays.copyOf(picos, n + d.picoPorBucket.length);
+                    System.arraycopy(d.picoPorBucket, 0, picos, n, d.picoPorBucket.length);
+                }
+                assertArrayEquals(direta.picoHora, picos, motor + ", fila única = " + filaUnica);
+            }
+        }
+    }
+
+    @Test
+    void tabelaDescartaBucketsFechados() {
+        TabelaBuckets t = new TabelaBuckets(2);
+        for (int b = 0; b < 100; b++) t.set(b, b % 2, b);
+        t.descartaAte(90);
+        assertEquals(0, t.get(10, 0));
+        assertEquals(95, t.get(95, 1));
+        assertEquals(99, t.maxIntervalo(0, 100));
+        assertArrayEquals(new int[]{0, 0, 90, 91}, t.maxPorBucket(88, 92));
+        t.max(5, 0, 1000); // bucket descartado: ignorado
+        assertEquals(99, t.maxIntervalo(0, 100));
+        t.set(130, 0, 7);
+        assertEquals(7, t.get(130, 0));
+        assertEquals(131, t.getBuckets());
+    }
+}
@@ -0,0 +1,102 @@
+package org.example;
+
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.TimeInstant;
+import org.example.model.ClinicaModelBase;
+import org.example.model.ConfiguracaoHorizonte;
+import org.example.model.LeitorLogEventos;
+import org.example.model.LogEventos;
+import org.example.model.MotorSimulacao;
+import org.example.model.PlanoConsultorios;
+import org.example.model.PoliticaRoteamento;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Consultório que fecha com fila: quem esperava vai para os abertos, nos dois motores, e a espera conta até o
+// atendimento de fato
+class TurnosConsultoriosTest {
+
+    private static final long SEMENTE = 20240601L;
+    private static final double[] FATOR = {1.2, 1.4, 1.8, 2.0, 2.0, 1.8, 1.4, 1.2, 1.0, 0.8};
+
+    // Consultório 2 com almoço das 240 às 300; consultório 3 só até as 300
+    private static final PlanoConsultorios PLANO = new PlanoConsultorios(null,
+            new double[][]{null, {0, 240, 300, 600}, {0, 300}});
+
+    @TempDir
+    Path dir;
+
+    private static Cenario cenario(MotorSimulacao motor, PoliticaRoteamento roteamento) {
+        return new Cenario(3, true, false, FATOR, null, motor, ConfiguracaoHorizonte.PADRAO)
+                .comRoteamento(roteamento).comPlano(PLANO);
+    }
+
+    @Test
+    void motoresConcordamComFechamentos() {
+        for (PoliticaRoteamento roteamento : PoliticaRoteamento.values()) {
+            Cenario processos = cenario(MotorSimulacao.PROCESSOS, roteamento);
+            Cenario eventos = cenario(MotorSimulacao.EVENTOS, roteamento);
+            for (int rep = 1; rep <= 4; rep++) {
+                long semente = ExecutorReplicacoes.semente(SEMENTE, processos, rep);
+                ResultadoReplicacao p = ExecutorReplicacoes.rodaReplicacao(processos, rep, semente);
+                ResultadoReplicacao e = ExecutorReplicacoes.rodaReplicacao(eventos, rep, semente);
+
+                String onde = roteamento + ", rep " + rep;
+                assertEquals(p.esperaMediaUrgente, e.esperaMediaUrgente, onde);
+                assertEquals(p.esperaMediaNaoUrgente, e.esperaMediaNaoUrgente, onde);
+                assertArrayEquals(p.picoHora, e.picoHora, onde);
+                assertEquals(p.filaMedia, e.filaMedia, 1e-9, onde);
+            }
+        }
+    }
+
+    @Test
+    void filaDoConsultorioFechadoNaoFicaParada() throws IOException {
+        for (MotorSimulacao motor : new MotorSimulacao[]{MotorSimulacao.PROCESSOS, MotorSimulacao.EVENTOS}) {
+            for (PoliticaRoteamento roteamento : PoliticaRoteamento.values()) {
+                Cenario cenario = cenario(motor, roteamento);
+                String onde = motor + ", " + roteamento;
+                Path arquivo = dir.resolve("turnos_" + motor + "_" + roteamento + ".clev");
+                Experiment exp = ExecutorReplicacoes.novoExperimento(cenario.nomeExperimento(1));
+                ClinicaModelBase model = cenario.criaModelo(false, false);
+                LogEventos log = new LogEventos(arquivo);
+                model.setLogEventos(log);
+                exp.setSeedGenerator(SEMENTE);
+                model.connectToExperiment(exp);
+                exp.stop(new TimeInstant(cenario.horizonte.getHorizonte()));
+                exp.start();
+                exp.finish();
+                log.close();
+
+                Map<Integer, Double> transferidos = new HashMap<>();
+                int[] iniciosTransferidos = {0};
+                new LeitorLogEventos(arquivo).percorre((tipo, id, consultorio, urgente, t) -> {
+                    if (tipo == LogEventos.CHEGADA || tipo == LogEventos.TRANSFERENCIA) {
+                        // fechado só recebe paciente com todos fechados, o que este plano nunca tem
+                        assertTrue(consultorio != 2 || t < 300, onde);
+                        assertTrue(consultorio != 1 || t < 240 || t >= 300, onde);
+                        if (tipo == LogEventos.TRANSFERENCIA) transferidos.put(id, t);
+                    } else if (tipo == LogEventos.INICIO) {
+                        assertTrue(consultorio != 2 || t < 300, onde + ": atendimento no consultório fechado");
+                        assertTrue(consultorio != 1 || t <= 240 || t >= 300, onde + ": atendimento no almoço");
+                        if (transferidos.containsKey(id)) iniciosTransferidos[0]++;
+                    }
+                });
+
+                assertTrue(transferidos.size() > 0, onde + ": nenhuma fila no fechamento");
+                assertEquals(0, model.getAguardandoFila(2), onde);
+                // transferido sem atendimento só se ainda estiver aguardando no fim do dia
+                assertTrue(transferidos.size() - iniciosTransferidos[0] <= model.getAguardando(), onde);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Fontes de chegadas de registro histórico: CSV (cabeçalho, flags, atendimento, data-hora) e binária
+class FonteChegadasTest {
+
+    @TempDir
+    Path dir;
+
+    private Path csv(String nome, String... linhas) throws IOException {
+        Path arquivo = dir.resolve(nome);
+        Files.write(arquivo, List.of(linhas), StandardCharsets.UTF_8);
+        return arquivo;
+    }
+
+    private static void confere(FonteChegadas f, double tempo, boolean urgente, double servico) {
+        assertTrue(f.avanca());
+        assertEquals(tempo, f.getTempo());
+        assertEquals(urgente, f.isUrgente());
+        assertEquals(servico, f.getServico());
+    }
+
+    // Fonte sintética em memória: tempos crescentes (ou não, se tempo() diz), flags e atendimento alternados
+    private abstract static class Sintetica implements FonteChegadas {
+        private final long n;
+        long k = -1;
+
+        Sintetica(long n) { this.n = n; }
+
+        abstract double tempo(long k);
+
+        @Override public boolean avanca()    { return ++k < n; }
+        @Override public double getTempo()   { return tempo(k); }
+        @Override public boolean isUrgente() { return k % 3 == 0; }
+        @Override public double getServico() { return k % 5 == 0 ? Double.NaN : k % 40; }
+        @Override public void close() { }
+    }
+
+    @Test
+    void csvComCabecalhoFlagsEAtendimento() throws IOException {
+        Path arquivo = csv("chegadas.csv",
+                "tempo,urgente,servico",
+                "# comentário",
+                "0.5,U,",
+                "",
+                "1.25,N,12.5",
+                "2,1",
+                "2,0, 7",
+                "3,true,",
+                "4.5,false,3");
+        try (FonteChegadas f = FonteChegadas.abre(arquivo)) {
+            confere(f, 0.5, true, Double.NaN);
+            confere(f, 1.25, false, 12.5);
+            confere(f, 2.0, true, Double.NaN);
+            confere(f, 2.0, false, 7.0);
+            confere(f, 3.0, true, Double.NaN);
+            confere(f, 4.5, false, 3.0);
+            assertFalse(f.avanca());
+        }
+    }
+
+    // Sem cabeçalho, a primeira linha é um registro mesmo sem começar por dígito
+    @Test
+    void csvSemCabecalho() throws IOException {
+        try (FonteChegadas f = FonteChegadas.abre(csv("sem.csv", ".5,1", "1,n"))) {
+            confere(f, 0.5, true, Double.NaN);
+            confere(f, 1.0, false, Double.NaN);
+            assertFalse(f.avanca());
+        }
+        try (FonteChegadas f = FonteChegadas.abre(csv("lixo.csv", "1x,1"))) {
+            assertThrows(IllegalArgumentException.class, f::avanca);
+        }
+    }
+
+    @Test
+    void csvRejeitaErros() throws IOException {
+        try (FonteChegadas f = FonteChegadas.abre(csv("ordem.csv", "5,1", "4,1"))) {
+            assertTrue(f.avanca());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, f::avanca);
+            assertTrue(e.getMessage().startsWith("ordem.csv:2:"), e.getMessage());
+        }
+        try (FonteChegadas f = FonteChegadas.abre(csv("flag.csv", "1,X"))) {
+            assertThrows(IllegalArgumentException.class, f::avanca);
+        }
+        try (FonteChegadas f = FonteChegadas.abre(csv("nan.csv", "NaN,1"))) {
+            assertThrows(IllegalArgumentException.class, f::avanca);
+        }
+    }
+
+    // Abertura às 8h, dia de 600 min: antes das 8h e a partir das 18h fica fora do expediente
+    @Test
+    void csvComDataHoraPulaForaDoExpediente() throws IOException {
+        Path arquivo = csv("datahora.csv",
+                "quando,urgente",
+                "2023-03-01T07:59,1",
+                "2023-03-01T08:00,0",
+                "2023-03-01T08:30:30,U",
+                "2023-03-01T18:00,N",
+                "2023-03-02T08:10,1",
+                "2023-03-03T17:59,0",
+                "2023-03-04T06:00,0");
+        try (FonteChegadasCsv f = FonteChegadasCsv.comDataHora(arquivo, LocalDate.of(2023, 3, 1), LocalTime.of(8, 0), 600)) {
+            confere(f, 0.0, false, Double.NaN);
+            confere(f, 30.5, true, Double.NaN);
+            confere(f, 610.0, true, Double.NaN);
+            confere(f, 1799.0, false, Double.NaN);
+            assertFalse(f.avanca());
+            assertEquals(3, f.getForaDoExpediente());
+        }
+    }
+
+    @Test
+    void converteCsvParaBinario() throws IOException {
+        Path origem = csv("curto.csv", "tempo,urgente,servico", "0,1,", "1.5,0,10", "1.5,U,2.25");
+        Path destino = dir.resolve("curto" + FonteChegadasBinaria.EXTENSAO);
+        try (FonteChegadas f = FonteChegadas.abre(origem)) {
+            assertEquals(3, FonteChegadasBinaria.converte(f, destino));
+        }
+        try (FonteChegadas f = FonteChegadas.abre(destino)) {
+            assertTrue(f instanceof FonteChegadasBinaria);
+            confere(f, 0.0, true, Double.NaN);
+            confere(f, 1.5, false, 10.0);
+            confere(f, 1.5, true, 2.25);
+            assertFalse(f.avanca());
+        }
+    }
+
+    // Mais registros do que cabem numa janela mapeada de 16 MB: a leitura remapeia sem perder nem repetir
+    @Test
+    void binarioMaiorQueUmaJanela() throws IOException {
+        long n = (20L << 20) / FonteChegadasBinaria.BYTES_POR_REGISTRO;
+        Path destino = dir.resolve("longo" + FonteChegadasBinaria.EXTENSAO);
+        try (Sintetica origem = new Sintetica(n) {
+            @Override double tempo(long k) { return k * 0.25; }
+        }) {
+            assertEquals(n, FonteChegadasBinaria.converte(origem, destino));
+        }
+        assertTrue(Files.size(destino) > 16L << 20);
+
+        Sintetica esperado = new Sintetica(n) {
+            @Override double tempo(long k) { return k * 0.25; }
+        };
+        try (FonteChegadasBinaria f = new FonteChegadasBinaria(destino)) {
+            while (esperado.avanca()) {
+                assertTrue(f.avanca(), "registro " + esperado.k);
+                if (f.getTempo() != esperado.getTempo() || f.isUrgente() != esperado.isUrgente()
+                        || Double.compare(f.getServico(), esperado.getServico()) != 0) {
+                    assertEquals(esperado.getTempo(), f.getTempo(), "registro " + esperado.k);
+                    assertEquals(esperado.isUrgente(), f.isUrgente(), "registro " + esperado.k);
+                    assertEquals(esperado.getServico(), f.getServico(), "registro " + esperado.k);
+                }
+            }
+            assertFalse(f.avanca());
+        }
+    }
+
+    @Test
+    void binarioRejeitaTempoQueDiminui() throws IOException {
+        Path destino = dir.resolve("fora" + FonteChegadasBinaria.EXTENSAO);
+        try (Sintetica origem = new Sintetica(4) {
+            @Override double tempo(long k) { return k == 2 ? 0.5 : k; }
+        }) {
+            FonteChegadasBinaria.converte(origem, destino);
+        }
+        try (FonteChegadasBinaria f = new FonteChegadasBinaria(destino)) {
+            assertTrue(f.avanca());
+            assertTrue(f.avanca());
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, f::avanca);
+            assertTrue(e.getMessage().contains("registro 3"), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Histograma log-linear × amostras ordenadas: erro relativo dos quantis, soma de histogramas e formato do cache
+class HistogramaEsperaTest {
+
+    private static final double ERRO_RELATIVO = Math.pow(2, 1 - HistogramaEspera.PRECISAO_BITS);
+
+    // Esperas de 0 a ~2000 min, log-uniformes: atravessam várias oitavas acima dos baldes exatos
+    private static double[] amostras(Random r, int n) {
+        double[] x = new double[n];
+        for (int k = 0; k < n; k++) x[k] = r.nextInt(20) == 0 ? 0.0 : Math.exp(r.nextDouble() * Math.log(2000.0)) - 1;
+        return x;
+    }
+
+    private static HistogramaEspera histograma(double[] x) {
+        HistogramaEspera h = new HistogramaEspera();
+        for (double v : x) h.registra(v);
+        return h;
+    }
+
+    private static byte[] bytes(HistogramaEspera h) throws IOException {
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        h.escreve(new DataOutputStream(b));
+        return b.toByteArray();
+    }
+
+    @Test
+    void quantisDentroDoErroRelativo() {
+        Random r = new Random(9);
+        for (int n : new int[]{1, 10, 1000, 100_000}) {
+            double[] x = amostras(r, n);
+            HistogramaEspera h = histograma(x);
+            Arrays.sort(x);
+            assertEquals(n, h.getTotal());
+            assertEquals(x[n - 1], h.getMaximo());
+            for (double q : new double[]{0.0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.95, 0.99, 0.999, 1.0}) {
+                double exato = x[(int) Math.max(1, Math.ceil(q * n)) - 1];
+                // meio centésimo do arredondamento para a resolução, mais o erro relativo do balde
+                double tolerancia = exato * ERRO_RELATIVO + HistogramaEspera.RESOLUCAO / 2;
+                assertEquals(exato, h.quantil(q), tolerancia, "n = " + n + ", q = " + q);
+            }
+        }
+        assertTrue(Double.isNaN(new HistogramaEspera().quantil(0.5)));
+    }
+
+    // Todo valor cai num balde cujo ponto médio está a menos do erro relativo; baldes em ordem crescente
+    @Test
+    void indiceEPontoMedio() {
+        int anterior = -1;
+        for (long u = 0; u < 1L << 22; u += 1 + u / 97) {
+            int k = HistogramaEspera.indice(u);
+            assertTrue(k >= anterior, "u = " + u);
+            anterior = k;
+            assertEquals(u, HistogramaEspera.pontoMedio(k), u * ERRO_RELATIVO, "u = " + u);
+        }
+    }
+
+    @Test
+    void juntaIgualAUmSoHistograma() {
+        Random r = new Random(11);
+        double[] a = amostras(r, 5000);
+        double[] b = new double[3000];
+        for (int k = 0; k < b.length; k++) b[k] = 100 + 400 * r.nextDouble(); // outra faixa: o vetor cresce na junção
+
+        HistogramaEspera junto = histograma(a);
+        junto.junta(histograma(b));
+        double[] todas = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, todas, a.length, b.length);
+        HistogramaEspera direto = histograma(todas);
+
+        assertEquals(direto.getTotal(), junto.getTotal());
+        assertEquals(direto.getMaximo(), junto.getMaximo());
+        assertEquals(direto.getMedia(), junto.getMedia(), 1e-9);
+        for (int k = 0; k <= 1000; k++) assertEquals(direto.quantil(k / 1000.0), junto.quantil(k / 1000.0), "q = " + k / 1000.0);
+    }
+
+    @Test
+    void idaEVoltaPeloFormatoDoCache() throws IOException {
+        HistogramaEspera h = histograma(amostras(new Random(13), 2000));
+        byte[] b = bytes(h);
+        HistogramaEspera lido = HistogramaEspera.le(new DataInputStream(new ByteArrayInputStream(b)));
+        assertArrayEquals(b, bytes(lido));
+        assertEquals(h.getTotal(), lido.getTotal());
+        assertEquals(h.getMedia(), lido.getMedia());
+        assertEquals(h.getMaximo(), lido.getMaximo());
+        for (int k = 0; k <= 100; k++) assertEquals(h.quantil(k / 100.0), lido.quantil(k / 100.0));
+
+        HistogramaEspera vazio = HistogramaEspera.le(new DataInputStream(new ByteArrayInputStream(bytes(new HistogramaEspera()))));
+        assertEquals(0, vazio.getTotal());
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.model;
+
+import desmoj.core.simulator.Experiment;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Índices do ClinicaModel (heap de ETA e BitSet de ocupados) × as varreduras lineares originais,
+// em sequências aleatórias de entradas/saídas de fila e mudanças de ocupação
+class IndicesDecisaoTest {
+
+    private static ClinicaModel modelo(int c, boolean prioridade, boolean filaUnica) {
+        return modelo(c, prioridade, filaUnica, new Roteamento.MenorETA());
+    }
+
+    private static ClinicaModel modelo(int c, boolean prioridade, boolean filaUnica, Roteamento roteamento) {
+        ClinicaModel m = new ClinicaModel(null, "Teste", false, false, c, prioridade, filaUnica, null, null);
+        m.setRoteamento(roteamento);
+        Experiment exp = new Experiment("Teste_Indices", false);
+        exp.setShowProgressBar(false);
+        exp.setSilent(true);
+        m.connectToExperiment(exp); // init(), sem rodar
+        return m;
+    }
+
+    @Test
+    void heapETAConcordaComVarreduraLinear() {
+        for (int c : new int[]{1, 2, 5, 17, 64}) {
+            Random r = new Random(1000 + c);
+            ClinicaModel m = modelo(c, r.nextBoolean(), false);
+            List<Paciente> naFila = new ArrayList<>();
+            for (int passo = 0; passo < 5000; passo++) {
+                int acao = r.nextInt(3);
+                if (acao == 0 || naFila.isEmpty()) {
+                    Paciente p = m.novoPaciente(r.nextDouble() < 0.3);
+                    int i = r.nextInt(c);
+                    p.setIndiceConsultorio(i);
+                    m.entraFila(i, p);
+                    naFila.add(p);
+                } else if (acao == 1) {
+                    Paciente p = naFila.remove(r.nextInt(naFila.size()));
+                    m.saiFila(p.getIndiceConsultorio(), p);
+                } else {
+                    m.setOcupado(r.nextInt(c), r.nextBoolean());
+                }
+                assertEquals(m.escolherConsultorioETALinear(), m.consultorioMenorETA(), "c = " + c + ", passo " + passo);
+            }
+        }
+    }
+
+    // O heap de ETA só existe com o roteamento que o consulta; a consulta avulsa cai na varredura
+    @Test
+    void heapETASoComRoteamentoPorETA() {
+        assertTrue(modelo(4, true, false).mantemHeapETA());
+        assertFalse(modelo(4, true, true).mantemHeapETA());
+        for (Roteamento r : new Roteamento[]{new Roteamento.MenorFila(), new Roteamento.PotenciaD(2)}) {
+            ClinicaModel m = modelo(4, true, false, r);
+            assertFalse(m.mantemHeapETA());
+            Paciente p = m.novoPaciente(false);
+            m.entraFila(0, p);
+            m.setOcupado(1, true);
+            assertEquals(2, m.consultorioMenorETA());
+            assertEquals(m.escolherConsultorioETALinear(), m.consultorioMenorETA());
+        }
+    }
+
+    // Lista de abertos (troca com o último) × isAberto, e o sorteio só devolve aberto, mesmo com quase todos fechados
+    @Test
+    void sorteioSoEntreAbertos() {
+        int c = 256;
+        Random r = new Random(3000);
+        ClinicaModel m = modelo(c, true, false, new Roteamento.PotenciaD(2));
+        for (int passo = 0; passo < 4000; passo++) {
+            m.mudaTurno(r.nextInt(c), r.nextInt(4) == 0); // tende a deixar poucos abertos
+            int abertos = 0;
+            for (int i = 0; i < c; i++) if (m.isAberto(i)) abertos++;
+            assertEquals(abertos, m.getNumAbertos(), "passo " + passo);
+            for (int k = 0; k < 4; k++) {
+                int i = m.sorteiaConsultorioAberto();
+                assertTrue(abertos == 0 || m.isAberto(i), "passo " + passo + ": sorteou o fechado " + i);
+            }
+        }
+
+        for (int i = 1; i < c; i++) m.mudaTurno(i, false);
+        m.mudaTurno(0, true);
+        for (int k = 0; k < 100; k++) assertEquals(0, m.sorteiaConsultorioAberto());
+        assertEquals(0, m.escolheConsultorio());
+    }
+
+    // O despacho do pool passa pelo roteamento: aqui, o livre de maior índice
+    @Test
+    void despachoDoPoolPeloRoteamento() {
+        Roteamento ultimoLivre = new Roteamento() {
+            @Override
+            public int escolhe(ClinicaModelBase modelo) { return 0; }
+
+            @Override
+            public int despacha(ClinicaModelBase modelo) {
+                for (int i = modelo.getNumConsultorios() - 1; i >= 0; i--) {
+                    if (!modelo.isOcupado(i) && modelo.isAberto(i)) return i;
+                }
+                return -1;
+            }
+        };
+        ClinicaModel m = modelo(3, true, true, ultimoLivre);
+        List<Paciente> pacientes = new ArrayList<>();
+        for (int k = 0; k < 4; k++) {
+            Paciente p = m.novoPaciente(false);
+            m.entraPool(p);
+            pacientes.add(p);
+        }
+        m.tentarDespacho();
+        assertEquals(2, pacientes.get(0).getIndiceConsultorio());
+        assertEquals(1, pacientes.get(1).getIndiceConsultorio());
+        assertEquals(0, pacientes.get(2).getIndiceConsultorio());
+        assertEquals(-1, pacientes.get(3).getIndiceConsultorio());
+        assertEquals(1, m.filaNaoGlobal.length());
+    }
+
+    @Test
+    void despachoPorBitSetConcordaComVarreduraLinear() {
+        for (int c : new int[]{1, 3, 8, 40}) {
+            Random r = new Random(2000 + c);
+            boolean prioridade = r.nextBoolean();
+            ClinicaModel indexado = modelo(c, prioridade, true);
+            ClinicaModel linear = modelo(c, prioridade, true);
+            List<Paciente> pacIndexado = new ArrayList<>();
+            List<Paciente> pacLinear = new ArrayList<>();
+            for (int passo = 0; passo < 3000; passo++) {
+                if (r.nextInt(3) < 2) {
+                    boolean urgente = r.nextDouble() < 0.3;
+                    Paciente a = indexado.novoPaciente(urgente);
+                    Paciente b = linear.novoPaciente(urgente);
+                    indexado.entraPool(a);
+                    linear.entraPool(b);
+                    pacIndexado.add(a);
+                    pacLinear.add(b);
+                } else {
+                    // fim de um atendimento
+                    int i = r.nextInt(c);
+                    indexado.setOcupado(i, false);
+                    linear.setOcupado(i, false);
+                }
+                indexado.tentarDespacho();
+                linear.tentarDespachoLinear();
+
+                String onde = "c = " + c + ", passo " + passo;
+                assertArrayEquals(linear.consultorioOcupado, indexado.consultorioOcupado, onde);
+                assertEquals(linear.filaUrgGlobal.length(), indexado.filaUrgGlobal.length(), onde);
+                assertEquals(linear.filaNaoGlobal.length(), indexado.filaNaoGlobal.length(), onde);
+                for (int k = 0; k < pacIndexado.size(); k++) {
+                    assertEquals(pacLinear.get(k).getIndiceConsultorio(), pacIndexado.get(k).getIndiceConsultorio(), onde);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeitorLogEventosTest {
+
+    @TempDir
+    Path dir;
+
+    // Arquivo maior que várias janelas de leitura: todos os eventos voltam, na ordem
+    @Test
+    void leLogMaiorQueAJanela() throws IOException {
+        Path arquivo = dir.resolve("longo.clev");
+        int total = 3_000_000; // ~45 MB, quase 3 janelas
+        try (LogEventos log = new LogEventos(arquivo)) {
+            for (int k = 0; k < total; k++) log.registra(LogEventos.CHEGADA, k, k % 7, k % 3 == 0, k * 0.5);
+        }
+        assertTrue(Files.size(arquivo) > 2 * LogEventos.JANELA);
+
+        int[] lidos = {0};
+        new LeitorLogEventos(arquivo).percorre((tipo, id, consultorio, urgente, t) -> {
+            int k = lidos[0]++;
+            assertEquals(k, id);
+            assertEquals(k % 7, consultorio);
+            assertEquals(k % 3 == 0, urgente);
+            assertEquals(k * 0.5, t);
+        });
+        assertEquals(total, lidos[0]);
+    }
+
+    // Gravação interrompida antes do close: o arquivo termina no resto zerado da janela
+    @Test
+    void logSemCloseTerminaNoBlocoVazio() throws IOException {
+        Path arquivo = dir.resolve("interrompido.clev");
+        LogEventos log = new LogEventos(arquivo);
+        try {
+            int gravados = LogEventos.EVENTOS_POR_BLOCO + 10; // 1 bloco descarregado, 10 eventos só na memória
+            for (int k = 0; k < gravados; k++) log.registra(LogEventos.CHEGADA, k, 0, false, k);
+            assertEquals(LogEventos.JANELA, Files.size(arquivo));
+
+            long[] lidos = {0};
+            new LeitorLogEventos(arquivo).percorre((tipo, id, consultorio, urgente, t) -> lidos[0]++);
+            assertEquals(LogEventos.EVENTOS_POR_BLOCO, lidos[0]);
+        } finally {
+            log.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MediasEmLotesTest {
+
+    // AR(1) com início longe da média: x_t = μ + φ(x_{t-1} - μ) + ε, ε ~ N(0, 1)
+    private static MediasEmLotes serieAR1(Random rnd, int n, double mu, double phi, double inicio) {
+        MediasEmLotes m = new MediasEmLotes();
+        double x = inicio;
+        for (int t = 0; t < n; t++) {
+            x = mu + phi * (x - mu) + rnd.nextGaussian();
+            m.registra(x);
+        }
+        return m;
+    }
+
+    // IC de 95% com MSER + 20 lotes cobre a média verdadeira em cerca de 95% das rodadas
+    @Test
+    void coberturaDoIntervaloEmAR1ComAquecimento() {
+        Random rnd = new Random(13);
+        int rodadas = 200, cobriu = 0;
+        for (int r = 0; r < rodadas; r++) {
+            MediasEmLotes m = serieAR1(rnd, 100_000, 10.0, 0.9, 60.0);
+            MediasEmLotes.Estimativa e = m.estima(20, 1.96);
+            assertTrue(e.descartadas > 0, "MSER deveria descartar o transiente");
+            if (Math.abs(e.media - 10.0) <= e.meiaLargura) cobriu++;
+        }
+        double cobertura = cobriu / (double) rodadas;
+        assertTrue(cobertura >= 0.90 && cobertura <= 0.99, "cobertura " + cobertura);
+    }
+
+    // A compactação mantém a média e a memória fixa
+    @Test
+    void compactaSemPerderAMedia() {
+        MediasEmLotes m = new MediasEmLotes();
+        int n = 5 * 4096 * 8;
+        for (int t = 0; t < n; t++) m.registra(t % 2);
+        assertTrue(m.getMiniLotes() <= 4096);
+        assertEquals(n, m.getTotal());
+        assertEquals(0.5, m.estima(10, 1.96).media, 1e-12);
+    }
+
+    @Test
+    void quantilT() {
+        assertEquals(2.093, MediasEmLotes.quantilT(1.959964, 19), 2e-3);
+        assertEquals(2.228, MediasEmLotes.quantilT(1.959964, 10), 5e-3);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaxaChegadaTest {
+
+    // O perfil usa o segmento do horizonte: 20 fatores de 30 min cobrem o dia de 600 min
+    @Test
+    void perfilComSegmentoDoHorizonte() {
+        double[] fator = new double[20];
+        double esperadas = 0;
+        for (int s = 0; s < fator.length; s++) {
+            fator[s] = 0.5 + 0.1 * s;
+            esperadas += fator[s] * 30.0 / 15.0;
+        }
+        ConfiguracaoHorizonte horizonte = ConfiguracaoHorizonte.PADRAO.comSegmentoChegada(30.0);
+        TaxaChegada taxa = TaxaChegada.doPerfil(fator, horizonte, 15.0);
+        assertEquals(esperadas, taxa.getTaxaDia(), 1e-9);
+
+        assertEquals(0, horizonte.segmentoDoDia(29.9));
+        assertEquals(1, horizonte.segmentoDoDia(30.0));
+        assertEquals(19, horizonte.segmentoDoDia(599.0));
+        assertEquals(2, horizonte.segmentoDoDia(600.0 + 75.0)); // segundo dia
+    }
+
+    // Sem segmento configurado, continua horário
+    @Test
+    void padraoHorario() {
+        TaxaChegada taxa = TaxaChegada.doPerfil(new double[]{2.0}, ConfiguracaoHorizonte.PADRAO, 15.0);
+        assertEquals(2.0 * 60 / 15 + 9 * 60 / 15.0, taxa.getTaxaDia(), 1e-9);
+        assertEquals(3, ConfiguracaoHorizonte.PADRAO.segmentoDoDia(200.0));
+    }
+
+    // A inversão cai no segmento certo: com taxa zero fora do 2º segmento, as chegadas ficam nele
+    @Test
+    void proximaChegadaRespeitaOSegmento() {
+        ConfiguracaoHorizonte horizonte = ConfiguracaoHorizonte.PADRAO.comSegmentoChegada(15.0);
+        double[] fator = new double[40];
+        fator[1] = 1.0;
+        TaxaChegada taxa = TaxaChegada.doPerfil(fator, horizonte, 15.0);
+        double t = 0;
+        for (int k = 0; k < 50; k++) {
+            t = taxa.proxima(t, 0.3);
+            double noDia = t % 600.0;
+            assertEquals(1, horizonte.segmentoDoDia(t), "t = " + t);
+            assertTrue(noDia >= 15.0 && noDia < 30.0, "t = " + t);
+        }
+    }
+}